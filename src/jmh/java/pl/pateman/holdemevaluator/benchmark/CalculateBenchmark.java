@@ -0,0 +1,85 @@
+package pl.pateman.holdemevaluator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+import pl.pateman.holdemevaluator.evaluator.HandOutcome;
+import pl.pateman.holdemevaluator.evaluator.HoldemEvaluator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculateBenchmark {
+
+  @Param({"5", "6", "7"})
+  public int cards;
+
+  @Param({"HIGH_CARD", "ONE_PAIR", "TWO_PAIRS", "SET", "STRAIGHT", "FLUSH", "FULL_HOUSE", "QUADS",
+      "STRAIGHT_FLUSH", "ROYAL_FLUSH"})
+  public HandName handName;
+
+  private HoldemEvaluator evaluator;
+  private FastHoldemEvaluator fastEvaluator;
+  private HandOutcome result;
+  private HandCorpus corpus;
+  private long[] handMasks;
+  private int[] ranks;
+  private int hand;
+
+  @Setup
+  public void setUp() {
+    this.evaluator = new HoldemEvaluator();
+    this.fastEvaluator = new FastHoldemEvaluator();
+    this.result = new HandOutcome();
+    this.corpus = HandCorpus.of(this.handName, this.cards, HandCorpus.SEED);
+    this.handMasks = new long[HandCorpus.SIZE];
+    for (int i = 0; i < HandCorpus.SIZE; i++) {
+      this.handMasks[i] = this.corpus.getMask(i);
+    }
+    this.ranks = new int[HandCorpus.SIZE];
+  }
+
+  private int nextHand() {
+    this.hand = (this.hand + 1) & (HandCorpus.SIZE - 1);
+    return this.hand;
+  }
+
+  @Benchmark
+  public HandOutcome calculate() {
+    final int next = this.nextHand();
+    return this.evaluator.calculate(this.corpus.getHoleCards(next), this.corpus.getTableCards(next));
+  }
+
+  @Benchmark
+  public HandOutcome calculateIntoResult() {
+    this.evaluator.calculate(this.corpus.getMask(this.nextHand()), this.result);
+    return this.result;
+  }
+
+  @Benchmark
+  public int rank() {
+    return this.fastEvaluator.rank(this.corpus.getMask(this.nextHand()));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(HandCorpus.SIZE)
+  public int[] evaluateBatch() {
+    this.evaluator.evaluateBatch(this.handMasks, this.ranks);
+    return this.ranks;
+  }
+}
@@ -0,0 +1,120 @@
+package pl.pateman.holdemevaluator.benchmark;
+
+import java.util.Random;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+
+final class HandCorpus {
+
+  //  A power of two, so that benchmarks can cycle through the corpus with a mask.
+  static final int SIZE = 1024;
+  static final long SEED = 0x5EEDL;
+
+  private static final int HOLE_CARDS = 2;
+  private static final int RANKS = 13;
+  private static final int MAX_DRAWS = 100_000_000;
+  private static final FastHoldemEvaluator EVALUATOR = new FastHoldemEvaluator();
+
+  private final Card[][] holeCards;
+  private final Card[][] tableCards;
+  private final long[] masks;
+
+  private HandCorpus(final int size) {
+    this.holeCards = new Card[size][];
+    this.tableCards = new Card[size][];
+    this.masks = new long[size];
+  }
+
+  static HandCorpus random(final int cardCount, final int size, final long seed) {
+    final Random random = new Random(seed);
+    final HandCorpus corpus = new HandCorpus(size);
+    for (int hand = 0; hand < size; hand++) {
+      corpus.set(hand, draw(random, CardMask.EMPTY, cardCount), random);
+    }
+    return corpus;
+  }
+
+  static HandCorpus of(final HandName handName, final int cardCount, final long seed) {
+    final Random random = new Random(seed);
+    final HandCorpus corpus = new HandCorpus(SIZE);
+    int hand = 0;
+    for (int draws = 0; hand < SIZE; draws++) {
+      if (draws == MAX_DRAWS) {
+        throw new IllegalStateException(
+            "Could not deal " + SIZE + " hands of " + handName + " with " + cardCount + " cards");
+      }
+      final long mask = draw(random, madeHand(handName, random), cardCount);
+      if (FastHoldemEvaluator.getHandName(EVALUATOR.rank(mask)) == handName) {
+        corpus.set(hand++, mask, random);
+      }
+    }
+    return corpus;
+  }
+
+  private static long madeHand(final HandName handName, final Random random) {
+    //  Straight flushes are too rare to find by chance in five or six cards, so those hands are
+    //  seeded with the made hand and only the rest of the cards are dealt at random.
+    final int suitOffset = random.nextInt(4) * RANKS;
+    final int high;
+    switch (handName) {
+      case ROYAL_FLUSH:
+        high = RANKS - 1;
+        break;
+      case STRAIGHT_FLUSH:
+        high = 3 + random.nextInt(9);
+        break;
+      default:
+        return CardMask.EMPTY;
+    }
+
+    long mask = CardMask.EMPTY;
+    for (int i = 0; i < 5; i++) {
+      mask |= 1L << (suitOffset + (high - i + RANKS) % RANKS);
+    }
+    return mask;
+  }
+
+  private static long draw(final Random random, final long dealt, final int cardCount) {
+    long mask = dealt;
+    while (Long.bitCount(mask) < cardCount) {
+      mask |= 1L << random.nextInt(Card.COUNT);
+    }
+    return mask;
+  }
+
+  private void set(final int hand, final long mask, final Random random) {
+    //  Shuffle the cards, so that the split into hole and table cards is not ordered by suit.
+    final Card[] cards = CardMask.toCards(mask);
+    for (int i = cards.length - 1; i > 0; i--) {
+      final int j = random.nextInt(i + 1);
+      final Card card = cards[i];
+      cards[i] = cards[j];
+      cards[j] = card;
+    }
+
+    final int holeCardCount = Math.min(HOLE_CARDS, cards.length);
+    this.holeCards[hand] = new Card[holeCardCount];
+    this.tableCards[hand] = new Card[cards.length - holeCardCount];
+    System.arraycopy(cards, 0, this.holeCards[hand], 0, holeCardCount);
+    System.arraycopy(cards, holeCardCount, this.tableCards[hand], 0, cards.length - holeCardCount);
+    this.masks[hand] = mask;
+  }
+
+  int size() {
+    return masks.length;
+  }
+
+  Card[] getHoleCards(final int hand) {
+    return holeCards[hand];
+  }
+
+  Card[] getTableCards(final int hand) {
+    return tableCards[hand];
+  }
+
+  long getMask(final int hand) {
+    return masks[hand];
+  }
+}
@@ -0,0 +1,52 @@
+package pl.pateman.holdemevaluator.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.pateman.holdemevaluator.evaluator.HandOutcome;
+import pl.pateman.holdemevaluator.evaluator.HoldemEvaluator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandOutcomeSortBenchmark {
+
+  @Param({"9", "1000", "100000"})
+  public int outcomes;
+
+  private HandOutcome[] unsorted;
+  private HandOutcome[] work;
+
+  @Setup
+  public void setUp() {
+    final HoldemEvaluator evaluator = new HoldemEvaluator();
+    final HandCorpus corpus = HandCorpus.random(7, this.outcomes, HandCorpus.SEED);
+    this.unsorted = new HandOutcome[this.outcomes];
+    for (int i = 0; i < this.outcomes; i++) {
+      this.unsorted[i] = evaluator.calculate(corpus.getHoleCards(i), corpus.getTableCards(i));
+    }
+    this.work = new HandOutcome[this.outcomes];
+  }
+
+  @Benchmark
+  public HandOutcome[] sort() {
+    //  The copy keeps every invocation sorting the same unsorted input. It is a plain arraycopy,
+    //  so it is small next to the comparisons.
+    System.arraycopy(this.unsorted, 0, this.work, 0, this.outcomes);
+    Arrays.sort(this.work);
+    return this.work;
+  }
+}
@@ -0,0 +1,91 @@
+package pl.pateman.holdemevaluator.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+import pl.pateman.holdemevaluator.parser.StringHandParserException;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  private static final String CARD_VALUES = "A23456789TJQK";
+  private static final String LETTER_SUITS = "CHSD";
+  private static final String SYMBOL_SUITS = "♣♥♠♦";
+
+  @Param({"2", "5", "7"})
+  public int cards;
+
+  @Param({"true", "false"})
+  public boolean symbols;
+
+  private StringHandParser parser;
+  private String[] hands;
+  private byte[][] handBytes;
+  private int[] cardIndices;
+  private int hand;
+
+  @Setup
+  public void setUp() {
+    this.parser = new StringHandParser();
+    final HandCorpus corpus = HandCorpus.random(this.cards, HandCorpus.SIZE, HandCorpus.SEED);
+    final String suits = this.symbols ? SYMBOL_SUITS : LETTER_SUITS;
+
+    this.hands = new String[corpus.size()];
+    this.handBytes = new byte[corpus.size()][];
+    this.cardIndices = new int[this.cards];
+    for (int i = 0; i < corpus.size(); i++) {
+      final StringBuilder builder = new StringBuilder();
+      append(builder, corpus.getHoleCards(i), suits);
+      append(builder, corpus.getTableCards(i), suits);
+      this.hands[i] = builder.toString().trim();
+      this.handBytes[i] = this.hands[i].getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  private static void append(final StringBuilder builder, final Card[] cards, final String suits) {
+    for (final Card card : cards) {
+      builder.append(CARD_VALUES.charAt(card.getValue().getValue() - 1))
+          .append(suits.charAt(card.getSuit().getValue() - 1))
+          .append(' ');
+    }
+  }
+
+  private int nextHand() {
+    this.hand = (this.hand + 1) & (HandCorpus.SIZE - 1);
+    return this.hand;
+  }
+
+  @Benchmark
+  public Card[] parse() throws StringHandParserException {
+    return this.parser.parse(this.hands[this.nextHand()]);
+  }
+
+  @Benchmark
+  public int parseCharSequence() {
+    final String input = this.hands[this.nextHand()];
+    return this.parser.parse(input, 0, input.length(), this.cardIndices, 0);
+  }
+
+  @Benchmark
+  public int parseBytes() {
+    final byte[] input = this.handBytes[this.nextHand()];
+    return this.parser.parse(input, 0, input.length, this.cardIndices, 0);
+  }
+}
@@ -2,12 +2,37 @@ package pl.pateman.holdemevaluator;
 
 public final class Card implements Comparable<Card> {
 
+  public static final int RANKS = CardValue.values().length;
+  public static final int COUNT = RANKS * Suit.values().length;
+
+  private static final Card[] CARDS = new Card[COUNT];
+
+  static {
+    for (final Suit suit : Suit.values()) {
+      for (final CardValue value : CardValue.values()) {
+        final Card card = new Card(value, suit);
+        CARDS[card.getIndex()] = card;
+      }
+    }
+  }
+
   private final CardValue value;
   private final Suit suit;
+  private final int index;
 
   public Card(CardValue value, Suit suit) {
     this.value = value;
     this.suit = suit;
+    //  Ranks run from the two (0) to the ace (12) within each suit.
+    this.index = suit.ordinal() * RANKS + (value.getValue() + RANKS - 2) % RANKS;
+  }
+
+  public static Card of(final CardValue value, final Suit suit) {
+    return CARDS[suit.ordinal() * RANKS + (value.getValue() + RANKS - 2) % RANKS];
+  }
+
+  public static Card fromIndex(final int index) {
+    return CARDS[index];
   }
 
   public CardValue getValue() {
@@ -18,6 +43,18 @@ public final class Card implements Comparable<Card> {
     return suit;
   }
 
+  public int getIndex() {
+    return index;
+  }
+
+  public int getRankIndex() {
+    return this.index % RANKS;
+  }
+
+  public long getMask() {
+    return 1L << this.index;
+  }
+
   public int getNumber() {
     return this.value.getValue() * this.suit.getValue();
   }
@@ -38,14 +75,12 @@ public final class Card implements Comparable<Card> {
 
     Card card = (Card) o;
 
-    return getValue() == card.getValue() && getSuit() == card.getSuit();
+    return this.index == card.index;
   }
 
   @Override
   public int hashCode() {
-    int result = getValue().hashCode();
-    result = 31 * result + getSuit().hashCode();
-    return result;
+    return this.index;
   }
 
   @Override
@@ -0,0 +1,63 @@
+package pl.pateman.holdemevaluator;
+
+public final class CardMask {
+
+  public static final long EMPTY = 0L;
+  public static final long FULL_DECK = (1L << Card.COUNT) - 1;
+
+  private CardMask() {
+
+  }
+
+  public static long of(final Card... cards) {
+    long mask = EMPTY;
+    for (final Card card : cards) {
+      mask |= card.getMask();
+    }
+    return mask;
+  }
+
+  public static long of(final int... cardIndices) {
+    long mask = EMPTY;
+    for (final int cardIndex : cardIndices) {
+      mask |= 1L << cardIndex;
+    }
+    return mask;
+  }
+
+  public static boolean contains(final long mask, final Card card) {
+    return (mask & card.getMask()) != 0;
+  }
+
+  public static int size(final long mask) {
+    return Long.bitCount(mask);
+  }
+
+  public static int toIndices(final long mask, final int[] result) {
+    int count = 0;
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      result[count++] = Long.numberOfTrailingZeros(remaining);
+    }
+    return count;
+  }
+
+  public static Card[] toCards(final long mask) {
+    final Card[] cards = new Card[size(mask)];
+    int count = 0;
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      cards[count++] = Card.fromIndex(Long.numberOfTrailingZeros(remaining));
+    }
+    return cards;
+  }
+
+  public static String toString(final long mask) {
+    final StringBuilder builder = new StringBuilder("[");
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(Card.fromIndex(Long.numberOfTrailingZeros(remaining)));
+    }
+    return builder.append(']').toString();
+  }
+}
@@ -0,0 +1,132 @@
+package pl.pateman.holdemevaluator;
+
+public final class Deck {
+
+  //  A deck of card indices for simulations, one per thread. Draws are a partial Fisher-Yates
+  //  shuffle: each one swaps a random live card to the end of the live part and shrinks it, and
+  //  reset() undoes the swaps in reverse, so every deal starts from the same order and its cards
+  //  only depend on the generator. The generator is SplitMix64, the one behind SplittableRandom,
+  //  and each draw takes exactly one value from it. jump(n) therefore skips n draws in constant
+  //  time, and a shard that jumps to where a sequential run would be deals the same cards.
+  public static final long SHARD_DRAWS = 1L << 40;
+  //  The generator cycles after 2^64 values, so only this many shards fit apart from each other.
+  public static final int MAX_SHARDS = 1 << 24;
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private final int[] cards = new int[Card.COUNT];
+  private final int[] swaps = new int[Card.COUNT];
+  private long deadCards;
+  private int liveCount;
+  private int size;
+  private long state;
+
+  public Deck(final long seed) {
+    this(seed, CardMask.EMPTY);
+  }
+
+  public Deck(final long seed, final long deadCards) {
+    this.state = seed;
+    this.setDeadCards(deadCards);
+  }
+
+  public static Deck forShard(final long seed, final int shard) {
+    //  Shards of one seed are SHARD_DRAWS draws apart, far more than any shard will use. Shard
+    //  MAX_SHARDS would wrap around to where shard 0 starts.
+    if (shard < 0 || shard >= MAX_SHARDS) {
+      throw new IllegalArgumentException("A shard is between 0 and " + (MAX_SHARDS - 1));
+    }
+    final Deck deck = new Deck(seed);
+    deck.jump(shard * SHARD_DRAWS);
+    return deck;
+  }
+
+  private long nextLong() {
+    //  The same values as SplittableRandom.nextLong() for the same seed.
+    long z = this.state += GOLDEN_GAMMA;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private int nextIndex(final int bound) {
+    //  Multiply-shift instead of rejection keeps it at one value per draw. The bias is below
+    //  bound / 2^32, which no simulation of a 52-card deck can measure.
+    return (int) (((this.nextLong() >>> 32) * bound) >>> 32);
+  }
+
+  public void setDeadCards(final long deadCards) {
+    //  Dead cards are never dealt. Changing them also puts every drawn card back.
+    if ((deadCards & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+    this.deadCards = deadCards;
+    this.liveCount = CardMask.toIndices(CardMask.FULL_DECK & ~deadCards, this.cards);
+    this.size = this.liveCount;
+  }
+
+  public long getDeadCards() {
+    return deadCards;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getRemainingCards() {
+    long remaining = CardMask.EMPTY;
+    for (int i = 0; i < this.size; i++) {
+      remaining |= 1L << this.cards[i];
+    }
+    return remaining;
+  }
+
+  public int draw() {
+    if (this.size == 0) {
+      throw new IllegalStateException("The deck is empty");
+    }
+    final int swap = this.nextIndex(this.size);
+    final int last = --this.size;
+    final int card = this.cards[swap];
+    this.cards[swap] = this.cards[last];
+    this.cards[last] = card;
+    this.swaps[this.liveCount - 1 - last] = swap;
+    return card;
+  }
+
+  public void draw(final int[] result, final int offset, final int count) {
+    if (count > this.size) {
+      throw new IllegalArgumentException("Only " + this.size + " cards are left");
+    }
+    for (int i = 0; i < count; i++) {
+      result[offset + i] = this.draw();
+    }
+  }
+
+  public long drawMask(final int count) {
+    //  The cards as a mask, ready for the evaluators' long entry points.
+    if (count > this.size) {
+      throw new IllegalArgumentException("Only " + this.size + " cards are left");
+    }
+    long mask = CardMask.EMPTY;
+    for (int i = 0; i < count; i++) {
+      mask |= 1L << this.draw();
+    }
+    return mask;
+  }
+
+  public void reset() {
+    //  Undoes the draws newest first, which restores the starting order exactly.
+    while (this.size < this.liveCount) {
+      final int last = this.size++;
+      final int swap = this.swaps[this.liveCount - 1 - last];
+      final int card = this.cards[last];
+      this.cards[last] = this.cards[swap];
+      this.cards[swap] = card;
+    }
+  }
+
+  public void jump(final long draws) {
+    this.state += draws * GOLDEN_GAMMA;
+  }
+}
@@ -0,0 +1,124 @@
+package pl.pateman.holdemevaluator;
+
+import java.util.Arrays;
+
+public final class HandRange {
+
+  //  Starting hand classes follow the usual 13x13 grid with aces in the top-left corner: pairs
+  //  on the diagonal, suited hands above it and offsuit hands below it.
+  public static final int STARTING_HAND_CLASSES = Card.RANKS * Card.RANKS;
+  public static final int ALL_COMBOS = Card.COUNT * (Card.COUNT - 1) / 2;
+
+  private static final String RANK_CHARACTERS = "23456789TJQKA";
+  private static final int TOP_RANK = Card.RANKS - 1;
+
+  private final long[] combos;
+
+  private HandRange(final long[] combos) {
+    this.combos = combos;
+  }
+
+  public static HandRange of(final long... combos) {
+    final long[] sorted = combos.clone();
+    Arrays.sort(sorted);
+    int unique = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (Long.bitCount(sorted[i]) != 2 || (sorted[i] & ~CardMask.FULL_DECK) != 0) {
+        throw new IllegalArgumentException(
+            CardMask.toString(sorted[i]) + " is not a combo of two cards");
+      }
+      if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+        sorted[unique++] = sorted[i];
+      }
+    }
+    return new HandRange(unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique));
+  }
+
+  public static HandRange all() {
+    final long[] combos = new long[ALL_COMBOS];
+    int combo = 0;
+    for (int first = 0; first < Card.COUNT; first++) {
+      for (int second = first + 1; second < Card.COUNT; second++) {
+        combos[combo++] = 1L << first | 1L << second;
+      }
+    }
+    return of(combos);
+  }
+
+  public static int getStartingHandClass(final long combo) {
+    final int first = Long.numberOfTrailingZeros(combo);
+    final int second = 63 - Long.numberOfLeadingZeros(combo);
+    final int high = Math.max(first % Card.RANKS, second % Card.RANKS);
+    final int low = Math.min(first % Card.RANKS, second % Card.RANKS);
+    if (high == low || first / Card.RANKS != second / Card.RANKS) {
+      return (TOP_RANK - low) * Card.RANKS + (TOP_RANK - high);
+    }
+    return (TOP_RANK - high) * Card.RANKS + (TOP_RANK - low);
+  }
+
+  public static String getStartingHandName(final int startingHandClass) {
+    final int row = startingHandClass / Card.RANKS;
+    final int column = startingHandClass % Card.RANKS;
+    final char high = RANK_CHARACTERS.charAt(TOP_RANK - Math.min(row, column));
+    final char low = RANK_CHARACTERS.charAt(TOP_RANK - Math.max(row, column));
+    if (row == column) {
+      return new String(new char[]{high, low});
+    }
+    return new String(new char[]{high, low, row < column ? 's' : 'o'});
+  }
+
+  public int size() {
+    return combos.length;
+  }
+
+  public long getCombo(final int combo) {
+    return combos[combo];
+  }
+
+  public long[] getCombos() {
+    return combos.clone();
+  }
+
+  public int getStartingHandClass(final int combo) {
+    return getStartingHandClass(this.combos[combo]);
+  }
+
+  public boolean contains(final long combo) {
+    return Arrays.binarySearch(this.combos, combo) >= 0;
+  }
+
+  public HandRange without(final long deadCards) {
+    int alive = 0;
+    final long[] remaining = new long[this.combos.length];
+    for (final long combo : this.combos) {
+      if ((combo & deadCards) == 0) {
+        remaining[alive++] = combo;
+      }
+    }
+    return alive == this.combos.length ? this
+        : new HandRange(Arrays.copyOf(remaining, alive));
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(combos, ((HandRange) o).combos);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(combos);
+  }
+
+  @Override
+  public String toString() {
+    return "HandRange{" +
+        "combos=" + combos.length +
+        '}';
+  }
+}
@@ -0,0 +1,93 @@
+package pl.pateman.holdemevaluator;
+
+public final class SuitIsomorphism {
+
+  //  Deals that turn into each other by renaming suits are isomorphic. Every suit gets a
+  //  signature made of its ranks in each group of cards (the hole cards, then the board, ...)
+  //  and the suits are renamed in descending signature order, which leaves the same deal for
+  //  every member of a class.
+  public static final int MAX_GROUPS = Long.SIZE / Card.RANKS;
+
+  private static final int SUITS = Suit.values().length;
+  private static final int RANK_MASK = (1 << Card.RANKS) - 1;
+  private static final int HOLE_CARDS = 2;
+  private static final int HOLE_INDEX_SHIFT = Card.COUNT;
+
+  private SuitIsomorphism() {
+
+  }
+
+  private static int ranksOf(final long mask, final int suit) {
+    return (int) (mask >>> (suit * Card.RANKS)) & RANK_MASK;
+  }
+
+  public static long[] canonicalize(final long... groups) {
+    if (groups.length > MAX_GROUPS) {
+      throw new IllegalArgumentException(
+          "At most " + MAX_GROUPS + " groups of cards are supported");
+    }
+
+    final long[] signatures = new long[SUITS];
+    long used = CardMask.EMPTY;
+    for (final long group : groups) {
+      if ((group & ~CardMask.FULL_DECK) != 0) {
+        throw new IllegalArgumentException(
+            "Card masks only use the lowest " + Card.COUNT + " bits");
+      }
+      if ((group & used) != 0) {
+        throw new IllegalArgumentException(CardMask.toString(group) + " overlaps another group");
+      }
+      used |= group;
+      for (int suit = 0; suit < SUITS; suit++) {
+        signatures[suit] = signatures[suit] << Card.RANKS | ranksOf(group, suit);
+      }
+    }
+
+    //  Four values, so an insertion sort is all it takes. Suits with equal signatures are
+    //  interchangeable, so their relative order does not matter.
+    for (int i = 1; i < SUITS; i++) {
+      final long signature = signatures[i];
+      int j = i - 1;
+      while (j >= 0 && signatures[j] < signature) {
+        signatures[j + 1] = signatures[j];
+        --j;
+      }
+      signatures[j + 1] = signature;
+    }
+
+    final long[] canonical = new long[groups.length];
+    for (int group = 0; group < groups.length; group++) {
+      final int shift = (groups.length - 1 - group) * Card.RANKS;
+      for (int suit = 0; suit < SUITS; suit++) {
+        canonical[group] |= (signatures[suit] >>> shift & RANK_MASK) << (suit * Card.RANKS);
+      }
+    }
+    return canonical;
+  }
+
+  public static long getIndex(final long holeMask, final long boardMask) {
+    //  The canonical board in the low 52 bits and the colex index of the canonical hole cards
+    //  (below 1326) above it. Isomorphic deals, and only those, share an index.
+    if (CardMask.size(holeMask) != HOLE_CARDS) {
+      throw new IllegalArgumentException("Expected " + HOLE_CARDS + " hole cards, got "
+          + CardMask.size(holeMask));
+    }
+    final long[] canonical = canonicalize(holeMask, boardMask);
+    final int low = Long.numberOfTrailingZeros(canonical[0]);
+    final int high = 63 - Long.numberOfLeadingZeros(canonical[0]);
+    return (long) (high * (high - 1) / 2 + low) << HOLE_INDEX_SHIFT | canonical[1];
+  }
+
+  public static long getHoleMask(final long index) {
+    final int holeIndex = (int) (index >>> HOLE_INDEX_SHIFT);
+    int high = 1;
+    while ((high + 1) * high / 2 <= holeIndex) {
+      ++high;
+    }
+    return 1L << high | 1L << (holeIndex - high * (high - 1) / 2);
+  }
+
+  public static long getBoardMask(final long index) {
+    return index & CardMask.FULL_DECK;
+  }
+}
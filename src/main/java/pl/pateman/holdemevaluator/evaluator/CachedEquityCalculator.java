@@ -0,0 +1,40 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandRange;
+import pl.pateman.holdemevaluator.SuitIsomorphism;
+
+public final class CachedEquityCalculator {
+
+  //  Equity does not change when suits are renamed, so it is computed once per isomorphism
+  //  class, on the canonical deal, and shared by every deal of that class.
+  private static final long[] RANDOM_HAND = HandRange.all().getCombos();
+
+  private final EquityCalculator calculator;
+  private final CanonicalCache<EquityResult> cache;
+
+  public CachedEquityCalculator() {
+    this(new EquityCalculator(), new CanonicalCache<>());
+  }
+
+  public CachedEquityCalculator(final EquityCalculator calculator,
+      final CanonicalCache<EquityResult> cache) {
+    this.calculator = calculator;
+    this.cache = cache;
+  }
+
+  private EquityResult calculateCanonical(final long index) {
+    return this.calculator.calculate(SuitIsomorphism.getBoardMask(index), CardMask.EMPTY,
+        new long[]{SuitIsomorphism.getHoleMask(index)}, RANDOM_HAND);
+  }
+
+  public CanonicalCache<EquityResult> getCache() {
+    return cache;
+  }
+
+  public EquityResult calculateAgainstRandomHand(final long holeMask, final long boardMask) {
+    //  Player 0 holds the hole cards, player 1 any two of the remaining cards.
+    return this.cache.computeIfAbsent(SuitIsomorphism.getIndex(holeMask, boardMask),
+        this::calculateCanonical);
+  }
+}
@@ -0,0 +1,154 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import pl.pateman.holdemevaluator.metrics.EvaluatorMetrics;
+
+public final class CanonicalCache<V> {
+
+  //  A bounded set-associative cache keyed by a long, such as SuitIsomorphism.getIndex. A key
+  //  may only live in one set of WAYS slots. A hit moves the entry one slot towards the front of
+  //  its set and new keys take the last slot, so entries that keep being hit stay while one-off
+  //  keys replace each other. Entries are immutable and published through an atomic array, so
+  //  readers never lock; racing writers may drop an entry, which only costs a later miss.
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private static final int WAYS = 4;
+
+  private final AtomicReferenceArray<Entry<V>> entries;
+  private final int setMask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public CanonicalCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public CanonicalCache(final int capacity) {
+    if (capacity < WAYS) {
+      throw new IllegalArgumentException("The capacity needs to be at least " + WAYS);
+    }
+    //  Rounded down to a power of two number of sets.
+    final int sets = Integer.highestOneBit(capacity / WAYS);
+    this.entries = new AtomicReferenceArray<>(sets * WAYS);
+    this.setMask = sets - 1;
+  }
+
+  private int setStart(final long key) {
+    //  The SplitMix64 finalizer, since canonical keys share most of their bits.
+    long hash = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+    hash ^= hash >>> 31;
+    return ((int) hash & this.setMask) * WAYS;
+  }
+
+  private V lookup(final long key) {
+    final int start = this.setStart(key);
+    for (int way = 0; way < WAYS; way++) {
+      final Entry<V> entry = this.entries.get(start + way);
+      if (entry != null && entry.key == key) {
+        if (way > 0) {
+          final Entry<V> ahead = this.entries.get(start + way - 1);
+          if (this.entries.compareAndSet(start + way - 1, ahead, entry)) {
+            this.entries.compareAndSet(start + way, entry, ahead);
+          }
+        }
+        return entry.value;
+      }
+    }
+    return null;
+  }
+
+  public int getCapacity() {
+    return this.entries.length();
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public V get(final long key) {
+    final V value = this.lookup(key);
+    if (value == null) {
+      this.misses.increment();
+    } else {
+      this.hits.increment();
+    }
+    if (EvaluatorMetrics.ENABLED) {
+      EvaluatorMetrics.getInstance().recordCacheLookup(value != null);
+    }
+    return value;
+  }
+
+  public void put(final long key, final V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Cached values cannot be null");
+    }
+    final int start = this.setStart(key);
+    final Entry<V> entry = new Entry<>(key, value);
+    int slot = start + WAYS - 1;
+    for (int way = 0; way < WAYS; way++) {
+      final Entry<V> current = this.entries.get(start + way);
+      if (current == null || current.key == key) {
+        slot = start + way;
+        break;
+      }
+    }
+    this.entries.set(slot, entry);
+  }
+
+  public V computeIfAbsent(final long key, final LongFunction<? extends V> loader) {
+    //  Concurrent misses on the same key may both run the loader. The values they produce are
+    //  expected to be equal, which holds for anything derived from the key alone.
+    final V cached = this.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final V value = loader.apply(key);
+    if (value != null) {
+      this.put(key, value);
+    }
+    return value;
+  }
+
+  public int size() {
+    int size = 0;
+    for (int slot = 0; slot < this.entries.length(); slot++) {
+      if (this.entries.get(slot) != null) {
+        ++size;
+      }
+    }
+    return size;
+  }
+
+  public void clear() {
+    for (int slot = 0; slot < this.entries.length(); slot++) {
+      this.entries.set(slot, null);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CanonicalCache{" +
+        "capacity=" + this.getCapacity() +
+        ", hits=" + this.getHits() +
+        ", misses=" + this.getMisses() +
+        '}';
+  }
+
+  private static final class Entry<V> {
+
+    private final long key;
+    private final V value;
+
+    Entry(final long key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
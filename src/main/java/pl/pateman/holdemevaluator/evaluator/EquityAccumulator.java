@@ -0,0 +1,74 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+final class EquityAccumulator {
+
+  private final long[] wins;
+  private final long[] ties;
+  private final double[] equity;
+  private final double[] equitySquares;
+  private long trials;
+
+  EquityAccumulator(final int players) {
+    this.wins = new long[players];
+    this.ties = new long[players];
+    this.equity = new double[players];
+    this.equitySquares = new double[players];
+  }
+
+  void record(final int[] strengths) {
+    int best = strengths[0];
+    int winners = 1;
+    for (int player = 1; player < strengths.length; player++) {
+      if (strengths[player] > best) {
+        best = strengths[player];
+        winners = 1;
+      } else if (strengths[player] == best) {
+        ++winners;
+      }
+    }
+
+    final double share = 1.0 / winners;
+    for (int player = 0; player < strengths.length; player++) {
+      if (strengths[player] == best) {
+        if (winners == 1) {
+          ++this.wins[player];
+        } else {
+          ++this.ties[player];
+        }
+        this.equity[player] += share;
+        this.equitySquares[player] += share * share;
+      }
+    }
+    ++this.trials;
+  }
+
+  void merge(final EquityAccumulator other) {
+    for (int player = 0; player < this.wins.length; player++) {
+      this.wins[player] += other.wins[player];
+      this.ties[player] += other.ties[player];
+      this.equity[player] += other.equity[player];
+      this.equitySquares[player] += other.equitySquares[player];
+    }
+    this.trials += other.trials;
+  }
+
+  long getTrials() {
+    return trials;
+  }
+
+  long[] getWins() {
+    return wins;
+  }
+
+  long[] getTies() {
+    return ties;
+  }
+
+  double[] getEquity() {
+    return equity;
+  }
+
+  double[] getEquitySquares() {
+    return equitySquares;
+  }
+}
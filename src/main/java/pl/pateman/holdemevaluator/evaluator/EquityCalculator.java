@@ -0,0 +1,405 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.metrics.EvaluatorMetrics;
+
+public final class EquityCalculator {
+
+  public static final long DEFAULT_EXACT_TRIAL_LIMIT = 5_000_000L;
+  public static final int DEFAULT_MONTE_CARLO_TRIALS = 1_000_000;
+
+  private static final int BOARD_CARDS = 5;
+  private static final int MAX_DEAL_ATTEMPTS = 1000;
+  private static final int MAX_PREFIX_CARDS = 2;
+  private static final int EXACT_UNITS_PER_TASK = 16;
+  private static final int TRIALS_PER_CHUNK = 1 << 14;
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+  private final long exactTrialLimit;
+  private final int monteCarloTrials;
+  private final long seed;
+  private final ForkJoinPool pool;
+
+  public EquityCalculator() {
+    this(DEFAULT_EXACT_TRIAL_LIMIT, DEFAULT_MONTE_CARLO_TRIALS, 0L);
+  }
+
+  public EquityCalculator(final long exactTrialLimit, final int monteCarloTrials,
+      final long seed) {
+    this(exactTrialLimit, monteCarloTrials, seed, ForkJoinPool.commonPool());
+  }
+
+  public EquityCalculator(final long exactTrialLimit, final int monteCarloTrials,
+      final long seed, final ForkJoinPool pool) {
+    if (monteCarloTrials < 1) {
+      throw new IllegalArgumentException("At least one Monte Carlo trial is needed");
+    }
+    this.exactTrialLimit = exactTrialLimit;
+    this.monteCarloTrials = monteCarloTrials;
+    this.seed = seed;
+    this.pool = pool;
+  }
+
+  private static long binomial(final int n, final int k) {
+    long result = 1L;
+    for (int i = 0; i < k; i++) {
+      result = result * (n - i) / (i + 1);
+    }
+    return result;
+  }
+
+  private static int prefixUnits(final int missingCards, final int deckSize) {
+    int units = 1;
+    for (int i = 0; i < Math.min(missingCards, MAX_PREFIX_CARDS); i++) {
+      units *= deckSize;
+    }
+    return units;
+  }
+
+  private long countExactTrials(final int remainingCards, final int missingCards,
+      final long[][] ranges) {
+    //  An upper bound, since combos that collide with each other are skipped later on.
+    long trials = binomial(remainingCards, missingCards);
+    for (final long[] range : ranges) {
+      if (trials > this.exactTrialLimit) {
+        break;
+      }
+      trials *= range.length;
+    }
+    return trials;
+  }
+
+  private void evaluateDeal(final long board, final long[] holeCards, final int[] strengths,
+      final EquityAccumulator accumulator) {
+    for (int player = 0; player < holeCards.length; player++) {
+      strengths[player] = this.evaluator.rank(board | holeCards[player]);
+    }
+    accumulator.record(strengths);
+  }
+
+  private void collectAssignments(final long usedCards, final long[][] ranges, final int player,
+      final long[] holeCards, final List<long[]> assignments) {
+    if (player == ranges.length) {
+      assignments.add(holeCards.clone());
+      return;
+    }
+    for (final long combo : ranges[player]) {
+      if ((usedCards & combo) != 0) {
+        continue;
+      }
+      holeCards[player] = combo;
+      this.collectAssignments(usedCards | combo, ranges, player + 1, holeCards, assignments);
+    }
+  }
+
+  private EquityAccumulator run(final EquityTask task) {
+    return this.pool == null ? task.compute() : this.pool.invoke(task);
+  }
+
+  public EquityResult calculate(final Card[] board, final Card[]... holeCards) {
+    final long[][] ranges = new long[holeCards.length][];
+    for (int player = 0; player < holeCards.length; player++) {
+      ranges[player] = new long[]{CardMask.of(holeCards[player])};
+    }
+    return this.calculate(CardMask.of(board), CardMask.EMPTY, ranges);
+  }
+
+  public EquityResult calculate(final long boardMask, final long deadCards,
+      final long[]... ranges) {
+    if (((boardMask | deadCards) & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+    final int boardCards = CardMask.size(boardMask);
+    if (boardCards > BOARD_CARDS) {
+      throw new IllegalArgumentException("A board holds at most " + BOARD_CARDS + " cards");
+    }
+    if (ranges.length < 2) {
+      throw new IllegalArgumentException("At least two players are needed");
+    }
+    for (final long[] range : ranges) {
+      if (range.length == 0) {
+        throw new IllegalArgumentException("Every player needs at least one hand");
+      }
+      //  The deck size below assumes every player holds exactly two cards.
+      for (final long combo : range) {
+        if (Long.bitCount(combo) != 2 || (combo & ~CardMask.FULL_DECK) != 0) {
+          throw new IllegalArgumentException(
+              CardMask.toString(combo) + " is not a combo of two cards");
+        }
+      }
+    }
+
+    final long start = EvaluatorMetrics.ENABLED ? System.nanoTime() : 0L;
+    final long usedCards = boardMask | deadCards;
+    final int missingCards = BOARD_CARDS - boardCards;
+    final int remainingCards = Card.COUNT - CardMask.size(usedCards) - 2 * ranges.length;
+    final boolean exact =
+        this.countExactTrials(remainingCards, missingCards, ranges) <= this.exactTrialLimit;
+
+    final EquityAccumulator accumulator;
+    if (exact) {
+      final List<long[]> assignments = new ArrayList<>();
+      this.collectAssignments(usedCards, ranges, 0, new long[ranges.length], assignments);
+      final ExactTask task = new ExactTask(boardMask, usedCards, missingCards, remainingCards,
+          assignments.toArray(new long[assignments.size()][]));
+      accumulator = this.run(task);
+    } else {
+      //  Each chunk draws from its own generator, so the outcome only depends on the seed and
+      //  not on how the chunks are spread over threads.
+      final SplittableRandom random = new SplittableRandom(this.seed);
+      final long[] chunkSeeds = new long[
+          (this.monteCarloTrials + TRIALS_PER_CHUNK - 1) / TRIALS_PER_CHUNK];
+      for (int chunk = 0; chunk < chunkSeeds.length; chunk++) {
+        chunkSeeds[chunk] = random.nextLong();
+      }
+      accumulator = this.run(new SampleTask(boardMask, deadCards, ranges, chunkSeeds));
+    }
+
+    if (accumulator.getTrials() == 0) {
+      throw new IllegalArgumentException("The ranges cannot be dealt without collisions");
+    }
+    if (EvaluatorMetrics.ENABLED) {
+      EvaluatorMetrics.getInstance()
+          .recordEquity(accumulator.getTrials(), System.nanoTime() - start);
+    }
+    return new EquityResult(accumulator, exact);
+  }
+
+  private abstract class EquityTask extends RecursiveTask<EquityAccumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    final int players;
+    final long from;
+    final long to;
+    final int unitsPerTask;
+
+    EquityTask(final int players, final long from, final long to, final int unitsPerTask) {
+      this.players = players;
+      this.from = from;
+      this.to = to;
+      this.unitsPerTask = unitsPerTask;
+    }
+
+    abstract EquityTask subtask(long from, long to);
+
+    abstract void computeUnits(EquityAccumulator accumulator);
+
+    @Override
+    protected EquityAccumulator compute() {
+      if (this.to - this.from <= this.unitsPerTask) {
+        final EquityAccumulator accumulator = new EquityAccumulator(this.players);
+        this.computeUnits(accumulator);
+        return accumulator;
+      }
+
+      //  Splitting depends only on the amount of work, and partial results are always merged
+      //  left to right, so the totals do not depend on the pool either.
+      final long middle = (this.from + this.to) >>> 1;
+      final EquityTask left = this.subtask(this.from, middle);
+      final EquityTask right = this.subtask(middle, this.to);
+      final EquityAccumulator leftResult;
+      final EquityAccumulator rightResult;
+      if (pool == null) {
+        leftResult = left.compute();
+        rightResult = right.compute();
+      } else {
+        left.fork();
+        rightResult = right.compute();
+        leftResult = left.join();
+      }
+      leftResult.merge(rightResult);
+      return leftResult;
+    }
+  }
+
+  private final class ExactTask extends EquityTask {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long boardMask;
+    private final long usedCards;
+    private final int missingCards;
+    private final int deckSize;
+    private final long[][] assignments;
+    private final int prefixCards;
+    private final int prefixUnits;
+
+    ExactTask(final long boardMask, final long usedCards, final int missingCards,
+        final int deckSize, final long[][] assignments) {
+      this(boardMask, usedCards, missingCards, deckSize, assignments, 0,
+          (long) assignments.length * prefixUnits(missingCards, deckSize));
+    }
+
+    private ExactTask(final long boardMask, final long usedCards, final int missingCards,
+        final int deckSize, final long[][] assignments, final long from, final long to) {
+      super(assignments.length == 0 ? 0 : assignments[0].length, from, to, EXACT_UNITS_PER_TASK);
+      this.boardMask = boardMask;
+      this.usedCards = usedCards;
+      this.missingCards = missingCards;
+      this.deckSize = deckSize;
+      this.assignments = assignments;
+      this.prefixCards = Math.min(missingCards, MAX_PREFIX_CARDS);
+      this.prefixUnits = prefixUnits(missingCards, deckSize);
+    }
+
+    @Override
+    EquityTask subtask(final long from, final long to) {
+      return new ExactTask(this.boardMask, this.usedCards, this.missingCards, this.deckSize,
+          this.assignments, from, to);
+    }
+
+    @Override
+    void computeUnits(final EquityAccumulator accumulator) {
+      final int[] deck = new int[Card.COUNT];
+      final int[] positions = new int[Math.max(this.missingCards, 1)];
+      final int[] strengths = new int[this.players];
+      int deckAssignment = -1;
+
+      //  A unit is one assignment of hole cards together with the first (up to two) runout
+      //  cards, which keeps units small enough to balance across many cores.
+      for (long unit = this.from; unit < this.to; unit++) {
+        final int assignment = (int) (unit / this.prefixUnits);
+        final long[] holeCards = this.assignments[assignment];
+        if (this.missingCards == 0) {
+          evaluateDeal(this.boardMask, holeCards, strengths, accumulator);
+          continue;
+        }
+
+        final int prefix = (int) (unit % this.prefixUnits);
+        positions[0] = this.prefixCards == 2 ? prefix / this.deckSize : prefix;
+        if (this.prefixCards == 2) {
+          positions[1] = prefix % this.deckSize;
+          if (positions[1] <= positions[0]) {
+            continue;
+          }
+        }
+        for (int i = this.prefixCards; i < this.missingCards; i++) {
+          positions[i] = positions[i - 1] + 1;
+        }
+        if (positions[this.missingCards - 1] >= this.deckSize) {
+          continue;
+        }
+
+        if (assignment != deckAssignment) {
+          long dealt = this.usedCards;
+          for (final long holeCard : holeCards) {
+            dealt |= holeCard;
+          }
+          CardMask.toIndices(CardMask.FULL_DECK & ~dealt, deck);
+          deckAssignment = assignment;
+        }
+        this.enumerateRunouts(deck, positions, holeCards, strengths, accumulator);
+      }
+    }
+
+    private void enumerateRunouts(final int[] deck, final int[] positions,
+        final long[] holeCards, final int[] strengths, final EquityAccumulator accumulator) {
+      while (true) {
+        long runout = this.boardMask;
+        for (int i = 0; i < this.missingCards; i++) {
+          runout |= 1L << deck[positions[i]];
+        }
+        evaluateDeal(runout, holeCards, strengths, accumulator);
+
+        int i = this.missingCards - 1;
+        while (i >= this.prefixCards && positions[i] == this.deckSize - this.missingCards + i) {
+          --i;
+        }
+        if (i < this.prefixCards) {
+          return;
+        }
+        ++positions[i];
+        for (int j = i + 1; j < this.missingCards; j++) {
+          positions[j] = positions[j - 1] + 1;
+        }
+      }
+    }
+  }
+
+  private final class SampleTask extends EquityTask {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long boardMask;
+    private final long deadCards;
+    private final long[][] ranges;
+    private final long[] chunkSeeds;
+
+    SampleTask(final long boardMask, final long deadCards, final long[][] ranges,
+        final long[] chunkSeeds) {
+      this(boardMask, deadCards, ranges, chunkSeeds, 0, chunkSeeds.length);
+    }
+
+    private SampleTask(final long boardMask, final long deadCards, final long[][] ranges,
+        final long[] chunkSeeds, final long from, final long to) {
+      super(ranges.length, from, to, 1);
+      this.boardMask = boardMask;
+      this.deadCards = deadCards;
+      this.ranges = ranges;
+      this.chunkSeeds = chunkSeeds;
+    }
+
+    @Override
+    EquityTask subtask(final long from, final long to) {
+      return new SampleTask(this.boardMask, this.deadCards, this.ranges, this.chunkSeeds, from,
+          to);
+    }
+
+    @Override
+    void computeUnits(final EquityAccumulator accumulator) {
+      final int missingCards = BOARD_CARDS - CardMask.size(this.boardMask);
+      final long[] holeCards = new long[this.players];
+      final int[] strengths = new int[this.players];
+
+      for (int chunk = (int) this.from; chunk < this.to; chunk++) {
+        final SplittableRandom random = new SplittableRandom(this.chunkSeeds[chunk]);
+        final int trials =
+            Math.min(TRIALS_PER_CHUNK, monteCarloTrials - chunk * TRIALS_PER_CHUNK);
+        for (int trial = 0; trial < trials; trial++) {
+          final long usedCards = this.dealHoleCards(random, holeCards);
+
+          long runout = this.boardMask;
+          long dealt = usedCards;
+          for (int i = 0; i < missingCards; i++) {
+            long card;
+            do {
+              card = 1L << random.nextInt(Card.COUNT);
+            } while ((dealt & card) != 0);
+            dealt |= card;
+            runout |= card;
+          }
+          evaluateDeal(runout, holeCards, strengths, accumulator);
+        }
+      }
+    }
+
+    private long dealHoleCards(final SplittableRandom random, final long[] holeCards) {
+      //  Whole deals are redrawn on a collision, so every valid deal is equally likely.
+      for (int attempt = 0; attempt < MAX_DEAL_ATTEMPTS; attempt++) {
+        long usedCards = this.boardMask | this.deadCards;
+        boolean dealt = true;
+        for (int player = 0; player < this.ranges.length; player++) {
+          final long[] range = this.ranges[player];
+          final long combo = range[random.nextInt(range.length)];
+          if ((usedCards & combo) != 0) {
+            dealt = false;
+            break;
+          }
+          holeCards[player] = combo;
+          usedCards |= combo;
+        }
+        if (dealt) {
+          return usedCards;
+        }
+      }
+      throw new IllegalArgumentException("The ranges cannot be dealt without collisions");
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+
+public final class EquityResult {
+
+  private static final double CONFIDENCE_Z = 1.96;
+
+  private final boolean exact;
+  private final long trials;
+  private final long[] wins;
+  private final long[] ties;
+  private final double[] equity;
+  private final double[] standardErrors;
+
+  EquityResult(final EquityAccumulator accumulator, final boolean exact) {
+    this.exact = exact;
+    this.trials = accumulator.getTrials();
+    this.wins = accumulator.getWins().clone();
+    this.ties = accumulator.getTies().clone();
+
+    final int players = this.wins.length;
+    this.equity = new double[players];
+    this.standardErrors = new double[players];
+    for (int player = 0; player < players; player++) {
+      final double mean = accumulator.getEquity()[player] / this.trials;
+      this.equity[player] = mean;
+      if (!exact) {
+        final double variance = Math
+            .max(0.0, accumulator.getEquitySquares()[player] / this.trials - mean * mean);
+        this.standardErrors[player] = Math.sqrt(variance / this.trials);
+      }
+    }
+  }
+
+  public boolean isExact() {
+    return exact;
+  }
+
+  public long getTrials() {
+    return trials;
+  }
+
+  public int getPlayerCount() {
+    return wins.length;
+  }
+
+  public double getWinProbability(final int player) {
+    return (double) this.wins[player] / this.trials;
+  }
+
+  public double getTieProbability(final int player) {
+    return (double) this.ties[player] / this.trials;
+  }
+
+  public double getLossProbability(final int player) {
+    return 1.0 - this.getWinProbability(player) - this.getTieProbability(player);
+  }
+
+  public double getEquity(final int player) {
+    return equity[player];
+  }
+
+  public double getStandardError(final int player) {
+    return standardErrors[player];
+  }
+
+  public double getConfidenceIntervalLow(final int player) {
+    return Math.max(0.0, this.equity[player] - CONFIDENCE_Z * this.standardErrors[player]);
+  }
+
+  public double getConfidenceIntervalHigh(final int player) {
+    return Math.min(1.0, this.equity[player] + CONFIDENCE_Z * this.standardErrors[player]);
+  }
+
+  @Override
+  public String toString() {
+    return "EquityResult{" +
+        "exact=" + exact +
+        ", trials=" + trials +
+        ", equity=" + Arrays.toString(equity) +
+        '}';
+  }
+}
@@ -0,0 +1,174 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.metrics.EvaluatorMetrics;
+
+public final class FastHoldemEvaluator {
+
+  private static final int RANK_BITS = HandRanks.RANK_BITS;
+
+  private static int withoutRank(final int ranks, final int rank) {
+    return ranks & ~(1 << rank);
+  }
+
+  private static int repeat(final int rank, final int times) {
+    int packed = 0;
+    for (int i = 0; i < times; i++) {
+      packed = packed << RANK_BITS | rank;
+    }
+    return packed;
+  }
+
+  public int rank(final long mask) {
+    return this.rank((int) mask & HandRanks.RANK_MASK,
+        (int) (mask >>> HandRanks.RANKS) & HandRanks.RANK_MASK,
+        (int) (mask >>> (2 * HandRanks.RANKS)) & HandRanks.RANK_MASK,
+        (int) (mask >>> (3 * HandRanks.RANKS)) & HandRanks.RANK_MASK);
+  }
+
+  int rank(final int clubs, final int hearts, final int spades, final int diamonds) {
+    //  Nothing beats a straight flush, while quads and full houses (which need more than seven
+    //  cards to appear next to a flush) have to be checked before a plain flush.
+    final int flush = Math.max(
+        Math.max(HandRanks.FLUSHES[clubs], HandRanks.FLUSHES[hearts]),
+        Math.max(HandRanks.FLUSHES[spades], HandRanks.FLUSHES[diamonds]));
+    if (flush >= HandRanks.STRAIGHT_FLUSH_RANK) {
+      return flush;
+    }
+
+    //  Per-rank counts split into bit planes: odd counts (1 or 3), counts of 2 or 3, and quads.
+    final int ranks = clubs | hearts | spades | diamonds;
+    final int odd = clubs ^ hearts ^ spades ^ diamonds;
+    final int pairOrTrips = (clubs & hearts) ^ (clubs & spades) ^ (clubs & diamonds)
+        ^ (hearts & spades) ^ (hearts & diamonds) ^ (spades & diamonds);
+    final int quads = clubs & hearts & spades & diamonds;
+    final int trips = odd & pairOrTrips;
+    final int pairs = pairOrTrips & ~odd;
+
+    if (quads != 0) {
+      final int quad = HandRanks.highest(quads);
+      final int kicker = HandRanks.highest(withoutRank(ranks, quad));
+      return HandRanks.rank(HandName.QUADS, repeat(quad, 4) << RANK_BITS | Math.max(kicker, 0));
+    }
+
+    if (trips != 0) {
+      final int set = HandRanks.highest(trips);
+      final int rest = withoutRank(trips, set) | pairs;
+      if (rest != 0) {
+        return HandRanks.rank(HandName.FULL_HOUSE,
+            repeat(set, 3) << (2 * RANK_BITS) | repeat(HandRanks.highest(rest), 2));
+      }
+    }
+
+    if (flush != 0) {
+      return flush;
+    }
+
+    final int straight = HandRanks.STRAIGHTS[ranks];
+    if (straight != 0) {
+      return straight;
+    }
+
+    if (trips != 0) {
+      final int set = HandRanks.highest(trips);
+      return HandRanks.rank(HandName.SET, repeat(set, 3) << (2 * RANK_BITS)
+          | HandRanks.TOP_FIVE[withoutRank(ranks, set)] >>> (3 * RANK_BITS));
+    }
+
+    if (pairs != 0) {
+      final int highPair = HandRanks.highest(pairs);
+      final int otherPairs = withoutRank(pairs, highPair);
+      if (otherPairs != 0) {
+        final int lowPair = HandRanks.highest(otherPairs);
+        return HandRanks.rank(HandName.TWO_PAIRS,
+            (repeat(highPair, 2) << (2 * RANK_BITS) | repeat(lowPair, 2)) << RANK_BITS
+                | HandRanks.TOP_FIVE[withoutRank(withoutRank(ranks, highPair), lowPair)]
+                >>> (4 * RANK_BITS));
+      }
+      return HandRanks.rank(HandName.ONE_PAIR, repeat(highPair, 2) << (3 * RANK_BITS)
+          | HandRanks.TOP_FIVE[withoutRank(ranks, highPair)] >>> (2 * RANK_BITS));
+    }
+
+    return HandRanks.rank(HandName.HIGH_CARD, HandRanks.TOP_FIVE[ranks]);
+  }
+
+  public int rank(final Card[] cards) {
+    long mask = 0L;
+    for (final Card card : cards) {
+      mask |= card.getMask();
+    }
+    return this.rank(mask);
+  }
+
+  public int rank(final Card[] holeCards, final Card[] table) {
+    long mask = 0L;
+    for (final Card card : holeCards) {
+      mask |= card.getMask();
+    }
+    for (final Card card : table) {
+      mask |= card.getMask();
+    }
+    return this.rank(mask);
+  }
+
+  public int rank(final int[] holeCards, final int[] table) {
+    long mask = 0L;
+    for (final int cardIndex : holeCards) {
+      mask |= 1L << cardIndex;
+    }
+    for (final int cardIndex : table) {
+      mask |= 1L << cardIndex;
+    }
+    return this.rank(mask);
+  }
+
+  private static void checkRange(final String name, final int arrayLength, final int offset,
+      final int length) {
+    if (offset < 0 || length < 0 || offset > arrayLength - length) {
+      throw new IndexOutOfBoundsException(
+          name + ": offset " + offset + ", length " + length + ", array length " + arrayLength);
+    }
+  }
+
+  public void evaluateBatch(final long[] handMasks, final int offset, final int count,
+      final int[] ranks, final int ranksOffset) {
+    //  Checking the ranges once up front lets the JIT drop the per-element bounds checks.
+    checkRange("handMasks", handMasks.length, offset, count);
+    checkRange("ranks", ranks.length, ranksOffset, count);
+    final long start = EvaluatorMetrics.ENABLED ? System.nanoTime() : 0L;
+    for (int hand = 0; hand < count; hand++) {
+      ranks[ranksOffset + hand] = this.rank(handMasks[offset + hand]);
+    }
+    if (EvaluatorMetrics.ENABLED) {
+      EvaluatorMetrics.getInstance().recordBatch(count, System.nanoTime() - start);
+    }
+  }
+
+  public void evaluateBatch(final byte[] cardIndices, final int offset, final int stride,
+      final int cardsPerHand, final int count, final int[] ranks, final int ranksOffset) {
+    if (cardsPerHand < 0 || stride < cardsPerHand) {
+      throw new IllegalArgumentException(
+          "A stride of " + stride + " cannot hold " + cardsPerHand + " cards per hand");
+    }
+    checkRange("cardIndices", cardIndices.length, offset,
+        count == 0 ? 0 : (count - 1) * stride + cardsPerHand);
+    checkRange("ranks", ranks.length, ranksOffset, count);
+    final long start = EvaluatorMetrics.ENABLED ? System.nanoTime() : 0L;
+    for (int hand = 0; hand < count; hand++) {
+      final int handStart = offset + hand * stride;
+      long mask = 0L;
+      for (int card = 0; card < cardsPerHand; card++) {
+        mask |= 1L << cardIndices[handStart + card];
+      }
+      ranks[ranksOffset + hand] = this.rank(mask);
+    }
+    if (EvaluatorMetrics.ENABLED) {
+      EvaluatorMetrics.getInstance().recordBatch(count, System.nanoTime() - start);
+    }
+  }
+
+  public static HandName getHandName(final int rank) {
+    return HandRanks.getHandName(rank);
+  }
+}
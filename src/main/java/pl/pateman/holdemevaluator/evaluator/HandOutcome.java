@@ -9,40 +9,66 @@ public final class HandOutcome implements Comparable<HandOutcome> {
   private HandName handName;
   private Card highestCard;
   private Card[] topCards;
+  private int strength;
+  //  Set by update, the top cards and the highest card are only worked out when first read.
+  //  Readers on other threads may race to do that, so it happens once under the lock and is
+  //  published by the volatile write of the flag.
+  private long handMask;
+  private volatile boolean topCardsPending;
 
-  HandOutcome() {
+  public HandOutcome() {
     this.handName = HandName.HIGH_CARD;
   }
 
-  public HandName getHandName() {
-    return handName;
+  void update(final int strength, final long handMask) {
+    this.strength = strength;
+    this.handName = HandRanks.getHandName(strength);
+    this.handMask = handMask;
+    this.topCardsPending = true;
   }
 
-  void setHandName(HandName handName) {
-    this.handName = handName;
+  private void resolveTopCards() {
+    if (!this.topCardsPending) {
+      return;
+    }
+    synchronized (this) {
+      if (!this.topCardsPending) {
+        return;
+      }
+      //  A caller-owned outcome keeps its array across updates.
+      final int topCardCount = HandRanks.topCardCount(this.handMask);
+      final Card[] topCards = this.topCards != null && this.topCards.length == topCardCount
+          ? this.topCards : new Card[topCardCount];
+      HandRanks.fillTopCards(this.strength, this.handMask, topCards);
+      this.topCards = topCards;
+      this.highestCard = HandRanks.findHighestCard(this.strength, topCards);
+      this.topCardsPending = false;
+    }
   }
 
-  public Card getHighestCard() {
-    return highestCard;
+  public HandName getHandName() {
+    return handName;
   }
 
-  void setHighestCard(Card highestCard) {
-    this.highestCard = highestCard;
+  public Card getHighestCard() {
+    this.resolveTopCards();
+    return highestCard;
   }
 
   public Card[] getTopCards() {
+    this.resolveTopCards();
     return topCards;
   }
 
-  void setTopCards(Card[] topCards) {
-    this.topCards = topCards;
+  public int getStrength() {
+    return strength;
   }
 
   @Override
   public String toString() {
     return "HandOutcome{" +
         "handName=" + handName +
-        ", topCards=" + Arrays.toString(topCards) +
+        ", topCards=" + Arrays.toString(this.getTopCards()) +
         '}';
   }
 
@@ -51,18 +77,6 @@ public final class HandOutcome implements Comparable<HandOutcome> {
     if (o == null) {
       return 1;
     }
-    final int comparison = this.getHandName().getValue() - o.getHandName().getValue();
-    if (comparison != 0) {
-      return comparison;
-    }
-    final Card[] myTopCards = this.getTopCards();
-    final Card[] otherTopCards = o.getTopCards();
-    for (int i = 0; i < myTopCards.length; i++) {
-      final int cardCompare = myTopCards[i].compareTo(otherTopCards[i]);
-      if (cardCompare != 0) {
-        return cardCompare;
-      }
-    }
-    return 0;
+    return Integer.compare(this.strength, o.strength);
   }
 }
\ No newline at end of file
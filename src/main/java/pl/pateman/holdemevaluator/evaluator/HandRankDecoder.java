@@ -0,0 +1,84 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class HandRankDecoder {
+
+  //  Reads a stored strength back without evaluating the hand again. The hand name and the
+  //  five card values are packed into the strength itself, and together with the hand's mask
+  //  they pick the same top cards as HandOutcome.getTopCards(), whichever calculate overload and
+  //  top-card mode produced the outcome.
+  public static final int TOP_CARDS = HandRanks.TOP_CARDS;
+
+  private static final CardValue[] CARD_VALUES = new CardValue[HandRanks.RANKS];
+  private static final int MAX_CATEGORY = HandName.values().length;
+
+  static {
+    for (final CardValue cardValue : CardValue.values()) {
+      CARD_VALUES[(cardValue.getValue() + HandRanks.RANKS - 2) % HandRanks.RANKS] = cardValue;
+    }
+  }
+
+  private HandRankDecoder() {
+
+  }
+
+  private static void checkRank(final int rank) {
+    final int category = rank >>> HandRanks.CATEGORY_SHIFT;
+    if (category < 1 || category > MAX_CATEGORY) {
+      throw new IllegalArgumentException("0x" + Integer.toHexString(rank) + " is not a strength");
+    }
+    for (int position = 0; position < TOP_CARDS; position++) {
+      if (HandRanks.getRankIndex(rank, position) >= HandRanks.RANKS) {
+        throw new IllegalArgumentException(
+            "0x" + Integer.toHexString(rank) + " is not a strength");
+      }
+    }
+  }
+
+  public static HandName getHandName(final int rank) {
+    checkRank(rank);
+    return HandRanks.getHandName(rank);
+  }
+
+  public static CardValue getCardValue(final int rank, final int position) {
+    //  Positions run from the most significant card, so an ace-low straight starts with its five.
+    //  Hands of fewer than five cards only fill their leading positions.
+    checkRank(rank);
+    if (position < 0 || position >= TOP_CARDS) {
+      throw new IllegalArgumentException("A position is between 0 and " + (TOP_CARDS - 1));
+    }
+    return CARD_VALUES[HandRanks.getRankIndex(rank, position)];
+  }
+
+  public static CardValue[] getCardValues(final int rank) {
+    checkRank(rank);
+    final CardValue[] cardValues = new CardValue[TOP_CARDS];
+    for (int position = 0; position < TOP_CARDS; position++) {
+      cardValues[position] = CARD_VALUES[HandRanks.getRankIndex(rank, position)];
+    }
+    return cardValues;
+  }
+
+  public static Card[] getTopCards(final int rank, final long handMask) {
+    final Card[] topCards = new Card[HandRanks.topCardCount(handMask)];
+    fillTopCards(rank, handMask, topCards);
+    return topCards;
+  }
+
+  public static void fillTopCards(final int rank, final long handMask, final Card[] result) {
+    //  The mask has to be the hand the strength was computed from.
+    checkRank(rank);
+    if (result.length != HandRanks.topCardCount(handMask)) {
+      throw new IllegalArgumentException(
+          "The hand has " + HandRanks.topCardCount(handMask) + " top cards");
+    }
+    HandRanks.fillTopCards(rank, handMask, result);
+  }
+
+  public static Card getHighestCard(final int rank, final long handMask) {
+    return HandRanks.findHighestCard(rank, getTopCards(rank, handMask));
+  }
+}
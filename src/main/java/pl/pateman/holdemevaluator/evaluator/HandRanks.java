@@ -0,0 +1,159 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.HandName;
+
+final class HandRanks {
+
+  //  A rank is HandName.getValue() << CATEGORY_SHIFT followed by five 4-bit rank indices (2 = 0,
+  //  ace = 12) of the best five cards, ordered by multiplicity and then by value. Comparing two
+  //  ranks as plain ints therefore orders the hands the same way the game does.
+  static final int CATEGORY_SHIFT = 20;
+  static final int RANK_BITS = 4;
+  static final int RANKS = 13;
+  static final int SUITS = 4;
+  static final int RANK_MASK = (1 << RANKS) - 1;
+  static final int ACE = 12;
+  static final int FIVE = 3;
+  static final int STRAIGHT_FLUSH_RANK = HandName.STRAIGHT_FLUSH.getValue() << CATEGORY_SHIFT;
+  static final int TOP_CARDS = 5;
+
+  static final int[] STRAIGHTS = new int[1 << RANKS];
+  static final int[] FLUSHES = new int[1 << RANKS];
+  static final int[] TOP_FIVE = new int[1 << RANKS];
+
+  private static final int WHEEL = 1 << ACE | 0xF;
+  private static final long RANK_IN_EVERY_SUIT = 1L | 1L << RANKS | 1L << (2 * RANKS)
+      | 1L << (3 * RANKS);
+  private static final HandName[] HAND_NAMES = HandName.values();
+
+  static {
+    for (int mask = 0; mask < TOP_FIVE.length; mask++) {
+      int packed = 0;
+      int remaining = mask;
+      for (int i = 0; i < TOP_CARDS; i++) {
+        packed <<= RANK_BITS;
+        if (remaining != 0) {
+          final int top = highest(remaining);
+          packed |= top;
+          remaining &= ~(1 << top);
+        }
+      }
+      TOP_FIVE[mask] = packed;
+    }
+
+    for (int mask = 0; mask < STRAIGHTS.length; mask++) {
+      int straightHigh = -1;
+      for (int high = ACE; high >= 4; high--) {
+        final int run = 0x1F << (high - 4);
+        if ((mask & run) == run) {
+          straightHigh = high;
+          break;
+        }
+      }
+      if (straightHigh == -1 && (mask & WHEEL) == WHEEL) {
+        straightHigh = FIVE;
+      }
+
+      if (straightHigh != -1) {
+        STRAIGHTS[mask] = straight(HandName.STRAIGHT, straightHigh);
+      }
+      if (Integer.bitCount(mask) >= TOP_CARDS) {
+        if (straightHigh == ACE) {
+          FLUSHES[mask] = straight(HandName.ROYAL_FLUSH, straightHigh);
+        } else if (straightHigh != -1) {
+          FLUSHES[mask] = straight(HandName.STRAIGHT_FLUSH, straightHigh);
+        } else {
+          FLUSHES[mask] = rank(HandName.FLUSH, TOP_FIVE[mask]);
+        }
+      }
+    }
+  }
+
+  private HandRanks() {
+
+  }
+
+  private static int straight(final HandName handName, final int high) {
+    int packed = 0;
+    for (int i = 0; i < TOP_CARDS; i++) {
+      //  The ace of a wheel is played as the lowest card.
+      packed = (packed << RANK_BITS) | (high - i < 0 ? ACE : high - i);
+    }
+    return rank(handName, packed);
+  }
+
+  static int highest(final int mask) {
+    return 31 - Integer.numberOfLeadingZeros(mask);
+  }
+
+  static int rank(final HandName handName, final int packedRanks) {
+    return handName.getValue() << CATEGORY_SHIFT | packedRanks;
+  }
+
+  static HandName getHandName(final int rank) {
+    return HAND_NAMES[(rank >>> CATEGORY_SHIFT) - 1];
+  }
+
+  static int getRankIndex(final int rank, final int position) {
+    return rank >>> ((TOP_CARDS - 1 - position) * RANK_BITS) & 0xF;
+  }
+
+  static boolean isFlush(final int rank) {
+    final int category = rank >>> CATEGORY_SHIFT;
+    return category == HandName.FLUSH.getValue()
+        || category >= HandName.STRAIGHT_FLUSH.getValue();
+  }
+
+  static boolean isStraight(final int rank) {
+    final int category = rank >>> CATEGORY_SHIFT;
+    return category == HandName.STRAIGHT.getValue()
+        || category >= HandName.STRAIGHT_FLUSH.getValue();
+  }
+
+  static int topCardCount(final long handMask) {
+    return Math.min(TOP_CARDS, Long.bitCount(handMask));
+  }
+
+  static void fillTopCards(final int rank, final long handMask, final Card[] result) {
+    long available = handMask;
+    if (isFlush(rank)) {
+      int flushRanks = 0;
+      for (int position = 0; position < TOP_CARDS; position++) {
+        flushRanks |= 1 << getRankIndex(rank, position);
+      }
+      for (int suit = 0; suit < SUITS; suit++) {
+        final long suitMask = (long) RANK_MASK << (suit * RANKS);
+        if (((int) ((handMask & suitMask) >>> (suit * RANKS)) & flushRanks) == flushRanks) {
+          available = handMask & suitMask;
+          break;
+        }
+      }
+    }
+
+    //  Cards of the same rank are taken in suit order.
+    for (int position = 0; position < result.length; position++) {
+      final long card = Long.lowestOneBit(
+          available & RANK_IN_EVERY_SUIT << getRankIndex(rank, position));
+      available &= ~card;
+      result[position] = Card.fromIndex(Long.numberOfTrailingZeros(card));
+    }
+  }
+
+  static Card findHighestCard(final int rank, final Card[] topCards) {
+    if (topCards.length == 0) {
+      return null;
+    }
+    //  The five of an ace-low straight is the highest card of that hand.
+    if (isStraight(rank)) {
+      return topCards[0];
+    }
+    Card highest = topCards[0];
+    for (int i = 1; i < topCards.length; i++) {
+      if (topCards[i].getRankIndex() > highest.getRankIndex()) {
+        highest = topCards[i];
+      }
+    }
+    return highest;
+  }
+}
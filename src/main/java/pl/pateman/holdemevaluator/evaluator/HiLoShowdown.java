@@ -0,0 +1,39 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class HiLoShowdown {
+
+  //  Omaha eight-or-better: each player plays two hole cards and three board cards for the high
+  //  hand, and may play a different two and three for the low. It keeps an OmahaEvaluator with
+  //  its working buffers, so like it an instance belongs to one thread.
+  private final OmahaEvaluator omahaEvaluator = new OmahaEvaluator();
+  private final LowEvaluator lowEvaluator = new LowEvaluator();
+
+  public HiLoShowdownResult settle(final Card[] board, final Card[]... holeCards) {
+    final long[] holeCardMasks = new long[holeCards.length];
+    for (int player = 0; player < holeCards.length; player++) {
+      holeCardMasks[player] = CardMask.of(holeCards[player]);
+    }
+    return this.settle(CardMask.of(board), holeCardMasks);
+  }
+
+  public HiLoShowdownResult settle(final long boardMask, final long... holeCardMasks) {
+    final int players = holeCardMasks.length;
+    final int[] highStrengths = new int[players];
+    final int[] lowStrengths = new int[players];
+    long usedCards = boardMask;
+    for (int player = 0; player < players; player++) {
+      final long holeCardMask = holeCardMasks[player];
+      if ((usedCards & holeCardMask) != 0) {
+        throw new IllegalArgumentException(
+            "Player " + player + " holds a card that has already been dealt");
+      }
+      usedCards |= holeCardMask;
+      highStrengths[player] = this.omahaEvaluator.rank(holeCardMask, boardMask);
+      lowStrengths[player] = this.lowEvaluator.rankOmaha(holeCardMask, boardMask);
+    }
+    return new HiLoShowdownResult(highStrengths, lowStrengths);
+  }
+}
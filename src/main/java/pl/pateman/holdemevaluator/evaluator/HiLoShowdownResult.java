@@ -0,0 +1,137 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class HiLoShowdownResult {
+
+  private final int[] highStrengths;
+  private final int[] lowStrengths;
+  private final int[] highWinners;
+  private final int[] lowWinners;
+
+  HiLoShowdownResult(final int[] highStrengths, final int[] lowStrengths) {
+    this.highStrengths = highStrengths;
+    this.lowStrengths = lowStrengths;
+    this.highWinners = winners(highStrengths);
+    this.lowWinners = winners(lowStrengths);
+  }
+
+  private static int[] winners(final int[] strengths) {
+    int best = LowEvaluator.NO_LOW;
+    int count = 0;
+    for (final int strength : strengths) {
+      if (strength > best) {
+        best = strength;
+        count = 1;
+      } else if (strength == best && best != LowEvaluator.NO_LOW) {
+        ++count;
+      }
+    }
+    final int[] winners = new int[count];
+    int winner = 0;
+    for (int player = 0; player < strengths.length && winner < count; player++) {
+      if (strengths[player] == best) {
+        winners[winner++] = player;
+      }
+    }
+    return winners;
+  }
+
+  private static void award(final long chips, final int[] winners, final long[] result) {
+    //  Chips that do not divide evenly go one each to the winners in seat order.
+    final long share = chips / winners.length;
+    final long oddChips = chips % winners.length;
+    for (int i = 0; i < winners.length; i++) {
+      result[winners[i]] += share + (i < oddChips ? 1 : 0);
+    }
+  }
+
+  public int getPlayerCount() {
+    return highStrengths.length;
+  }
+
+  public int getHighStrength(final int player) {
+    return highStrengths[player];
+  }
+
+  public HandName getHighHandName(final int player) {
+    return HandRanks.getHandName(this.highStrengths[player]);
+  }
+
+  public int getLowStrength(final int player) {
+    return lowStrengths[player];
+  }
+
+  public boolean hasLow(final int player) {
+    return LowEvaluator.isLow(this.lowStrengths[player]);
+  }
+
+  public boolean isLowQualified() {
+    //  Without a qualifying low the high hand scoops the whole pot.
+    return this.lowWinners.length > 0;
+  }
+
+  public int[] getHighWinners() {
+    return this.highWinners.clone();
+  }
+
+  public int[] getLowWinners() {
+    return this.lowWinners.clone();
+  }
+
+  public boolean isScoop(final int player) {
+    return this.getShare(player) == 1.0;
+  }
+
+  public double getShare(final int player) {
+    //  The fraction of the pot the player takes: half of the pot goes to the high hand and half
+    //  to the low, and each half is split between tied players, so quarters and smaller pieces
+    //  come out of ties on one side.
+    final double highHalf = this.isLowQualified() ? 0.5 : 1.0;
+    double share = 0.0;
+    if (Arrays.binarySearch(this.highWinners, player) >= 0) {
+      share += highHalf / this.highWinners.length;
+    }
+    if (Arrays.binarySearch(this.lowWinners, player) >= 0) {
+      share += (1.0 - highHalf) / this.lowWinners.length;
+    }
+    return share;
+  }
+
+  public double[] getShares() {
+    final double[] shares = new double[this.highStrengths.length];
+    for (int player = 0; player < shares.length; player++) {
+      shares[player] = this.getShare(player);
+    }
+    return shares;
+  }
+
+  public long[] split(final long pot) {
+    //  Chips each player takes from the pot. An odd chip between the halves goes to the high.
+    if (pot < 0) {
+      throw new IllegalArgumentException("A pot cannot be negative");
+    }
+    final long[] chips = new long[this.highStrengths.length];
+    if (chips.length == 0) {
+      return chips;
+    }
+    if (this.isLowQualified()) {
+      award(pot - pot / 2, this.highWinners, chips);
+      award(pot / 2, this.lowWinners, chips);
+    } else {
+      award(pot, this.highWinners, chips);
+    }
+    return chips;
+  }
+
+  @Override
+  public String toString() {
+    return "HiLoShowdownResult{" +
+        "highStrengths=" + Arrays.toString(highStrengths) +
+        ", lowStrengths=" + Arrays.toString(lowStrengths) +
+        ", highWinners=" + Arrays.toString(highWinners) +
+        ", lowWinners=" + Arrays.toString(lowWinners) +
+        '}';
+  }
+}
@@ -0,0 +1,317 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class HoldemEvaluatorService implements AutoCloseable {
+
+  //  Requests are queued on one of the workers and answered through futures, so callers never
+  //  block, whether they run on platform or virtual threads. A worker drains up to maxBatchSize
+  //  requests, waiting at most maxWait for a batch to fill up once it has one request, and
+  //  ranks all of their hands with a single evaluateBatch call. Futures are completed on the
+  //  worker thread, so slow dependent stages belong in the *Async variants.
+  public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+  public static final long DEFAULT_MAX_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(20L);
+
+  private static final String THREAD_NAME = "holdem-evaluator-service-";
+
+  private final Worker[] workers;
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final AtomicBoolean running = new AtomicBoolean(true);
+
+  public HoldemEvaluatorService() {
+    this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_BATCH_SIZE,
+        DEFAULT_MAX_WAIT_NANOS, TimeUnit.NANOSECONDS);
+  }
+
+  public HoldemEvaluatorService(final int workerCount, final int maxBatchSize,
+      final long maxWait, final TimeUnit unit) {
+    if (workerCount < 1 || maxBatchSize < 1 || maxWait < 0) {
+      throw new IllegalArgumentException(
+          "The service needs at least one worker, a positive batch size and a wait of 0 or more");
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = unit.toNanos(maxWait);
+    this.workers = new Worker[workerCount];
+    for (int i = 0; i < workerCount; i++) {
+      this.workers[i] = new Worker();
+      final Thread thread = new Thread(this.workers[i], THREAD_NAME + i);
+      thread.setDaemon(true);
+      this.workers[i].thread = thread;
+    }
+    for (final Worker worker : this.workers) {
+      worker.thread.start();
+    }
+  }
+
+  private static void checkMask(final long mask) {
+    if ((mask & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+  }
+
+  private <T> CompletableFuture<T> submit(final Request<T> request) {
+    //  A thread keeps using the same worker, so its requests are answered in order.
+    final Worker worker =
+        this.workers[(int) (Thread.currentThread().getId() % this.workers.length)];
+    worker.submitters.incrementAndGet();
+    try {
+      if (!this.running.get()) {
+        request.future.completeExceptionally(
+            new IllegalStateException("The evaluator service has been closed"));
+      } else {
+        worker.queue.offer(request);
+        if (worker.sleeping) {
+          LockSupport.unpark(worker.thread);
+        }
+      }
+    } finally {
+      worker.submitters.decrementAndGet();
+    }
+    return request.future;
+  }
+
+  public int getWorkerCount() {
+    return workers.length;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public long getMaxWaitNanos() {
+    return maxWaitNanos;
+  }
+
+  public CompletableFuture<Integer> rank(final long handMask) {
+    checkMask(handMask);
+    return this.submit(new RankRequest(handMask));
+  }
+
+  public CompletableFuture<HandOutcome> calculate(final long handMask) {
+    checkMask(handMask);
+    return this.submit(new OutcomeRequest(handMask));
+  }
+
+  public CompletableFuture<ShowdownResult> settle(final long boardMask,
+      final long... holeCardMasks) {
+    checkMask(boardMask);
+    long usedCards = boardMask;
+    for (int player = 0; player < holeCardMasks.length; player++) {
+      checkMask(holeCardMasks[player]);
+      if ((usedCards & holeCardMasks[player]) != 0) {
+        throw new IllegalArgumentException(
+            "Player " + player + " holds a card that has already been dealt");
+      }
+      usedCards |= holeCardMasks[player];
+    }
+    return this.submit(new ShowdownRequest(boardMask, holeCardMasks.clone()));
+  }
+
+  @Override
+  public void close() {
+    //  Requests queued before close are still answered, later ones fail.
+    if (!this.running.compareAndSet(true, false)) {
+      return;
+    }
+    for (final Worker worker : this.workers) {
+      LockSupport.unpark(worker.thread);
+    }
+    boolean interrupted = false;
+    for (final Worker worker : this.workers) {
+      while (worker.thread != Thread.currentThread() && worker.thread.isAlive()) {
+        try {
+          worker.thread.join();
+        } catch (final InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private abstract static class Request<T> {
+
+    final CompletableFuture<T> future = new CompletableFuture<>();
+
+    abstract int handCount();
+
+    abstract void fill(long[] handMasks, int offset);
+
+    abstract T result(int[] ranks, int offset);
+  }
+
+  private static final class RankRequest extends Request<Integer> {
+
+    private final long handMask;
+
+    RankRequest(final long handMask) {
+      this.handMask = handMask;
+    }
+
+    @Override
+    int handCount() {
+      return 1;
+    }
+
+    @Override
+    void fill(final long[] handMasks, final int offset) {
+      handMasks[offset] = this.handMask;
+    }
+
+    @Override
+    Integer result(final int[] ranks, final int offset) {
+      return ranks[offset];
+    }
+  }
+
+  private static final class OutcomeRequest extends Request<HandOutcome> {
+
+    private final long handMask;
+
+    OutcomeRequest(final long handMask) {
+      this.handMask = handMask;
+    }
+
+    @Override
+    int handCount() {
+      return 1;
+    }
+
+    @Override
+    void fill(final long[] handMasks, final int offset) {
+      handMasks[offset] = this.handMask;
+    }
+
+    @Override
+    HandOutcome result(final int[] ranks, final int offset) {
+      final HandOutcome handOutcome = new HandOutcome();
+      handOutcome.update(ranks[offset], this.handMask);
+      return handOutcome;
+    }
+  }
+
+  private static final class ShowdownRequest extends Request<ShowdownResult> {
+
+    private final long boardMask;
+    private final long[] holeCardMasks;
+
+    ShowdownRequest(final long boardMask, final long[] holeCardMasks) {
+      this.boardMask = boardMask;
+      this.holeCardMasks = holeCardMasks;
+    }
+
+    @Override
+    int handCount() {
+      return this.holeCardMasks.length;
+    }
+
+    @Override
+    void fill(final long[] handMasks, final int offset) {
+      for (int player = 0; player < this.holeCardMasks.length; player++) {
+        handMasks[offset + player] = this.boardMask | this.holeCardMasks[player];
+      }
+    }
+
+    @Override
+    ShowdownResult result(final int[] ranks, final int offset) {
+      return new ShowdownResult(this.boardMask, this.holeCardMasks,
+          Arrays.copyOfRange(ranks, offset, offset + this.holeCardMasks.length));
+    }
+  }
+
+  private final class Worker implements Runnable {
+
+    private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    private final MpscQueue<Request<?>> queue = new MpscQueue<>();
+    private final AtomicInteger submitters = new AtomicInteger();
+    private final Request<?>[] batch = new Request<?>[maxBatchSize];
+    private long[] handMasks = new long[maxBatchSize];
+    private int[] ranks = new int[maxBatchSize];
+    private volatile boolean sleeping;
+    private Thread thread;
+
+    private int drain() {
+      int size = 0;
+      final long deadline = System.nanoTime() + maxWaitNanos;
+      while (size < maxBatchSize) {
+        final Request<?> request = this.queue.poll();
+        if (request != null) {
+          this.batch[size++] = request;
+        } else if (size == 0 && !this.queue.isEmpty()) {
+          //  A producer is halfway through linking its request.
+          Thread.yield();
+        } else if (size == 0 || maxWaitNanos == 0 || System.nanoTime() - deadline >= 0) {
+          break;
+        } else {
+          Thread.yield();
+        }
+      }
+      return size;
+    }
+
+    private <T> void complete(final Request<T> request, final int offset) {
+      request.future.complete(request.result(this.ranks, offset));
+    }
+
+    private void evaluate(final int size) {
+      int hands = 0;
+      for (int i = 0; i < size; i++) {
+        hands += this.batch[i].handCount();
+      }
+      if (hands > this.handMasks.length) {
+        this.handMasks = new long[hands];
+        this.ranks = new int[hands];
+      }
+      int offset = 0;
+      for (int i = 0; i < size; i++) {
+        this.batch[i].fill(this.handMasks, offset);
+        offset += this.batch[i].handCount();
+      }
+
+      try {
+        this.evaluator.evaluateBatch(this.handMasks, 0, hands, this.ranks, 0);
+        offset = 0;
+        for (int i = 0; i < size; i++) {
+          this.complete(this.batch[i], offset);
+          offset += this.batch[i].handCount();
+        }
+      } catch (final RuntimeException e) {
+        for (int i = 0; i < size; i++) {
+          this.batch[i].future.completeExceptionally(e);
+        }
+      }
+      Arrays.fill(this.batch, 0, size, null);
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        final int size = this.drain();
+        if (size > 0) {
+          this.evaluate(size);
+        } else if (!running.get()) {
+          //  Nobody can enqueue once the flag is down and no submitter is in flight.
+          if (this.submitters.get() == 0 && this.queue.isEmpty()) {
+            return;
+          }
+          Thread.yield();
+        } else {
+          this.sleeping = true;
+          if (this.queue.isEmpty() && running.get()) {
+            LockSupport.park(this);
+          }
+          this.sleeping = false;
+        }
+      }
+    }
+  }
+}
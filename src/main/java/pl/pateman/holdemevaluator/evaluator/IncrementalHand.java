@@ -0,0 +1,149 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.Suit;
+
+public final class IncrementalHand {
+
+  private static final int NOT_EVALUATED = 0;
+  private static final FastHoldemEvaluator EVALUATOR = new FastHoldemEvaluator();
+
+  private final int[] suitRankMasks = new int[HandRanks.SUITS];
+  private final byte[] rankCounts = new byte[HandRanks.RANKS];
+  private final byte[] suitCounts = new byte[HandRanks.SUITS];
+  private long mask;
+  private int rankMask;
+  private int strength;
+
+  public IncrementalHand() {
+
+  }
+
+  public IncrementalHand(final Card... cards) {
+    for (final Card card : cards) {
+      this.add(card);
+    }
+  }
+
+  public IncrementalHand add(final Card card) {
+    return this.add(card.getIndex());
+  }
+
+  public IncrementalHand add(final int cardIndex) {
+    final long card = 1L << cardIndex;
+    if ((this.mask & card) != 0) {
+      throw new IllegalArgumentException(Card.fromIndex(cardIndex) + " is already in the hand");
+    }
+    final int suit = cardIndex / HandRanks.RANKS;
+    final int rank = cardIndex % HandRanks.RANKS;
+
+    this.mask |= card;
+    this.suitRankMasks[suit] |= 1 << rank;
+    this.rankMask |= 1 << rank;
+    ++this.rankCounts[rank];
+    ++this.suitCounts[suit];
+    this.strength = NOT_EVALUATED;
+    return this;
+  }
+
+  public IncrementalHand remove(final Card card) {
+    return this.remove(card.getIndex());
+  }
+
+  public IncrementalHand remove(final int cardIndex) {
+    final long card = 1L << cardIndex;
+    if ((this.mask & card) == 0) {
+      throw new IllegalArgumentException(Card.fromIndex(cardIndex) + " is not in the hand");
+    }
+    final int suit = cardIndex / HandRanks.RANKS;
+    final int rank = cardIndex % HandRanks.RANKS;
+
+    this.mask &= ~card;
+    this.suitRankMasks[suit] &= ~(1 << rank);
+    if (--this.rankCounts[rank] == 0) {
+      this.rankMask &= ~(1 << rank);
+    }
+    --this.suitCounts[suit];
+    this.strength = NOT_EVALUATED;
+    return this;
+  }
+
+  public void clear() {
+    for (int suit = 0; suit < HandRanks.SUITS; suit++) {
+      this.suitRankMasks[suit] = 0;
+      this.suitCounts[suit] = 0;
+    }
+    for (int rank = 0; rank < HandRanks.RANKS; rank++) {
+      this.rankCounts[rank] = 0;
+    }
+    this.mask = 0L;
+    this.rankMask = 0;
+    this.strength = NOT_EVALUATED;
+  }
+
+  public boolean contains(final Card card) {
+    return (this.mask & card.getMask()) != 0;
+  }
+
+  public int size() {
+    return Long.bitCount(this.mask);
+  }
+
+  public long getMask() {
+    return mask;
+  }
+
+  public int getCount(final CardValue value) {
+    return this.rankCounts[(value.getValue() + HandRanks.RANKS - 2) % HandRanks.RANKS];
+  }
+
+  public int getCount(final Suit suit) {
+    return this.suitCounts[suit.ordinal()];
+  }
+
+  public boolean hasStraight() {
+    return HandRanks.STRAIGHTS[this.rankMask] != 0;
+  }
+
+  public boolean hasFlush() {
+    for (final byte suitCount : this.suitCounts) {
+      if (suitCount >= HandRanks.TOP_CARDS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int getStrength() {
+    //  Ranked lazily and cached until the next add or remove.
+    if (this.strength == NOT_EVALUATED) {
+      this.strength = EVALUATOR.rank(this.suitRankMasks[0], this.suitRankMasks[1],
+          this.suitRankMasks[2], this.suitRankMasks[3]);
+    }
+    return this.strength;
+  }
+
+  public HandName getHandName() {
+    return HandRanks.getHandName(this.getStrength());
+  }
+
+  public HandOutcome getHandOutcome() {
+    final HandOutcome handOutcome = new HandOutcome();
+    this.getHandOutcome(handOutcome);
+    return handOutcome;
+  }
+
+  public void getHandOutcome(final HandOutcome result) {
+    result.update(this.getStrength(), this.mask);
+  }
+
+  @Override
+  public String toString() {
+    return "IncrementalHand{" +
+        "cards=" + CardMask.toString(this.mask) +
+        '}';
+  }
+}
@@ -0,0 +1,107 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.CardValue;
+
+public final class LowEvaluator {
+
+  //  Eight-or-better lows: five cards of distinct ranks from the ace (played low) up to the
+  //  eight, with straights and flushes ignored. Ranks go into an 8-bit mask with the ace at bit
+  //  0 and the eight at bit 7. Read as a number, the mask of a low's five ranks orders lows by
+  //  their highest card first, so a low's strength is LOW_RANKS minus that mask: every low
+  //  beats NO_LOW and better lows are larger, like the high strengths.
+  public static final int NO_LOW = 0;
+
+  private static final int LOW_RANKS = 1 << 8;
+  private static final int LOW_CARDS = 5;
+  private static final int OMAHA_HOLE_CARDS = 2;
+  private static final int OMAHA_BOARD_CARDS = 3;
+  private static final int TWO_TO_EIGHT = (1 << 7) - 1;
+  private static final CardValue[] CARD_VALUES = {CardValue.ACE, CardValue.TWO,
+      CardValue.THREE, CardValue.FOUR, CardValue.FIVE, CardValue.SIX, CardValue.SEVEN,
+      CardValue.EIGHT};
+
+  //  The best low that any five cards of a rank mask make.
+  private static final short[] LOWS = new short[LOW_RANKS];
+  //  The best low that two ranks of the first mask and three of the second make, indexed by
+  //  hole ranks << 8 | board ranks.
+  private static final short[] OMAHA_LOWS = new short[LOW_RANKS * LOW_RANKS];
+
+  static {
+    for (int ranks = 0; ranks < LOW_RANKS; ranks++) {
+      int lowest = 0;
+      for (int remaining = ranks; remaining != 0 && Integer.bitCount(lowest) < LOW_CARDS;
+          remaining &= remaining - 1) {
+        lowest |= Integer.lowestOneBit(remaining);
+      }
+      LOWS[ranks] = (short) (Integer.bitCount(lowest) == LOW_CARDS
+          ? LOW_RANKS - lowest : NO_LOW);
+    }
+
+    for (int hole = 0; hole < LOW_RANKS; hole++) {
+      for (int board = 0; board < LOW_RANKS; board++) {
+        int best = NO_LOW;
+        for (int pair = hole; pair != 0; pair = (pair - 1) & hole) {
+          final int free = board & ~pair;
+          if (Integer.bitCount(pair) == OMAHA_HOLE_CARDS
+              && Integer.bitCount(free) >= OMAHA_BOARD_CARDS) {
+            //  The lowest three board ranks the pair does not use make the best low for it.
+            best = Math.max(best, LOWS[pair | lowest(free, OMAHA_BOARD_CARDS)]);
+          }
+        }
+        OMAHA_LOWS[hole << 8 | board] = (short) best;
+      }
+    }
+  }
+
+  private static int lowest(final int ranks, final int count) {
+    int lowest = 0;
+    for (int remaining = ranks; Integer.bitCount(lowest) < count; remaining &= remaining - 1) {
+      lowest |= Integer.lowestOneBit(remaining);
+    }
+    return lowest;
+  }
+
+  static int lowRanks(final long cards) {
+    //  Rank index 12 is the ace, 0 to 6 are the two to the eight.
+    final long ranks = cards | cards >>> HandRanks.RANKS | cards >>> (2 * HandRanks.RANKS)
+        | cards >>> (3 * HandRanks.RANKS);
+    return (int) (ranks & TWO_TO_EIGHT) << 1 | (int) (ranks >>> HandRanks.ACE) & 1;
+  }
+
+  public static boolean isLow(final int lowRank) {
+    return lowRank != NO_LOW;
+  }
+
+  public static CardValue[] getCardValues(final int lowRank) {
+    //  Highest first, so an eight-five low reads 8 5 4 2 A.
+    if (lowRank <= NO_LOW || lowRank >= LOW_RANKS
+        || Integer.bitCount(LOW_RANKS - lowRank) != LOW_CARDS) {
+      throw new IllegalArgumentException(lowRank + " is not a low");
+    }
+    final CardValue[] cardValues = new CardValue[LOW_CARDS];
+    int ranks = LOW_RANKS - lowRank;
+    for (int i = 0; i < LOW_CARDS; i++) {
+      final int highest = HandRanks.highest(ranks);
+      cardValues[i] = CARD_VALUES[highest];
+      ranks &= ~(1 << highest);
+    }
+    return cardValues;
+  }
+
+  public int rank(final long handMask) {
+    //  The best low from any five of the cards.
+    if ((handMask & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+    return LOWS[lowRanks(handMask)];
+  }
+
+  public int rankOmaha(final long holeCardMask, final long boardMask) {
+    //  Exactly two hole cards and three board cards, as OmahaEvaluator plays the high hand.
+    if (((holeCardMask | boardMask) & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+    return OMAHA_LOWS[lowRanks(holeCardMask) << 8 | lowRanks(boardMask)];
+  }
+}
@@ -0,0 +1,57 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+final class MpscQueue<E> {
+
+  //  An unbounded linked queue for many producers and a single consumer, after Dmitry Vyukov's
+  //  intrusive MPSC node queue. offer is a single atomic swap of the tail and never spins; only
+  //  the consumer thread may call poll and isEmpty. The link to the next node is package-private
+  //  so that the field updater can reach it.
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+      AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+  private final AtomicReference<Node<E>> tail;
+  private Node<E> head;
+
+  MpscQueue() {
+    final Node<E> stub = new Node<>(null);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  @SuppressWarnings("unchecked")
+  void offer(final E element) {
+    final Node<E> node = new Node<>(element);
+    //  Between the swap and the link the consumer sees the old tail without a successor, so it
+    //  may briefly report an element it cannot poll yet. isEmpty accounts for that.
+    NEXT.lazySet(this.tail.getAndSet(node), node);
+  }
+
+  E poll() {
+    final Node<E> next = this.head.next;
+    if (next == null) {
+      return null;
+    }
+    final E element = next.element;
+    next.element = null;
+    this.head = next;
+    return element;
+  }
+
+  boolean isEmpty() {
+    return this.head == this.tail.get();
+  }
+
+  private static final class Node<E> {
+
+    private E element;
+    volatile Node<E> next;
+
+    Node(final E element) {
+      this.element = element;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class OmahaEvaluator {
+
+  //  An Omaha hand is exactly two of the four hole cards and three of the board cards, so the
+  //  best hand is the best of up to 6 * 10 five-card hands. When no suit has two hole cards and
+  //  three board cards, no flush can be made and suits stop mattering: hole pairs and board
+  //  triples with the same ranks are then evaluated once, which removes most of the work on
+  //  paired boards and paired or double-suited hole cards.
+  public static final int HOLE_CARDS = 4;
+  public static final int MIN_BOARD_CARDS = 3;
+  public static final int MAX_BOARD_CARDS = 5;
+
+  private static final int HOLE_CARDS_USED = 2;
+  private static final int BOARD_CARDS_USED = 3;
+  private static final int RANK_COUNT_BITS = 3;
+  private static final long SUIT_MASK = HandRanks.RANK_MASK;
+  private static final int[][] HOLE_PAIRS = combinations(HOLE_CARDS, HOLE_CARDS_USED);
+  private static final int[][][] BOARD_TRIPLES = new int[MAX_BOARD_CARDS + 1][][];
+
+  static {
+    for (int boardCards = MIN_BOARD_CARDS; boardCards <= MAX_BOARD_CARDS; boardCards++) {
+      BOARD_TRIPLES[boardCards] = combinations(boardCards, BOARD_CARDS_USED);
+    }
+  }
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+  //  Working buffers reused between calls, so an instance must not be shared between threads.
+  //  Keep one per thread, e.g. in a ThreadLocal or a worker's own state.
+  private final long[] holeCards = new long[HOLE_CARDS];
+  private final long[] boardCards = new long[MAX_BOARD_CARDS];
+  private final long[] pairs = new long[HOLE_PAIRS.length];
+  private final long[] boards = new long[BOARD_TRIPLES[MAX_BOARD_CARDS].length];
+  private final long[] keys = new long[BOARD_TRIPLES[MAX_BOARD_CARDS].length];
+  private long bestHand;
+
+  private static int[][] combinations(final int n, final int k) {
+    int count = 1;
+    for (int i = 0; i < k; i++) {
+      count = count * (n - i) / (i + 1);
+    }
+    final int[][] result = new int[count][k];
+    final int[] current = new int[k];
+    for (int i = 0; i < k; i++) {
+      current[i] = i;
+    }
+    for (int combination = 0; combination < count; combination++) {
+      System.arraycopy(current, 0, result[combination], 0, k);
+      int position = k - 1;
+      while (position >= 0 && current[position] == n - k + position) {
+        --position;
+      }
+      if (position >= 0) {
+        ++current[position];
+        for (int i = position + 1; i < k; i++) {
+          current[i] = current[i - 1] + 1;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void split(final long mask, final long[] cards) {
+    long remaining = mask;
+    for (int i = 0; remaining != 0; i++) {
+      cards[i] = Long.lowestOneBit(remaining);
+      remaining &= remaining - 1;
+    }
+  }
+
+  private static long rankKey(final long cards) {
+    //  A count per rank, equal for any two sets of cards that only differ by suits.
+    long key = 0L;
+    for (long remaining = cards; remaining != 0; remaining &= remaining - 1) {
+      key += 1L << (Long.numberOfTrailingZeros(remaining) % HandRanks.RANKS * RANK_COUNT_BITS);
+    }
+    return key;
+  }
+
+  private static boolean isFlushPossible(final long holeCardMask, final long boardMask) {
+    for (int suit = 0; suit < HandRanks.SUITS; suit++) {
+      final int shift = suit * HandRanks.RANKS;
+      if (Long.bitCount(holeCardMask >>> shift & SUIT_MASK) >= HOLE_CARDS_USED
+          && Long.bitCount(boardMask >>> shift & SUIT_MASK) >= BOARD_CARDS_USED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int unique(final long[] masks, final int count, final boolean byRank,
+      final long[] keys) {
+    //  Moves one mask per distinct rank multiset to the front and returns how many there are.
+    if (!byRank) {
+      return count;
+    }
+    int unique = 0;
+    for (int i = 0; i < count; i++) {
+      final long key = rankKey(masks[i]);
+      boolean seen = false;
+      for (int j = 0; j < unique && !seen; j++) {
+        seen = keys[j] == key;
+      }
+      if (!seen) {
+        keys[unique] = key;
+        masks[unique++] = masks[i];
+      }
+    }
+    return unique;
+  }
+
+  private static void check(final long holeCardMask, final long boardMask) {
+    if (CardMask.size(holeCardMask) != HOLE_CARDS) {
+      throw new IllegalArgumentException("An Omaha player holds exactly " + HOLE_CARDS + " cards");
+    }
+    final int boardCards = CardMask.size(boardMask);
+    if (boardCards < MIN_BOARD_CARDS || boardCards > MAX_BOARD_CARDS) {
+      throw new IllegalArgumentException("A board holds between " + MIN_BOARD_CARDS + " and "
+          + MAX_BOARD_CARDS + " cards");
+    }
+    if ((holeCardMask & boardMask) != 0
+        || ((holeCardMask | boardMask) & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("The hole cards and the board need distinct cards");
+    }
+  }
+
+  private int search(final long holeCardMask, final long boardMask) {
+    //  Returns the best rank and leaves the five cards that make it in bestHand.
+    check(holeCardMask, boardMask);
+    final int boardCardCount = CardMask.size(boardMask);
+    split(holeCardMask, this.holeCards);
+    split(boardMask, this.boardCards);
+
+    final int[][] triples = BOARD_TRIPLES[boardCardCount];
+    for (int i = 0; i < HOLE_PAIRS.length; i++) {
+      this.pairs[i] = this.holeCards[HOLE_PAIRS[i][0]] | this.holeCards[HOLE_PAIRS[i][1]];
+    }
+    for (int i = 0; i < triples.length; i++) {
+      this.boards[i] = this.boardCards[triples[i][0]] | this.boardCards[triples[i][1]]
+          | this.boardCards[triples[i][2]];
+    }
+
+    final boolean byRank = !isFlushPossible(holeCardMask, boardMask);
+    final int pairCount = unique(this.pairs, HOLE_PAIRS.length, byRank, this.keys);
+    final int boardCount = unique(this.boards, triples.length, byRank, this.keys);
+    int bestRank = 0;
+    long bestHand = CardMask.EMPTY;
+    for (int pair = 0; pair < pairCount; pair++) {
+      for (int board = 0; board < boardCount; board++) {
+        final long hand = this.pairs[pair] | this.boards[board];
+        final int rank = this.evaluator.rank(hand);
+        if (rank > bestRank) {
+          bestRank = rank;
+          bestHand = hand;
+        }
+      }
+    }
+    this.bestHand = bestHand;
+    return bestRank;
+  }
+
+  public int rank(final long holeCardMask, final long boardMask) {
+    return this.search(holeCardMask, boardMask);
+  }
+
+  public int rank(final Card[] holeCards, final Card[] board) {
+    return this.rank(CardMask.of(holeCards), CardMask.of(board));
+  }
+
+  public long getBestHand(final long holeCardMask, final long boardMask) {
+    //  The five cards that make the hand, two from the hole and three from the board.
+    this.search(holeCardMask, boardMask);
+    return this.bestHand;
+  }
+
+  public HandOutcome calculate(final Card[] holeCards, final Card[] board) {
+    final HandOutcome handOutcome = new HandOutcome();
+    this.calculate(CardMask.of(holeCards), CardMask.of(board), handOutcome);
+    return handOutcome;
+  }
+
+  public void calculate(final long holeCardMask, final long boardMask, final HandOutcome result) {
+    final int rank = this.search(holeCardMask, boardMask);
+    result.update(rank, this.bestHand);
+  }
+}
@@ -0,0 +1,83 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class OutsAnalyzer {
+
+  private static final int HOLE_CARDS = 2;
+  private static final int MIN_BOARD_CARDS = 3;
+  private static final int MAX_BOARD_CARDS = 4;
+  //  A rank shifted this far keeps the category and the rank that leads it: the pair, the top of
+  //  the straight or the highest flush card.
+  private static final int PRIMARY_SHIFT = HandRanks.CATEGORY_SHIFT - HandRanks.RANK_BITS;
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+
+  public OutsResult analyze(final Card[] holeCards, final Card[] board) {
+    return this.analyze(CardMask.of(holeCards), CardMask.of(board), CardMask.EMPTY);
+  }
+
+  public OutsResult analyze(final Card[] holeCards, final Card[] board,
+      final Card[] opponentHoleCards) {
+    return this.analyze(CardMask.of(holeCards), CardMask.of(board),
+        CardMask.of(opponentHoleCards));
+  }
+
+  public OutsResult analyze(final long holeCardMask, final long boardMask,
+      final long opponentHoleCardMask) {
+    final OutsResult result = new OutsResult();
+    this.analyze(holeCardMask, boardMask, opponentHoleCardMask, result);
+    return result;
+  }
+
+  public void analyze(final long holeCardMask, final long boardMask,
+      final long opponentHoleCardMask, final OutsResult result) {
+    //  An empty opponent mask analyzes the hand on its own.
+    if (CardMask.size(holeCardMask) != HOLE_CARDS) {
+      throw new IllegalArgumentException("A player holds exactly " + HOLE_CARDS + " cards");
+    }
+    final int boardCards = CardMask.size(boardMask);
+    if (boardCards < MIN_BOARD_CARDS || boardCards > MAX_BOARD_CARDS) {
+      throw new IllegalArgumentException("Outs are counted on the flop or the turn");
+    }
+    final boolean opponent = opponentHoleCardMask != CardMask.EMPTY;
+    if (opponent && CardMask.size(opponentHoleCardMask) != HOLE_CARDS) {
+      throw new IllegalArgumentException("An opponent holds exactly " + HOLE_CARDS + " cards");
+    }
+    final long usedCards = holeCardMask | boardMask | opponentHoleCardMask;
+    if (CardMask.size(usedCards) != CardMask.size(holeCardMask) + boardCards
+        + CardMask.size(opponentHoleCardMask) || (usedCards & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("The hands and the board need distinct cards");
+    }
+
+    final long hand = holeCardMask | boardMask;
+    final long opponentHand = opponentHoleCardMask | boardMask;
+    final int strength = this.evaluator.rank(hand);
+    final int category = strength >>> HandRanks.CATEGORY_SHIFT;
+    final long unseenCards = CardMask.FULL_DECK & ~usedCards;
+    result.reset(holeCardMask, boardMask, opponentHoleCardMask, unseenCards, strength,
+        opponent ? this.evaluator.rank(opponentHand) : 0);
+
+    //  Two lookups per unseen card, and a third one when there is an opponent to beat. A card
+    //  is only an out when the hand ends up above what the board and that card make alone, in
+    //  category or in the rank that leads it, so pairing the board is not an out for a hand that
+    //  does not use it, while a hole card that tops a straight on the board is.
+    for (long cards = unseenCards; cards != 0; cards &= cards - 1) {
+      final long card = cards & -cards;
+      final int next = this.evaluator.rank(hand | card);
+      if (next >>> HandRanks.CATEGORY_SHIFT > category
+          && next >>> PRIMARY_SHIFT > this.evaluator.rank(boardMask | card) >>> PRIMARY_SHIFT) {
+        result.addOut(HandRanks.getHandName(next), card);
+      }
+      if (opponent) {
+        final int opponentNext = this.evaluator.rank(opponentHand | card);
+        if (next > opponentNext) {
+          result.addWinningCard(card);
+        } else if (next == opponentNext) {
+          result.addTyingCard(card);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class OutsResult {
+
+  private static final int FLOP_CARDS = 3;
+
+  private final long[] outs = new long[HandName.values().length];
+  private long holeCardMask;
+  private long boardMask;
+  private long opponentHoleCardMask;
+  private long unseenCards;
+  private int strength;
+  private int opponentStrength;
+  private long winningCards;
+  private long tyingCards;
+
+  public OutsResult() {
+
+  }
+
+  void reset(final long holeCardMask, final long boardMask, final long opponentHoleCardMask,
+      final long unseenCards, final int strength, final int opponentStrength) {
+    Arrays.fill(this.outs, CardMask.EMPTY);
+    this.holeCardMask = holeCardMask;
+    this.boardMask = boardMask;
+    this.opponentHoleCardMask = opponentHoleCardMask;
+    this.unseenCards = unseenCards;
+    this.strength = strength;
+    this.opponentStrength = opponentStrength;
+    this.winningCards = CardMask.EMPTY;
+    this.tyingCards = CardMask.EMPTY;
+  }
+
+  void addOut(final HandName handName, final long card) {
+    this.outs[handName.ordinal()] |= card;
+  }
+
+  void addWinningCard(final long card) {
+    this.winningCards |= card;
+  }
+
+  void addTyingCard(final long card) {
+    this.tyingCards |= card;
+  }
+
+  public long getHoleCardMask() {
+    return holeCardMask;
+  }
+
+  public long getBoardMask() {
+    return boardMask;
+  }
+
+  public int getStrength() {
+    return strength;
+  }
+
+  public HandName getHandName() {
+    return HandRanks.getHandName(this.strength);
+  }
+
+  public long getUnseenCards() {
+    return unseenCards;
+  }
+
+  public int getUnseenCardCount() {
+    return CardMask.size(this.unseenCards);
+  }
+
+  public long getOuts() {
+    //  Every card that lifts the hand into a better category than it holds now.
+    long outs = CardMask.EMPTY;
+    for (final long cards : this.outs) {
+      outs |= cards;
+    }
+    return outs;
+  }
+
+  public long getOuts(final HandName handName) {
+    return this.outs[handName.ordinal()];
+  }
+
+  public int getOutCount() {
+    return CardMask.size(this.getOuts());
+  }
+
+  public int getOutCount(final HandName handName) {
+    return CardMask.size(this.outs[handName.ordinal()]);
+  }
+
+  public boolean hasOpponent() {
+    return this.opponentHoleCardMask != CardMask.EMPTY;
+  }
+
+  public long getOpponentHoleCardMask() {
+    return opponentHoleCardMask;
+  }
+
+  public int getOpponentStrength() {
+    return opponentStrength;
+  }
+
+  public long getWinningCards() {
+    return winningCards;
+  }
+
+  public long getTyingCards() {
+    return tyingCards;
+  }
+
+  public long getLosingCards() {
+    if (!this.hasOpponent()) {
+      return CardMask.EMPTY;
+    }
+    return this.unseenCards & ~(this.winningCards | this.tyingCards);
+  }
+
+  public double getProbability(final long cards) {
+    //  The chance that the next card is one of the given cards.
+    return (double) CardMask.size(cards & this.unseenCards) / this.getUnseenCardCount();
+  }
+
+  public double getProbabilityByRiver(final long cards) {
+    //  The chance that at least one of the given cards comes by the river. On the flop this
+    //  counts a single out among the two cards to come, not runner-runner draws.
+    if (CardMask.size(this.boardMask) != FLOP_CARDS) {
+      return this.getProbability(cards);
+    }
+    final double unseen = this.getUnseenCardCount();
+    final double misses = unseen - CardMask.size(cards & this.unseenCards);
+    return 1.0 - misses * (misses - 1) / (unseen * (unseen - 1));
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("OutsResult{handName=")
+        .append(this.getHandName());
+    for (final HandName handName : HandName.values()) {
+      if (this.outs[handName.ordinal()] != CardMask.EMPTY) {
+        builder.append(", ").append(handName).append('=')
+            .append(CardMask.toString(this.outs[handName.ordinal()]));
+      }
+    }
+    if (this.hasOpponent()) {
+      builder.append(", winningCards=").append(CardMask.toString(this.winningCards))
+          .append(", tyingCards=").append(CardMask.toString(this.tyingCards));
+    }
+    return builder.append('}').toString();
+  }
+}
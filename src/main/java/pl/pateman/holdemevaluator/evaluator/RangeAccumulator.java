@@ -0,0 +1,40 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+final class RangeAccumulator {
+
+  //  Row-major hero x villain matrices, one pair per worker thread. Equity is kept in half
+  //  points (2 per win, 1 per tie), so that partial results add up exactly whatever the order
+  //  they are merged in, and in longs, which no number of runouts overflows.
+  private final long[] halfPoints;
+  private final long[] trials;
+  private long runouts;
+
+  RangeAccumulator(final int cells) {
+    this.halfPoints = new long[cells];
+    this.trials = new long[cells];
+  }
+
+  void merge(final RangeAccumulator other) {
+    for (int cell = 0; cell < this.halfPoints.length; cell++) {
+      this.halfPoints[cell] += other.halfPoints[cell];
+      this.trials[cell] += other.trials[cell];
+    }
+    this.runouts += other.runouts;
+  }
+
+  void addRunout() {
+    ++this.runouts;
+  }
+
+  long[] getHalfPoints() {
+    return halfPoints;
+  }
+
+  long[] getTrials() {
+    return trials;
+  }
+
+  long getRunouts() {
+    return runouts;
+  }
+}
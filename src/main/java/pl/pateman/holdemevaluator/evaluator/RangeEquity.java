@@ -0,0 +1,376 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandRange;
+import pl.pateman.holdemevaluator.metrics.EvaluatorMetrics;
+
+public final class RangeEquity {
+
+  public static final long DEFAULT_EXACT_RUNOUT_LIMIT = 20_000L;
+  public static final int DEFAULT_SAMPLED_RUNOUTS = 2_000;
+
+  private static final int BOARD_CARDS = 5;
+  private static final int DEAD = 0;
+  private static final int RUNOUTS_PER_CHUNK = 32;
+  private static final int TASKS_PER_THREAD = 4;
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+  private final long exactRunoutLimit;
+  private final int sampledRunouts;
+  private final long seed;
+  private final ForkJoinPool pool;
+
+  public RangeEquity() {
+    this(DEFAULT_EXACT_RUNOUT_LIMIT, DEFAULT_SAMPLED_RUNOUTS, 0L);
+  }
+
+  public RangeEquity(final long exactRunoutLimit, final int sampledRunouts, final long seed) {
+    this(exactRunoutLimit, sampledRunouts, seed, ForkJoinPool.commonPool());
+  }
+
+  public RangeEquity(final long exactRunoutLimit, final int sampledRunouts, final long seed,
+      final ForkJoinPool pool) {
+    this.exactRunoutLimit = exactRunoutLimit;
+    this.sampledRunouts = sampledRunouts;
+    this.seed = seed;
+    this.pool = pool;
+  }
+
+  private static long binomial(final int n, final int k) {
+    long result = 1L;
+    for (int i = 0; i < k; i++) {
+      result = result * (n - i) / (i + 1);
+    }
+    return result;
+  }
+
+  private static void unrank(final long index, final int[] positions) {
+    //  Colex order: the last position holds the largest c with C(c, k) <= index, and so on.
+    long remaining = index;
+    int limit = Card.COUNT;
+    for (int k = positions.length; k >= 1; k--) {
+      int position = limit - 1;
+      while (binomial(position, k) > remaining) {
+        --position;
+      }
+      positions[k - 1] = position;
+      remaining -= binomial(position, k);
+      limit = position;
+    }
+  }
+
+  private static void next(final int[] positions) {
+    for (int i = 0; i < positions.length; i++) {
+      if (i + 1 == positions.length || positions[i] + 1 < positions[i + 1]) {
+        ++positions[i];
+        for (int j = 0; j < i; j++) {
+          positions[j] = j;
+        }
+        return;
+      }
+    }
+  }
+
+  private int unitsPerTask(final long units) {
+    final int parallelism = this.pool == null ? 1 : this.pool.getParallelism();
+    return (int) Math.max(1L, units / ((long) parallelism * TASKS_PER_THREAD));
+  }
+
+  private RangeAccumulator run(final RangeTask task) {
+    if (this.pool == null) {
+      task.compute();
+    } else {
+      this.pool.invoke(task);
+    }
+    RangeAccumulator total = null;
+    for (final RangeAccumulator accumulator : task.matchup.accumulators.values()) {
+      if (total == null) {
+        total = accumulator;
+      } else {
+        total.merge(accumulator);
+      }
+    }
+    return total;
+  }
+
+  public RangeEquityResult calculate(final HandRange heroRange, final HandRange villainRange) {
+    return this.calculate(heroRange, villainRange, CardMask.EMPTY);
+  }
+
+  public RangeEquityResult calculate(final HandRange heroRange, final HandRange villainRange,
+      final long boardMask) {
+    final int boardCards = CardMask.size(boardMask);
+    if (boardCards > BOARD_CARDS) {
+      throw new IllegalArgumentException("A board holds at most " + BOARD_CARDS + " cards");
+    }
+    final HandRange hero = heroRange.without(boardMask);
+    final HandRange villain = villainRange.without(boardMask);
+    if (hero.size() == 0 || villain.size() == 0) {
+      throw new IllegalArgumentException("Both ranges need a combo the board does not block");
+    }
+
+    final long start = EvaluatorMetrics.ENABLED ? System.nanoTime() : 0L;
+    final int missingCards = BOARD_CARDS - boardCards;
+    final int[] deck = new int[Card.COUNT];
+    final int deckSize = CardMask.toIndices(CardMask.FULL_DECK & ~boardMask, deck);
+    final long runouts = binomial(deckSize, missingCards);
+    final boolean exact = runouts <= this.exactRunoutLimit;
+    final Matchup matchup = new Matchup(hero, villain, boardMask, deck, missingCards);
+
+    final RangeAccumulator accumulator;
+    if (exact) {
+      accumulator = this.run(new ExactTask(matchup, 0, runouts, this.unitsPerTask(runouts)));
+    } else {
+      //  As in EquityCalculator, every chunk of runouts has a seed of its own, so the result
+      //  only depends on the seed and not on the pool.
+      final SplittableRandom random = new SplittableRandom(this.seed);
+      final long[] chunkSeeds = new long[
+          (this.sampledRunouts + RUNOUTS_PER_CHUNK - 1) / RUNOUTS_PER_CHUNK];
+      for (int chunk = 0; chunk < chunkSeeds.length; chunk++) {
+        chunkSeeds[chunk] = random.nextLong();
+      }
+      accumulator = this.run(new SampleTask(matchup, chunkSeeds, 0, chunkSeeds.length,
+          this.unitsPerTask(chunkSeeds.length)));
+    }
+
+    final RangeEquityResult result = new RangeEquityResult(hero, villain, exact,
+        accumulator.getRunouts(), accumulator.getHalfPoints(), accumulator.getTrials());
+    if (result.getTrials() == 0) {
+      throw new IllegalArgumentException("The ranges cannot be dealt without collisions");
+    }
+    if (EvaluatorMetrics.ENABLED) {
+      EvaluatorMetrics.getInstance().recordEquity(result.getTrials(), System.nanoTime() - start);
+    }
+    return result;
+  }
+
+  private static final class Matchup {
+
+    //  Both ranges are ranked through one list of distinct combos, so a combo that appears in
+    //  both of them costs a single evaluation per runout.
+    private final long[] heroCombos;
+    private final long[] villainCombos;
+    private final long[] unionCombos;
+    private final int[] heroToUnion;
+    private final int[] villainToUnion;
+    private final long boardMask;
+    private final int[] deck;
+    private final int missingCards;
+    //  The matrices of each thread that ran a leaf. A thread runs one leaf at a time and leaves
+    //  never join, so a thread's matrices are only ever touched by that thread.
+    private final ConcurrentMap<Thread, RangeAccumulator> accumulators =
+        new ConcurrentHashMap<>();
+
+    Matchup(final HandRange hero, final HandRange villain, final long boardMask, final int[] deck,
+        final int missingCards) {
+      this.heroCombos = hero.getCombos();
+      this.villainCombos = villain.getCombos();
+      this.heroToUnion = new int[this.heroCombos.length];
+      this.villainToUnion = new int[this.villainCombos.length];
+      this.boardMask = boardMask;
+      this.deck = deck;
+      this.missingCards = missingCards;
+
+      final long[] union = new long[this.heroCombos.length + this.villainCombos.length];
+      int size = 0;
+      int h = 0;
+      int v = 0;
+      while (h < this.heroCombos.length || v < this.villainCombos.length) {
+        final long heroCombo = h < this.heroCombos.length ? this.heroCombos[h] : Long.MAX_VALUE;
+        final long villainCombo =
+            v < this.villainCombos.length ? this.villainCombos[v] : Long.MAX_VALUE;
+        union[size] = Math.min(heroCombo, villainCombo);
+        if (heroCombo == union[size]) {
+          this.heroToUnion[h++] = size;
+        }
+        if (villainCombo == union[size]) {
+          this.villainToUnion[v++] = size;
+        }
+        ++size;
+      }
+      this.unionCombos = Arrays.copyOf(union, size);
+    }
+
+    RangeAccumulator accumulator() {
+      return this.accumulators.computeIfAbsent(Thread.currentThread(),
+          thread -> new RangeAccumulator(this.heroCombos.length * this.villainCombos.length));
+    }
+  }
+
+  private abstract class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    final Matchup matchup;
+    final long from;
+    final long to;
+    final int unitsPerTask;
+
+    RangeTask(final Matchup matchup, final long from, final long to, final int unitsPerTask) {
+      this.matchup = matchup;
+      this.from = from;
+      this.to = to;
+      this.unitsPerTask = unitsPerTask;
+    }
+
+    abstract RangeTask subtask(long from, long to);
+
+    abstract void computeUnits(Scratch scratch, RangeAccumulator accumulator);
+
+    void evaluateRunout(final long runout, final Scratch scratch,
+        final RangeAccumulator accumulator) {
+      final Matchup m = this.matchup;
+      final int[] unionRanks = scratch.unionRanks;
+      for (int u = 0; u < m.unionCombos.length; u++) {
+        final long combo = m.unionCombos[u];
+        unionRanks[u] = (combo & runout) != 0 ? DEAD : evaluator.rank(runout | combo);
+      }
+
+      int alive = 0;
+      for (int column = 0; column < m.villainCombos.length; column++) {
+        final int rank = unionRanks[m.villainToUnion[column]];
+        if (rank != DEAD) {
+          scratch.aliveColumns[alive] = column;
+          scratch.aliveRanks[alive] = rank;
+          scratch.aliveCombos[alive] = m.villainCombos[column];
+          ++alive;
+        }
+      }
+
+      //  The showdowns themselves are a compare per pair of combos that do not share a card.
+      final long[] halfPoints = accumulator.getHalfPoints();
+      final long[] trials = accumulator.getTrials();
+      for (int row = 0; row < m.heroCombos.length; row++) {
+        final int rank = unionRanks[m.heroToUnion[row]];
+        if (rank == DEAD) {
+          continue;
+        }
+        final long combo = m.heroCombos[row];
+        final int rowStart = row * m.villainCombos.length;
+        for (int k = 0; k < alive; k++) {
+          if ((scratch.aliveCombos[k] & combo) == 0) {
+            final int cell = rowStart + scratch.aliveColumns[k];
+            halfPoints[cell] += Integer.signum(rank - scratch.aliveRanks[k]) + 1;
+            ++trials[cell];
+          }
+        }
+      }
+      accumulator.addRunout();
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= this.unitsPerTask) {
+        this.computeUnits(new Scratch(this.matchup), this.matchup.accumulator());
+        return;
+      }
+
+      final long middle = (this.from + this.to) >>> 1;
+      final RangeTask left = this.subtask(this.from, middle);
+      final RangeTask right = this.subtask(middle, this.to);
+      if (pool == null) {
+        left.compute();
+        right.compute();
+      } else {
+        left.fork();
+        right.compute();
+        left.join();
+      }
+    }
+  }
+
+  private static final class Scratch {
+
+    private final int[] unionRanks;
+    private final int[] aliveColumns;
+    private final int[] aliveRanks;
+    private final long[] aliveCombos;
+    private final int[] positions;
+
+    Scratch(final Matchup matchup) {
+      this.unionRanks = new int[matchup.unionCombos.length];
+      this.aliveColumns = new int[matchup.villainCombos.length];
+      this.aliveRanks = new int[matchup.villainCombos.length];
+      this.aliveCombos = new long[matchup.villainCombos.length];
+      this.positions = new int[matchup.missingCards];
+    }
+  }
+
+  private final class ExactTask extends RangeTask {
+
+    private static final long serialVersionUID = 1L;
+
+    ExactTask(final Matchup matchup, final long from, final long to, final int unitsPerTask) {
+      super(matchup, from, to, unitsPerTask);
+    }
+
+    @Override
+    RangeTask subtask(final long from, final long to) {
+      return new ExactTask(this.matchup, from, to, this.unitsPerTask);
+    }
+
+    @Override
+    void computeUnits(final Scratch scratch, final RangeAccumulator accumulator) {
+      //  A unit is a single runout, numbered in colex order over the cards left in the deck.
+      final int[] positions = scratch.positions;
+      unrank(this.from, positions);
+      for (long unit = this.from; unit < this.to; unit++) {
+        long runout = this.matchup.boardMask;
+        for (final int position : positions) {
+          runout |= 1L << this.matchup.deck[position];
+        }
+        this.evaluateRunout(runout, scratch, accumulator);
+        next(positions);
+      }
+    }
+  }
+
+  private final class SampleTask extends RangeTask {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long[] chunkSeeds;
+
+    SampleTask(final Matchup matchup, final long[] chunkSeeds, final long from, final long to,
+        final int unitsPerTask) {
+      super(matchup, from, to, unitsPerTask);
+      this.chunkSeeds = chunkSeeds;
+    }
+
+    @Override
+    RangeTask subtask(final long from, final long to) {
+      return new SampleTask(this.matchup, this.chunkSeeds, from, to, this.unitsPerTask);
+    }
+
+    @Override
+    void computeUnits(final Scratch scratch, final RangeAccumulator accumulator) {
+      //  Runouts are drawn from the deck without the board only. A pair of combos then counts
+      //  the runouts that miss both of them, which is exactly the card removal they impose.
+      final int[] deck = this.matchup.deck;
+      final int deckSize = Card.COUNT - CardMask.size(this.matchup.boardMask);
+      for (int chunk = (int) this.from; chunk < this.to; chunk++) {
+        final SplittableRandom random = new SplittableRandom(this.chunkSeeds[chunk]);
+        final int runouts =
+            Math.min(RUNOUTS_PER_CHUNK, sampledRunouts - chunk * RUNOUTS_PER_CHUNK);
+        for (int i = 0; i < runouts; i++) {
+          long runout = this.matchup.boardMask;
+          for (int card = 0; card < this.matchup.missingCards; card++) {
+            long drawn;
+            do {
+              drawn = 1L << deck[random.nextInt(deckSize)];
+            } while ((runout & drawn) != 0);
+            runout |= drawn;
+          }
+          this.evaluateRunout(runout, scratch, accumulator);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.HandRange;
+
+public final class RangeEquityResult {
+
+  private final HandRange heroRange;
+  private final HandRange villainRange;
+  private final boolean exact;
+  private final long runouts;
+  private final long[] halfPoints;
+  private final long[] trials;
+
+  RangeEquityResult(final HandRange heroRange, final HandRange villainRange, final boolean exact,
+      final long runouts, final long[] halfPoints, final long[] trials) {
+    this.heroRange = heroRange;
+    this.villainRange = villainRange;
+    this.exact = exact;
+    this.runouts = runouts;
+    this.halfPoints = halfPoints;
+    this.trials = trials;
+  }
+
+  private static double equity(final long halfPoints, final long trials) {
+    return trials == 0 ? Double.NaN : halfPoints / (2.0 * trials);
+  }
+
+  private int cell(final int heroCombo, final int villainCombo) {
+    return heroCombo * this.villainRange.size() + villainCombo;
+  }
+
+  public boolean isExact() {
+    return exact;
+  }
+
+  public long getRunouts() {
+    return runouts;
+  }
+
+  public HandRange getHeroRange() {
+    return heroRange;
+  }
+
+  public HandRange getVillainRange() {
+    return villainRange;
+  }
+
+  public long getTrials() {
+    long total = 0L;
+    for (final long cellTrials : this.trials) {
+      total += cellTrials;
+    }
+    return total;
+  }
+
+  public long getTrials(final int heroCombo, final int villainCombo) {
+    return this.trials[this.cell(heroCombo, villainCombo)];
+  }
+
+  public double getEquity() {
+    long total = 0L;
+    for (final long cellHalfPoints : this.halfPoints) {
+      total += cellHalfPoints;
+    }
+    return equity(total, this.getTrials());
+  }
+
+  public double getEquity(final int heroCombo, final int villainCombo) {
+    //  NaN for combos that share a card and so never meet.
+    final int cell = this.cell(heroCombo, villainCombo);
+    return equity(this.halfPoints[cell], this.trials[cell]);
+  }
+
+  public double getHeroComboEquity(final int heroCombo) {
+    long rowHalfPoints = 0L;
+    long rowTrials = 0L;
+    for (int villainCombo = 0; villainCombo < this.villainRange.size(); villainCombo++) {
+      final int cell = this.cell(heroCombo, villainCombo);
+      rowHalfPoints += this.halfPoints[cell];
+      rowTrials += this.trials[cell];
+    }
+    return equity(rowHalfPoints, rowTrials);
+  }
+
+  public double getVillainComboEquity(final int villainCombo) {
+    long columnHalfPoints = 0L;
+    long columnTrials = 0L;
+    for (int heroCombo = 0; heroCombo < this.heroRange.size(); heroCombo++) {
+      final int cell = this.cell(heroCombo, villainCombo);
+      columnHalfPoints += 2 * this.trials[cell] - this.halfPoints[cell];
+      columnTrials += this.trials[cell];
+    }
+    return equity(columnHalfPoints, columnTrials);
+  }
+
+  public double[][] getStartingHandEquity() {
+    //  Hero starting hand class x villain starting hand class, see HandRange. Classes missing
+    //  from either range are NaN.
+    final long[][] classHalfPoints =
+        new long[HandRange.STARTING_HAND_CLASSES][HandRange.STARTING_HAND_CLASSES];
+    final long[][] classTrials =
+        new long[HandRange.STARTING_HAND_CLASSES][HandRange.STARTING_HAND_CLASSES];
+    final int[] villainClasses = new int[this.villainRange.size()];
+    for (int villainCombo = 0; villainCombo < villainClasses.length; villainCombo++) {
+      villainClasses[villainCombo] = this.villainRange.getStartingHandClass(villainCombo);
+    }
+    for (int heroCombo = 0; heroCombo < this.heroRange.size(); heroCombo++) {
+      final int heroClass = this.heroRange.getStartingHandClass(heroCombo);
+      for (int villainCombo = 0; villainCombo < villainClasses.length; villainCombo++) {
+        final int cell = this.cell(heroCombo, villainCombo);
+        classHalfPoints[heroClass][villainClasses[villainCombo]] += this.halfPoints[cell];
+        classTrials[heroClass][villainClasses[villainCombo]] += this.trials[cell];
+      }
+    }
+
+    final double[][] matrix =
+        new double[HandRange.STARTING_HAND_CLASSES][HandRange.STARTING_HAND_CLASSES];
+    for (int heroClass = 0; heroClass < matrix.length; heroClass++) {
+      for (int villainClass = 0; villainClass < matrix.length; villainClass++) {
+        matrix[heroClass][villainClass] =
+            equity(classHalfPoints[heroClass][villainClass], classTrials[heroClass][villainClass]);
+      }
+    }
+    return matrix;
+  }
+
+  @Override
+  public String toString() {
+    return "RangeEquityResult{" +
+        "exact=" + exact +
+        ", runouts=" + runouts +
+        ", equity=" + this.getEquity() +
+        ", heroCombos=" + heroRange.size() +
+        ", villainCombos=" + villainRange.size() +
+        '}';
+  }
+}
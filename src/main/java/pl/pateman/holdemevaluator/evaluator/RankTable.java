@@ -0,0 +1,235 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class RankTable {
+
+  //  File layout, big-endian: magic, version, card count, class count, entry count, the packed
+  //  rank of every class in ascending order, then one class index (a short) per combination of
+  //  cards, in colex order. 7 cards take C(52, 7) * 2 bytes, roughly 268 MB.
+  static final int MAGIC = 0x48455254;
+  static final int VERSION = 1;
+  static final int MIN_CARDS = 5;
+  static final int MAX_CARDS = 7;
+  static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+
+  private static final int ENTRY_BYTES = Short.BYTES;
+  private static final int WRITE_BUFFER_BYTES = 1 << 20;
+  private static final int[][] BINOMIALS = new int[Card.COUNT + 1][MAX_CARDS + 1];
+
+  static {
+    for (int n = 0; n <= Card.COUNT; n++) {
+      BINOMIALS[n][0] = 1;
+      for (int k = 1; k <= Math.min(n, MAX_CARDS); k++) {
+        BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + (k < n ? BINOMIALS[n - 1][k] : 0);
+      }
+    }
+  }
+
+  private final int cardCount;
+  private final int[] classRanks;
+  private final MappedByteBuffer entries;
+
+  private RankTable(final int cardCount, final int[] classRanks, final MappedByteBuffer entries) {
+    this.cardCount = cardCount;
+    this.classRanks = classRanks;
+    this.entries = entries;
+  }
+
+  private static void checkCardCount(final int cardCount) {
+    if (cardCount < MIN_CARDS || cardCount > MAX_CARDS) {
+      throw new IllegalArgumentException(
+          "Rank tables hold between " + MIN_CARDS + " and " + MAX_CARDS + " cards per hand");
+    }
+  }
+
+  static int combinations(final int cardCount) {
+    return BINOMIALS[Card.COUNT][cardCount];
+  }
+
+  static int indexOf(final long mask, final int cardCount) {
+    //  The colex rank of the combination: the sum of C(card, position + 1) over its sorted cards.
+    long remaining = mask;
+    int index = 0;
+    for (int position = 1; position <= cardCount; position++) {
+      index += BINOMIALS[Long.numberOfTrailingZeros(remaining)][position];
+      remaining &= remaining - 1;
+    }
+    return index;
+  }
+
+  private static int[] collectClassRanks(final FastHoldemEvaluator evaluator) {
+    //  Every hand of more than five cards plays as one of the five-card classes.
+    final BitSet seen = new BitSet();
+    final int[] cards = firstCombination(MIN_CARDS);
+    do {
+      seen.set(evaluator.rank(toMask(cards)));
+    } while (nextCombination(cards));
+
+    final int[] classRanks = new int[seen.cardinality()];
+    int classIndex = 0;
+    for (int rank = seen.nextSetBit(0); rank >= 0; rank = seen.nextSetBit(rank + 1)) {
+      classRanks[classIndex++] = rank;
+    }
+    return classRanks;
+  }
+
+  static short classIndex(final int[] classRanks, final int rank) {
+    //  A rank missing from the classes would otherwise go into the file as a negative index.
+    final int classIndex = Arrays.binarySearch(classRanks, rank);
+    if (classIndex < 0 || classIndex > Short.MAX_VALUE) {
+      throw new IllegalStateException(rank + " is not the rank of a five-card class");
+    }
+    return (short) classIndex;
+  }
+
+  private static int[] firstCombination(final int cardCount) {
+    final int[] cards = new int[cardCount];
+    for (int i = 0; i < cardCount; i++) {
+      cards[i] = i;
+    }
+    return cards;
+  }
+
+  private static boolean nextCombination(final int[] cards) {
+    //  Advances to the next combination in colex order, i.e. to the next table index.
+    for (int i = 0; i < cards.length; i++) {
+      final int limit = i + 1 < cards.length ? cards[i + 1] : Card.COUNT;
+      if (cards[i] + 1 < limit) {
+        ++cards[i];
+        for (int j = 0; j < i; j++) {
+          cards[j] = j;
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long toMask(final int[] cards) {
+    long mask = CardMask.EMPTY;
+    for (final int card : cards) {
+      mask |= 1L << card;
+    }
+    return mask;
+  }
+
+  private static void drain(final FileChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  public static void generate(final Path path, final int cardCount) throws IOException {
+    checkCardCount(cardCount);
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final int[] classRanks = collectClassRanks(evaluator);
+
+    //  Written next to the target and moved into place, so that readers never map a partial file.
+    final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(cardCount).putInt(classRanks.length)
+          .putLong(combinations(cardCount));
+      for (final int classRank : classRanks) {
+        if (!buffer.hasRemaining()) {
+          drain(channel, buffer);
+        }
+        buffer.putInt(classRank);
+      }
+
+      final int[] cards = firstCombination(cardCount);
+      do {
+        if (!buffer.hasRemaining()) {
+          drain(channel, buffer);
+        }
+        buffer.putShort(classIndex(classRanks, evaluator.rank(toMask(cards))));
+      } while (nextCombination(cards));
+      drain(channel, buffer);
+    }
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public static RankTable map(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0) {
+          throw new IOException(path + " is too short to be a rank table");
+        }
+      }
+      header.flip();
+
+      if (header.getInt() != MAGIC) {
+        throw new IOException(path + " is not a rank table");
+      }
+      final int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException(path + " has an unsupported rank table version " + version);
+      }
+      final int cardCount = header.getInt();
+      final int classCount = header.getInt();
+      final long entryCount = header.getLong();
+      if (cardCount < MIN_CARDS || cardCount > MAX_CARDS || entryCount != combinations(cardCount)
+          || classCount <= 0 || classCount > Short.MAX_VALUE) {
+        throw new IOException(path + " has a corrupted rank table header");
+      }
+      final long entriesOffset = HEADER_BYTES + (long) classCount * Integer.BYTES;
+      if (channel.size() != entriesOffset + entryCount * ENTRY_BYTES) {
+        throw new IOException(path + " does not match the size given in its header");
+      }
+
+      final ByteBuffer classes = channel
+          .map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, entriesOffset - HEADER_BYTES);
+      final int[] classRanks = new int[classCount];
+      classes.asIntBuffer().get(classRanks);
+
+      //  The mapping stays valid after the channel is closed. The pages are shared through the
+      //  page cache, so every process on the host reads the same copy.
+      final MappedByteBuffer entries = channel
+          .map(FileChannel.MapMode.READ_ONLY, entriesOffset, entryCount * ENTRY_BYTES);
+      return new RankTable(cardCount, classRanks, entries);
+    }
+  }
+
+  public int getCardCount() {
+    return cardCount;
+  }
+
+  public int getClassCount() {
+    return classRanks.length;
+  }
+
+  public int getClassIndex(final long mask) {
+    if (Long.bitCount(mask) != this.cardCount) {
+      throw new IllegalArgumentException(
+          "Expected " + this.cardCount + " cards, got " + Long.bitCount(mask));
+    }
+    //  Class indices are ordered by strength, so they compare like the ranks they stand for.
+    return this.entries.getShort(ENTRY_BYTES * indexOf(mask, this.cardCount));
+  }
+
+  public int rank(final long mask) {
+    return this.classRanks[this.getClassIndex(mask)];
+  }
+
+  public int rank(final Card[] holeCards, final Card[] table) {
+    return this.rank(CardMask.of(holeCards) | CardMask.of(table));
+  }
+}
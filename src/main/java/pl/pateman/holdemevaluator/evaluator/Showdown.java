@@ -0,0 +1,34 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+
+public final class Showdown {
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+
+  public ShowdownResult settle(final Card[] board, final Card[]... holeCards) {
+    final long[] holeCardMasks = new long[holeCards.length];
+    for (int player = 0; player < holeCards.length; player++) {
+      holeCardMasks[player] = CardMask.of(holeCards[player]);
+    }
+    return this.settle(CardMask.of(board), holeCardMasks);
+  }
+
+  public ShowdownResult settle(final long boardMask, final long... holeCardMasks) {
+    final int players = holeCardMasks.length;
+    final int[] strengths = new int[players];
+    long usedCards = boardMask;
+    for (int player = 0; player < players; player++) {
+      final long holeCardMask = holeCardMasks[player];
+      if ((usedCards & holeCardMask) != 0) {
+        throw new IllegalArgumentException(
+            "Player " + player + " holds a card that has already been dealt");
+      }
+      usedCards |= holeCardMask;
+      //  The board is shared, so each player costs a single lookup on top of it.
+      strengths[player] = this.evaluator.rank(boardMask | holeCardMask);
+    }
+    return new ShowdownResult(boardMask, holeCardMasks.clone(), strengths);
+  }
+}
@@ -0,0 +1,110 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class ShowdownResult {
+
+  private final long boardMask;
+  private final long[] holeCardMasks;
+  private final int[] strengths;
+  private final int[] places;
+  private final int[][] potGroups;
+
+  ShowdownResult(final long boardMask, final long[] holeCardMasks, final int[] strengths) {
+    this.boardMask = boardMask;
+    this.holeCardMasks = holeCardMasks;
+    this.strengths = strengths;
+
+    //  Insertion sort of the players by strength, strongest first. Tables are small.
+    final int players = strengths.length;
+    final int[] order = new int[players];
+    for (int i = 0; i < players; i++) {
+      int j = i;
+      while (j > 0 && strengths[order[j - 1]] < strengths[i]) {
+        order[j] = order[j - 1];
+        --j;
+      }
+      order[j] = i;
+    }
+
+    this.places = new int[players];
+    int groups = 0;
+    for (int i = 0; i < players; i++) {
+      if (i == 0 || strengths[order[i]] != strengths[order[i - 1]]) {
+        ++groups;
+      }
+      this.places[order[i]] = groups - 1;
+    }
+
+    this.potGroups = new int[groups][];
+    int start = 0;
+    for (int group = 0; group < groups; group++) {
+      int end = start;
+      while (end < players && this.places[order[end]] == group) {
+        ++end;
+      }
+      this.potGroups[group] = Arrays.copyOfRange(order, start, end);
+      start = end;
+    }
+  }
+
+  public static ShowdownResult of(final long boardMask, final long[] holeCardMasks,
+      final int[] strengths) {
+    //  Settles strengths ranked elsewhere, e.g. in one evaluateBatch call with other hands.
+    if (holeCardMasks.length != strengths.length) {
+      throw new IllegalArgumentException("Every player needs a strength");
+    }
+    return new ShowdownResult(boardMask, holeCardMasks.clone(), strengths.clone());
+  }
+
+  public int getPlayerCount() {
+    return strengths.length;
+  }
+
+  public int getStrength(final int player) {
+    return strengths[player];
+  }
+
+  public HandName getHandName(final int player) {
+    return HandRanks.getHandName(this.strengths[player]);
+  }
+
+  public HandOutcome getHandOutcome(final int player) {
+    final HandOutcome handOutcome = new HandOutcome();
+    handOutcome.update(this.strengths[player], this.boardMask | this.holeCardMasks[player]);
+    return handOutcome;
+  }
+
+  public int getPlace(final int player) {
+    return places[player];
+  }
+
+  public boolean isWinner(final int player) {
+    return this.places[player] == 0;
+  }
+
+  public int[] getWinners() {
+    return this.potGroups.length == 0 ? new int[0] : this.potGroups[0].clone();
+  }
+
+  public boolean isSplit() {
+    return this.potGroups.length > 0 && this.potGroups[0].length > 1;
+  }
+
+  public int getPotGroupCount() {
+    return potGroups.length;
+  }
+
+  public int[] getPotGroup(final int place) {
+    return this.potGroups[place].clone();
+  }
+
+  @Override
+  public String toString() {
+    return "ShowdownResult{" +
+        "strengths=" + Arrays.toString(strengths) +
+        ", potGroups=" + Arrays.deepToString(potGroups) +
+        '}';
+  }
+}
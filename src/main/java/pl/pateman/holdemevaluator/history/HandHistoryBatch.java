@@ -0,0 +1,168 @@
+package pl.pateman.holdemevaluator.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+final class HandHistoryBatch {
+
+  static final int INVALID = 0;
+
+  private static final int TYPICAL_RECORD_BYTES = 32;
+  private static final byte SEPARATOR = '|';
+  private static final byte NEW_LINE = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private final StringHandParser parser;
+  private final FastHoldemEvaluator evaluator;
+  private final byte[] buffer;
+  private final ByteBuffer readView;
+  private int[] recordStarts;
+  private int[] recordEnds;
+  private int[] recordLines;
+  private int[] ranks;
+  private final int[] cardIndices = new int[Card.COUNT];
+  private int length;
+  private int lines;
+  private int records;
+  private long firstLineNumber;
+  private int invalidRecords;
+
+  HandHistoryBatch(final StringHandParser parser, final FastHoldemEvaluator evaluator,
+      final int bufferBytes) {
+    this.parser = parser;
+    this.evaluator = evaluator;
+    this.buffer = new byte[bufferBytes];
+    this.readView = ByteBuffer.wrap(this.buffer);
+    //  Sized for typical records of a few dozen bytes, grown if a chunk holds shorter ones.
+    final int records = Math.max(1, bufferBytes / TYPICAL_RECORD_BYTES);
+    this.recordStarts = new int[records];
+    this.recordEnds = new int[records];
+    this.recordLines = new int[records];
+    this.ranks = new int[records];
+  }
+
+  byte[] getBuffer() {
+    return buffer;
+  }
+
+  ByteBuffer getReadView(final int from) {
+    this.readView.limit(this.buffer.length).position(from);
+    return this.readView;
+  }
+
+  private void addRecord(final int start, final int end) {
+    if (this.records == this.ranks.length) {
+      final int capacity = this.records * 2;
+      this.recordStarts = Arrays.copyOf(this.recordStarts, capacity);
+      this.recordEnds = Arrays.copyOf(this.recordEnds, capacity);
+      this.recordLines = Arrays.copyOf(this.recordLines, capacity);
+      this.ranks = Arrays.copyOf(this.ranks, capacity);
+    }
+    this.recordStarts[this.records] = start;
+    this.recordEnds[this.records] = end;
+    this.recordLines[this.records] = this.lines;
+    ++this.records;
+  }
+
+  void reset(final int length, final long firstLineNumber) {
+    this.length = length;
+    this.firstLineNumber = firstLineNumber;
+    this.lines = 0;
+    this.records = 0;
+    this.invalidRecords = 0;
+  }
+
+  static int lastNewLine(final byte[] bytes, final int from, final int to) {
+    for (int position = to - 1; position >= from; position--) {
+      if (bytes[position] == NEW_LINE) {
+        return position;
+      }
+    }
+    return -1;
+  }
+
+  void split() {
+    //  The buffer holds whole lines only, the last one may lack its new line at the end of input.
+    //  Blank lines are counted but produce no record.
+    int start = 0;
+    for (int position = 0; position <= this.length; position++) {
+      if (position == this.length || this.buffer[position] == NEW_LINE) {
+        int end = position;
+        if (end > start && this.buffer[end - 1] == CARRIAGE_RETURN) {
+          --end;
+        }
+        if (end > start) {
+          this.addRecord(start, end);
+        }
+        if (position < this.length) {
+          ++this.lines;
+        }
+        start = position + 1;
+      }
+    }
+  }
+
+  private long parseCards(final int from, final int to) {
+    final int result = this.parser.parse(this.buffer, from, to - from, this.cardIndices, 0);
+    if (StringHandParser.isError(result)) {
+      return -1L;
+    }
+    long mask = CardMask.EMPTY;
+    for (int i = 0; i < result; i++) {
+      mask |= 1L << this.cardIndices[i];
+    }
+    //  A card seen twice in the same record makes it invalid as well.
+    return Long.bitCount(mask) == result ? mask : -1L;
+  }
+
+  private int evaluateLine(final int start, final int end) {
+    int separator = start;
+    while (separator < end && this.buffer[separator] != SEPARATOR) {
+      ++separator;
+    }
+    if (separator == end) {
+      return INVALID;
+    }
+
+    final long holeCards = this.parseCards(start, separator);
+    final long board = this.parseCards(separator + 1, end);
+    if (holeCards <= 0L || board < 0L || (holeCards & board) != 0) {
+      return INVALID;
+    }
+    return this.evaluator.rank(holeCards | board);
+  }
+
+  HandHistoryBatch evaluate() {
+    for (int record = 0; record < this.records; record++) {
+      this.ranks[record] = this.evaluateLine(this.recordStarts[record], this.recordEnds[record]);
+      if (this.ranks[record] == INVALID) {
+        ++this.invalidRecords;
+      }
+    }
+    return this;
+  }
+
+  int getLines() {
+    return lines;
+  }
+
+  int getRecords() {
+    return records;
+  }
+
+  int getInvalidRecords() {
+    return invalidRecords;
+  }
+
+  long getLineNumber(final int record) {
+    return this.firstLineNumber + this.recordLines[record];
+  }
+
+  int getRank(final int record) {
+    return ranks[record];
+  }
+}
@@ -0,0 +1,138 @@
+package pl.pateman.holdemevaluator.history;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+public final class HandHistoryEvaluator {
+
+  public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+  private static final int BATCHES_PER_WORKER = 2;
+
+  private final StringHandParser parser = new StringHandParser();
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+  private final ExecutorService executor;
+  private final int chunkBytes;
+  private final int batchesInFlight;
+
+  public HandHistoryEvaluator() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES,
+        ForkJoinPool.getCommonPoolParallelism() * BATCHES_PER_WORKER);
+  }
+
+  public HandHistoryEvaluator(final ExecutorService executor, final int chunkBytes,
+      final int batchesInFlight) {
+    //  Memory use grows with chunkBytes * batchesInFlight, but not with the size of the input.
+    //  Without an executor, batches are evaluated on the calling thread.
+    if (chunkBytes <= 0 || batchesInFlight <= 0) {
+      throw new IllegalArgumentException("The chunk size and batches in flight must be positive");
+    }
+    this.executor = executor;
+    this.chunkBytes = chunkBytes;
+    this.batchesInFlight = executor == null ? 1 : batchesInFlight;
+  }
+
+  private static HandHistoryBatch await(final Future<HandHistoryBatch> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a batch");
+    } catch (final ExecutionException e) {
+      throw new IOException("Could not evaluate a batch", e.getCause());
+    }
+  }
+
+  public HandHistorySummary evaluate(final Path input, final Path output,
+      final HandHistoryFormat format) throws IOException {
+    try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      return this.evaluate(in, out, format);
+    }
+  }
+
+  public HandHistorySummary evaluate(final ReadableByteChannel input,
+      final WritableByteChannel output, final HandHistoryFormat format) throws IOException {
+    final Deque<HandHistoryBatch> free = new ArrayDeque<>(this.batchesInFlight);
+    for (int i = 0; i < this.batchesInFlight; i++) {
+      free.add(new HandHistoryBatch(this.parser, this.evaluator, this.chunkBytes));
+    }
+    final Deque<Future<HandHistoryBatch>> pending = new ArrayDeque<>(this.batchesInFlight);
+    final HandHistoryWriter writer = new HandHistoryWriter(output, format);
+    final byte[] carry = new byte[this.chunkBytes];
+    int carried = 0;
+    long lineNumber = 1L;
+    long bytesRead = 0L;
+    boolean endOfInput = false;
+
+    try {
+      while (!endOfInput) {
+        //  Results are written in input order, so the oldest batch is the one to wait for.
+        HandHistoryBatch batch = free.poll();
+        if (batch == null) {
+          batch = writer.write(await(pending.poll()));
+        }
+
+        final byte[] buffer = batch.getBuffer();
+        System.arraycopy(carry, 0, buffer, 0, carried);
+        int filled = carried;
+        while (filled < buffer.length && !endOfInput) {
+          final int read = input.read(batch.getReadView(filled));
+          if (read < 0) {
+            endOfInput = true;
+          } else {
+            filled += read;
+            bytesRead += read;
+          }
+        }
+
+        //  Only whole lines go into a batch, the rest is carried over to the next one.
+        int end = filled;
+        carried = 0;
+        if (!endOfInput) {
+          end = HandHistoryBatch.lastNewLine(buffer, 0, filled) + 1;
+          if (end == 0) {
+            throw new IOException(
+                "Line " + lineNumber + " does not fit into a chunk of " + this.chunkBytes + " bytes");
+          }
+          carried = filled - end;
+          System.arraycopy(buffer, end, carry, 0, carried);
+        }
+
+        batch.reset(end, lineNumber);
+        batch.split();
+        lineNumber += batch.getLines();
+        if (this.executor == null) {
+          free.add(writer.write(batch.evaluate()));
+        } else {
+          pending.add(this.executor.submit(batch::evaluate));
+        }
+      }
+
+      while (!pending.isEmpty()) {
+        writer.write(await(pending.poll()));
+      }
+      writer.flush();
+    } finally {
+      for (final Future<HandHistoryBatch> future : pending) {
+        future.cancel(true);
+      }
+    }
+    return new HandHistorySummary(writer.getRecords(), writer.getInvalidRecords(), bytesRead);
+  }
+}
@@ -0,0 +1,8 @@
+package pl.pateman.holdemevaluator.history;
+
+public enum HandHistoryFormat {
+  //  12 bytes per record, big-endian: the line number as a long, then the rank as an int.
+  BINARY,
+  //  One "line,rank,handName" row per record.
+  CSV
+}
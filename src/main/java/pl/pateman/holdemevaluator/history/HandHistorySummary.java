@@ -0,0 +1,35 @@
+package pl.pateman.holdemevaluator.history;
+
+public final class HandHistorySummary {
+
+  private final long records;
+  private final long invalidRecords;
+  private final long bytesRead;
+
+  HandHistorySummary(final long records, final long invalidRecords, final long bytesRead) {
+    this.records = records;
+    this.invalidRecords = invalidRecords;
+    this.bytesRead = bytesRead;
+  }
+
+  public long getRecords() {
+    return records;
+  }
+
+  public long getInvalidRecords() {
+    return invalidRecords;
+  }
+
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  @Override
+  public String toString() {
+    return "HandHistorySummary{" +
+        "records=" + records +
+        ", invalidRecords=" + invalidRecords +
+        ", bytesRead=" + bytesRead +
+        '}';
+  }
+}
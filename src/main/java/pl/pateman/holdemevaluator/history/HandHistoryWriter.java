@@ -0,0 +1,89 @@
+package pl.pateman.holdemevaluator.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+
+final class HandHistoryWriter {
+
+  private static final int BUFFER_BYTES = 1 << 16;
+  //  A 19-digit line number, a rank, the longest hand name and three separators.
+  private static final int MAX_RECORD_BYTES = 64;
+  private static final byte[] INVALID_NAME = "INVALID".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[][] HAND_NAMES = new byte[HandName.values().length][];
+
+  static {
+    for (final HandName handName : HandName.values()) {
+      HAND_NAMES[handName.ordinal()] = handName.name().getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  private final WritableByteChannel channel;
+  private final HandHistoryFormat format;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+  private final byte[] digits = new byte[20];
+  private long records;
+  private long invalidRecords;
+
+  HandHistoryWriter(final WritableByteChannel channel, final HandHistoryFormat format) {
+    this.channel = channel;
+    this.format = format;
+  }
+
+  private void putNumber(final long number) {
+    long remaining = number;
+    int count = 0;
+    do {
+      this.digits[count++] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining != 0);
+    while (count > 0) {
+      this.buffer.put(this.digits[--count]);
+    }
+  }
+
+  private void putRecord(final long lineNumber, final int rank) {
+    if (this.format == HandHistoryFormat.BINARY) {
+      this.buffer.putLong(lineNumber).putInt(rank);
+      return;
+    }
+    this.putNumber(lineNumber);
+    this.buffer.put((byte) ',');
+    this.putNumber(rank);
+    this.buffer.put((byte) ',');
+    this.buffer.put(rank == HandHistoryBatch.INVALID ? INVALID_NAME
+        : HAND_NAMES[FastHoldemEvaluator.getHandName(rank).ordinal()]);
+    this.buffer.put((byte) '\n');
+  }
+
+  HandHistoryBatch write(final HandHistoryBatch batch) throws IOException {
+    for (int record = 0; record < batch.getRecords(); record++) {
+      if (this.buffer.remaining() < MAX_RECORD_BYTES) {
+        this.flush();
+      }
+      this.putRecord(batch.getLineNumber(record), batch.getRank(record));
+    }
+    this.records += batch.getRecords();
+    this.invalidRecords += batch.getInvalidRecords();
+    return batch;
+  }
+
+  void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  long getRecords() {
+    return records;
+  }
+
+  long getInvalidRecords() {
+    return invalidRecords;
+  }
+}
@@ -0,0 +1,212 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class EvaluatorMetrics implements EvaluatorMetricsMXBean {
+
+  //  Instrumented call sites test ENABLED before reading the clock. It is a static final, so
+  //  with -Dholdemevaluator.metrics unset the JIT folds those branches away and the hot paths
+  //  run exactly as they would without any instrumentation.
+  public static final String ENABLED_PROPERTY = "holdemevaluator.metrics";
+  public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+  public static final String OBJECT_NAME = "pl.pateman.holdemevaluator:type=EvaluatorMetrics";
+
+  private static final HandName[] HAND_NAMES = HandName.values();
+  private static final EvaluatorMetrics INSTANCE = new EvaluatorMetrics();
+
+  private final LongAdder calculateCalls = new LongAdder();
+  private final LongAdder[] handNameCounts = new LongAdder[HAND_NAMES.length];
+  private final LatencyHistogram calculateLatency = new LatencyHistogram();
+  private final LongAdder batchCalls = new LongAdder();
+  private final LongAdder batchHands = new LongAdder();
+  private final LatencyHistogram batchLatency = new LatencyHistogram();
+  private final LongAdder equityCalls = new LongAdder();
+  private final LongAdder equityTrials = new LongAdder();
+  private final LatencyHistogram equityLatency = new LatencyHistogram();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private volatile long resetAt = System.nanoTime();
+
+  public EvaluatorMetrics() {
+    for (int handName = 0; handName < this.handNameCounts.length; handName++) {
+      this.handNameCounts[handName] = new LongAdder();
+    }
+  }
+
+  public static EvaluatorMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  public static ObjectName register() throws JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(OBJECT_NAME);
+    if (!server.isRegistered(name)) {
+      server.registerMBean(INSTANCE, name);
+    }
+    return name;
+  }
+
+  public static void unregister() throws JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(OBJECT_NAME);
+    if (server.isRegistered(name)) {
+      server.unregisterMBean(name);
+    }
+  }
+
+  public void recordCalculate(final HandName handName, final long nanos) {
+    this.calculateCalls.increment();
+    this.handNameCounts[handName.ordinal()].increment();
+    this.calculateLatency.record(nanos);
+  }
+
+  public void recordBatch(final int hands, final long nanos) {
+    this.batchCalls.increment();
+    this.batchHands.add(hands);
+    this.batchLatency.record(nanos);
+  }
+
+  public void recordEquity(final long trials, final long nanos) {
+    this.equityCalls.increment();
+    this.equityTrials.add(trials);
+    this.equityLatency.record(nanos);
+  }
+
+  public void recordCacheLookup(final boolean hit) {
+    (hit ? this.cacheHits : this.cacheMisses).increment();
+  }
+
+  public EvaluatorMetricsSnapshot snapshot() {
+    final long[] handNames = new long[this.handNameCounts.length];
+    for (int handName = 0; handName < handNames.length; handName++) {
+      handNames[handName] = this.handNameCounts[handName].sum();
+    }
+    return new EvaluatorMetricsSnapshot(System.nanoTime() - this.resetAt,
+        this.calculateCalls.sum(), handNames, this.calculateLatency.snapshot(),
+        this.batchCalls.sum(), this.batchHands.sum(), this.batchLatency.snapshot(),
+        this.equityCalls.sum(), this.equityTrials.sum(), this.equityLatency.snapshot(),
+        this.cacheHits.sum(), this.cacheMisses.sum());
+  }
+
+  @Override
+  public void reset() {
+    this.calculateCalls.reset();
+    for (final LongAdder handNameCount : this.handNameCounts) {
+      handNameCount.reset();
+    }
+    this.calculateLatency.reset();
+    this.batchCalls.reset();
+    this.batchHands.reset();
+    this.batchLatency.reset();
+    this.equityCalls.reset();
+    this.equityTrials.reset();
+    this.equityLatency.reset();
+    this.cacheHits.reset();
+    this.cacheMisses.reset();
+    this.resetAt = System.nanoTime();
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return ENABLED;
+  }
+
+  @Override
+  public long getElapsedNanos() {
+    return System.nanoTime() - this.resetAt;
+  }
+
+  @Override
+  public long getCalculateCalls() {
+    return this.calculateCalls.sum();
+  }
+
+  @Override
+  public double getCalculateCallsPerSecond() {
+    final long nanos = this.getElapsedNanos();
+    return nanos <= 0 ? 0.0 : this.calculateCalls.sum() * 1e9 / nanos;
+  }
+
+  @Override
+  public long getCalculateLatencyP50Nanos() {
+    return this.calculateLatency.snapshot().getValueAtPercentile(50.0);
+  }
+
+  @Override
+  public long getCalculateLatencyP99Nanos() {
+    return this.calculateLatency.snapshot().getValueAtPercentile(99.0);
+  }
+
+  @Override
+  public long getCalculateLatencyP999Nanos() {
+    return this.calculateLatency.snapshot().getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getCalculateLatencyMaxNanos() {
+    return this.calculateLatency.snapshot().getMax();
+  }
+
+  @Override
+  public Map<String, Long> getHandNameCounts() {
+    final Map<String, Long> counts = new LinkedHashMap<>();
+    for (final HandName handName : HAND_NAMES) {
+      counts.put(handName.name(), this.handNameCounts[handName.ordinal()].sum());
+    }
+    return counts;
+  }
+
+  @Override
+  public long getBatchCalls() {
+    return this.batchCalls.sum();
+  }
+
+  @Override
+  public long getBatchHands() {
+    return this.batchHands.sum();
+  }
+
+  @Override
+  public long getBatchLatencyP99Nanos() {
+    return this.batchLatency.snapshot().getValueAtPercentile(99.0);
+  }
+
+  @Override
+  public long getEquityCalls() {
+    return this.equityCalls.sum();
+  }
+
+  @Override
+  public long getEquityTrials() {
+    return this.equityTrials.sum();
+  }
+
+  @Override
+  public long getEquityLatencyP99Nanos() {
+    return this.equityLatency.snapshot().getValueAtPercentile(99.0);
+  }
+
+  @Override
+  public long getCacheHits() {
+    return this.cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return this.cacheMisses.sum();
+  }
+
+  @Override
+  public double getCacheHitRate() {
+    final long hits = this.cacheHits.sum();
+    final long lookups = hits + this.cacheMisses.sum();
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+}
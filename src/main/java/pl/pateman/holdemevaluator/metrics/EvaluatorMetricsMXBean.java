@@ -0,0 +1,44 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import java.util.Map;
+
+public interface EvaluatorMetricsMXBean {
+
+  boolean isEnabled();
+
+  long getElapsedNanos();
+
+  long getCalculateCalls();
+
+  double getCalculateCallsPerSecond();
+
+  long getCalculateLatencyP50Nanos();
+
+  long getCalculateLatencyP99Nanos();
+
+  long getCalculateLatencyP999Nanos();
+
+  long getCalculateLatencyMaxNanos();
+
+  Map<String, Long> getHandNameCounts();
+
+  long getBatchCalls();
+
+  long getBatchHands();
+
+  long getBatchLatencyP99Nanos();
+
+  long getEquityCalls();
+
+  long getEquityTrials();
+
+  long getEquityLatencyP99Nanos();
+
+  long getCacheHits();
+
+  long getCacheMisses();
+
+  double getCacheHitRate();
+
+  void reset();
+}
@@ -0,0 +1,115 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import pl.pateman.holdemevaluator.HandName;
+
+public final class EvaluatorMetricsSnapshot {
+
+  private final long elapsedNanos;
+  private final long calculateCalls;
+  private final long[] handNameCounts;
+  private final LatencySnapshot calculateLatency;
+  private final long batchCalls;
+  private final long batchHands;
+  private final LatencySnapshot batchLatency;
+  private final long equityCalls;
+  private final long equityTrials;
+  private final LatencySnapshot equityLatency;
+  private final long cacheHits;
+  private final long cacheMisses;
+
+  EvaluatorMetricsSnapshot(final long elapsedNanos, final long calculateCalls,
+      final long[] handNameCounts, final LatencySnapshot calculateLatency, final long batchCalls,
+      final long batchHands, final LatencySnapshot batchLatency, final long equityCalls,
+      final long equityTrials, final LatencySnapshot equityLatency, final long cacheHits,
+      final long cacheMisses) {
+    this.elapsedNanos = elapsedNanos;
+    this.calculateCalls = calculateCalls;
+    this.handNameCounts = handNameCounts;
+    this.calculateLatency = calculateLatency;
+    this.batchCalls = batchCalls;
+    this.batchHands = batchHands;
+    this.batchLatency = batchLatency;
+    this.equityCalls = equityCalls;
+    this.equityTrials = equityTrials;
+    this.equityLatency = equityLatency;
+    this.cacheHits = cacheHits;
+    this.cacheMisses = cacheMisses;
+  }
+
+  private static double perSecond(final long count, final long nanos) {
+    return nanos <= 0 ? 0.0 : count * 1e9 / nanos;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public long getCalculateCalls() {
+    return calculateCalls;
+  }
+
+  public double getCalculateCallsPerSecond() {
+    return perSecond(this.calculateCalls, this.elapsedNanos);
+  }
+
+  public long getHandNameCount(final HandName handName) {
+    return this.handNameCounts[handName.ordinal()];
+  }
+
+  public LatencySnapshot getCalculateLatency() {
+    return calculateLatency;
+  }
+
+  public long getBatchCalls() {
+    return batchCalls;
+  }
+
+  public long getBatchHands() {
+    return batchHands;
+  }
+
+  public double getBatchHandsPerSecond() {
+    return perSecond(this.batchHands, this.elapsedNanos);
+  }
+
+  public LatencySnapshot getBatchLatency() {
+    return batchLatency;
+  }
+
+  public long getEquityCalls() {
+    return equityCalls;
+  }
+
+  public long getEquityTrials() {
+    return equityTrials;
+  }
+
+  public LatencySnapshot getEquityLatency() {
+    return equityLatency;
+  }
+
+  public long getCacheHits() {
+    return cacheHits;
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses;
+  }
+
+  public double getCacheHitRate() {
+    final long lookups = this.cacheHits + this.cacheMisses;
+    return lookups == 0 ? 0.0 : (double) this.cacheHits / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return "EvaluatorMetricsSnapshot{" +
+        "elapsedNanos=" + elapsedNanos +
+        ", calculateCalls=" + calculateCalls +
+        ", calculateLatency=" + calculateLatency +
+        ", batchHands=" + batchHands +
+        ", equityCalls=" + equityCalls +
+        ", cacheHitRate=" + this.getCacheHitRate() +
+        '}';
+  }
+}
@@ -0,0 +1,62 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+
+  //  Log-linear buckets in the spirit of HdrHistogram: values below 32 get a bucket each and
+  //  every power of two above that is split into 16 buckets, so a bucket is never wider than
+  //  1/16 of the values it holds. That covers the whole long range in 960 buckets, with no
+  //  locks and no allocation on record.
+  static final int LINEAR_BUCKETS = 32;
+  static final int SUB_BUCKETS = LINEAR_BUCKETS / 2;
+  static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  static int bucketOf(final long value) {
+    if (value < LINEAR_BUCKETS) {
+      return (int) Math.max(0L, value);
+    }
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  static long highestValueIn(final int bucket) {
+    if (bucket < LINEAR_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  public void record(final long value) {
+    this.buckets.getAndIncrement(bucketOf(value));
+    this.sum.add(Math.max(0L, value));
+    this.max.accumulate(value);
+  }
+
+  public LatencySnapshot snapshot() {
+    //  Not atomic with respect to concurrent records, which only skews the result by the
+    //  handful of values recorded while the buckets are being copied.
+    final long[] counts = new long[BUCKETS];
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts[bucket] = this.buckets.get(bucket);
+    }
+    return new LatencySnapshot(counts, this.sum.sum(), this.max.get());
+  }
+
+  public void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      this.buckets.set(bucket, 0L);
+    }
+    this.sum.reset();
+    this.max.reset();
+  }
+}
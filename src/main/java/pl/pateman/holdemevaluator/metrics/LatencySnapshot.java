@@ -0,0 +1,62 @@
+package pl.pateman.holdemevaluator.metrics;
+
+public final class LatencySnapshot {
+
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  LatencySnapshot(final long[] counts, final long sum, final long max) {
+    long count = 0L;
+    for (final long bucketCount : counts) {
+      count += bucketCount;
+    }
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public double getMean() {
+    return this.count == 0 ? 0.0 : (double) this.sum / this.count;
+  }
+
+  public long getValueAtPercentile(final double percentile) {
+    //  The highest value of the bucket the percentile falls into, capped at the maximum seen.
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("A percentile lies between 0 and 100");
+    }
+    if (this.count == 0) {
+      return 0L;
+    }
+    final long target = Math.max(1L, (long) Math.ceil(percentile / 100.0 * this.count));
+    long seen = 0L;
+    for (int bucket = 0; bucket < this.counts.length; bucket++) {
+      seen += this.counts[bucket];
+      if (seen >= target) {
+        return Math.min(LatencyHistogram.highestValueIn(bucket), this.max);
+      }
+    }
+    return this.max;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencySnapshot{" +
+        "count=" + count +
+        ", mean=" + this.getMean() +
+        ", p50=" + this.getValueAtPercentile(50.0) +
+        ", p99=" + this.getValueAtPercentile(99.0) +
+        ", max=" + max +
+        '}';
+  }
+}
@@ -0,0 +1,125 @@
+package pl.pateman.holdemevaluator.parser;
+
+import java.util.Arrays;
+import java.util.Locale;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.HandRange;
+
+public final class RangeParser {
+
+  //  Comma-separated tokens, e.g. "QQ+, AKs, A2s+, KTo-K7o, 99-66, AJ, AhKd". A '+' raises the
+  //  kicker up to one below the top card (or the pair up to aces), a '-' spans two hands that
+  //  share their top card. Hands without 's' or 'o' include both.
+  private static final String RANK_CHARACTERS = "23456789TJQKA";
+  private static final char PLUS = '+';
+  private static final char DASH = '-';
+  private static final char SUITED = 'S';
+  private static final char OFFSUIT = 'O';
+  private static final char ANY = 0;
+  private static final int SUITS = 4;
+
+  private final StringHandParser handParser = new StringHandParser();
+
+  private static int rankOf(final char character) {
+    return RANK_CHARACTERS.indexOf(character);
+  }
+
+  private static int addCombos(final int high, final int low, final char kind,
+      final long[] combos, final int count) {
+    int added = count;
+    for (int firstSuit = 0; firstSuit < SUITS; firstSuit++) {
+      for (int secondSuit = 0; secondSuit < SUITS; secondSuit++) {
+        final boolean suited = firstSuit == secondSuit;
+        if (high == low ? secondSuit <= firstSuit
+            : kind == SUITED && !suited || kind == OFFSUIT && suited) {
+          continue;
+        }
+        combos[added++] = 1L << (firstSuit * Card.RANKS + high)
+            | 1L << (secondSuit * Card.RANKS + low);
+      }
+    }
+    return added;
+  }
+
+  private static int[] parseHand(final String token, final String hand)
+      throws StringHandParserException {
+    //  Returns {high rank, low rank, kind}.
+    if (hand.length() < 2 || hand.length() > 3) {
+      throw new StringHandParserException("Unrecognized range token '" + token + "'");
+    }
+    final int first = rankOf(hand.charAt(0));
+    final int second = rankOf(hand.charAt(1));
+    final char kind = hand.length() == 3 ? hand.charAt(2) : ANY;
+    if (first < 0 || second < 0 || kind != ANY && kind != SUITED && kind != OFFSUIT
+        || first == second && kind != ANY) {
+      throw new StringHandParserException("Unrecognized range token '" + token + "'");
+    }
+    return new int[]{Math.max(first, second), Math.min(first, second), kind};
+  }
+
+  private int parseToken(final String token, final long[] combos, final int count)
+      throws StringHandParserException {
+    final String normalized = token.toUpperCase(Locale.ROOT);
+
+    //  A specific combo such as "AhKd".
+    if (normalized.length() == 4 && normalized.indexOf(PLUS) < 0
+        && normalized.indexOf(DASH) < 0) {
+      final Card[] cards = this.handParser.parse(normalized);
+      if (cards.length != 2 || cards[0].equals(cards[1])) {
+        throw new StringHandParserException("Unrecognized range token '" + token + "'");
+      }
+      combos[count] = cards[0].getMask() | cards[1].getMask();
+      return count + 1;
+    }
+
+    final int dash = normalized.indexOf(DASH);
+    final boolean plus = normalized.charAt(normalized.length() - 1) == PLUS;
+    final int[] from = parseHand(token,
+        normalized.substring(0, dash >= 0 ? dash : normalized.length() - (plus ? 1 : 0)));
+    final boolean pair = from[0] == from[1];
+    int lowest = pair ? from[0] : from[1];
+    int highest = lowest;
+
+    if (dash >= 0) {
+      final int[] to = parseHand(token, normalized.substring(dash + 1));
+      if (plus || to[2] != from[2] || (to[0] == to[1]) != pair || !pair && to[0] != from[0]) {
+        throw new StringHandParserException("Unrecognized range token '" + token + "'");
+      }
+      final int other = pair ? to[0] : to[1];
+      highest = Math.max(lowest, other);
+      lowest = Math.min(lowest, other);
+    } else if (plus) {
+      highest = pair ? Card.RANKS - 1 : from[0] - 1;
+    }
+
+    int added = count;
+    for (int rank = lowest; rank <= highest; rank++) {
+      added = pair ? addCombos(rank, rank, ANY, combos, added)
+          : addCombos(from[0], rank, (char) from[2], combos, added);
+    }
+    return added;
+  }
+
+  public HandRange parse(final String range) throws StringHandParserException {
+    if (range == null) {
+      throw new StringHandParserException("A valid range string needs to be provided");
+    }
+
+    //  Tokens may overlap. Their combos are collected as they come and HandRange drops the
+    //  duplicates, while no single token adds more than every combo there is.
+    final String[] tokens = range.split(",");
+    long[] combos = new long[HandRange.ALL_COMBOS];
+    int count = 0;
+    for (final String rawToken : tokens) {
+      final String token = rawToken.trim();
+      if (token.isEmpty()) {
+        continue;
+      }
+      if (combos.length - count < HandRange.ALL_COMBOS) {
+        combos = Arrays.copyOf(combos, combos.length * 2);
+      }
+      count = this.parseToken(token, combos, count);
+    }
+    return HandRange.of(Arrays.copyOf(combos, count));
+  }
+}
@@ -1,90 +1,374 @@
 package pl.pateman.holdemevaluator.parser;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import pl.pateman.holdemevaluator.Card;
 import pl.pateman.holdemevaluator.CardValue;
 import pl.pateman.holdemevaluator.Suit;
 
 public final class StringHandParser {
 
-  private static final Map<Character, CardValue> CHARACTER_CARD_VALUE_MAP = new HashMap<>();
-  private static final Map<Character, Suit> CHARACTER_SUIT_MAP = new HashMap<>();
+  //  The fast paths return the number of cards written or, on bad input, ~position of the
+  //  offending character (or byte), which is always negative. See isError/getErrorPosition.
+  private static final int NONE = -1;
+  private static final int ASCII = 128;
+  private static final char FIRST_SUIT_SYMBOL = '\u2660';
+  private static final char LAST_SUIT_SYMBOL = '\u2667';
+
+  //  UTF-8 encodes U+2660..U+2667 as E2 99 A0..A7.
+  private static final int UTF8_SYMBOL_LEAD = 0xE2;
+  private static final int UTF8_SYMBOL_SECOND = 0x99;
+  private static final int UTF8_SYMBOL_THIRD = 0xA0;
+
+  private static final byte[] CARD_VALUES = new byte[ASCII];
+  private static final byte[] SUITS = new byte[ASCII];
+  private static final byte[] SUIT_SYMBOLS = new byte[LAST_SUIT_SYMBOL - FIRST_SUIT_SYMBOL + 1];
+  private static final boolean[] WHITESPACE = new boolean[ASCII];
 
   static {
-    CHARACTER_CARD_VALUE_MAP.put('A', CardValue.ACE);
-    CHARACTER_CARD_VALUE_MAP.put('2', CardValue.TWO);
-    CHARACTER_CARD_VALUE_MAP.put('3', CardValue.THREE);
-    CHARACTER_CARD_VALUE_MAP.put('4', CardValue.FOUR);
-    CHARACTER_CARD_VALUE_MAP.put('5', CardValue.FIVE);
-    CHARACTER_CARD_VALUE_MAP.put('6', CardValue.SIX);
-    CHARACTER_CARD_VALUE_MAP.put('7', CardValue.SEVEN);
-    CHARACTER_CARD_VALUE_MAP.put('8', CardValue.EIGHT);
-    CHARACTER_CARD_VALUE_MAP.put('9', CardValue.NINE);
-    CHARACTER_CARD_VALUE_MAP.put('T', CardValue.TEN);
-    CHARACTER_CARD_VALUE_MAP.put('J', CardValue.JACK);
-    CHARACTER_CARD_VALUE_MAP.put('Q', CardValue.QUEEN);
-    CHARACTER_CARD_VALUE_MAP.put('K', CardValue.KING);
-
-    CHARACTER_SUIT_MAP.put('C', Suit.CLUBS);
-    CHARACTER_SUIT_MAP.put('\u2663', Suit.CLUBS);
-    CHARACTER_SUIT_MAP.put('\u2667', Suit.CLUBS);
-    CHARACTER_SUIT_MAP.put('H', Suit.HEARTS);
-    CHARACTER_SUIT_MAP.put('\u2665', Suit.HEARTS);
-    CHARACTER_SUIT_MAP.put('\u2661', Suit.HEARTS);
-    CHARACTER_SUIT_MAP.put('S', Suit.SPADES);
-    CHARACTER_SUIT_MAP.put('\u2660', Suit.SPADES);
-    CHARACTER_SUIT_MAP.put('\u2664', Suit.SPADES);
-    CHARACTER_SUIT_MAP.put('D', Suit.DIAMONDS);
-    CHARACTER_SUIT_MAP.put('\u2666', Suit.DIAMONDS);
-    CHARACTER_SUIT_MAP.put('\u2662', Suit.DIAMONDS);
-  }
-
-  private Card parseCard(final char value, final char suit) throws StringHandParserException {
-    final CardValue cardValue = CHARACTER_CARD_VALUE_MAP.get(value);
-    final Suit cardSuit = CHARACTER_SUIT_MAP.get(suit);
-
-    if (cardValue == null) {
-      throw new StringHandParserException("Unrecognized card value character '" + value + "'");
-    }
-    if (cardSuit == null) {
-      throw new StringHandParserException("Unrecognized card suit character '" + suit + "'");
-    }
-
-    return new Card(cardValue, cardSuit);
+    Arrays.fill(CARD_VALUES, (byte) NONE);
+    Arrays.fill(SUITS, (byte) NONE);
+
+    cardValue('A', CardValue.ACE);
+    cardValue('2', CardValue.TWO);
+    cardValue('3', CardValue.THREE);
+    cardValue('4', CardValue.FOUR);
+    cardValue('5', CardValue.FIVE);
+    cardValue('6', CardValue.SIX);
+    cardValue('7', CardValue.SEVEN);
+    cardValue('8', CardValue.EIGHT);
+    cardValue('9', CardValue.NINE);
+    cardValue('T', CardValue.TEN);
+    cardValue('J', CardValue.JACK);
+    cardValue('Q', CardValue.QUEEN);
+    cardValue('K', CardValue.KING);
+
+    suit('C', Suit.CLUBS);
+    suit('\u2663', Suit.CLUBS);
+    suit('\u2667', Suit.CLUBS);
+    suit('H', Suit.HEARTS);
+    suit('\u2665', Suit.HEARTS);
+    suit('\u2661', Suit.HEARTS);
+    suit('S', Suit.SPADES);
+    suit('\u2660', Suit.SPADES);
+    suit('\u2664', Suit.SPADES);
+    suit('D', Suit.DIAMONDS);
+    suit('\u2666', Suit.DIAMONDS);
+    suit('\u2662', Suit.DIAMONDS);
+
+    for (char c = 0; c < ASCII; c++) {
+      WHITESPACE[c] = Character.isWhitespace(c);
+    }
   }
 
-  public Card[] parse(final String string) throws StringHandParserException {
-    if (string == null) {
-      throw new StringHandParserException("A valid hand string needs to be provided");
+  private static void cardValue(final char character, final CardValue cardValue) {
+    CARD_VALUES[character] = (byte) Card.of(cardValue, Suit.CLUBS).getRankIndex();
+  }
+
+  private static void suit(final char character, final Suit suit) {
+    if (character < ASCII) {
+      SUITS[character] = (byte) suit.ordinal();
+    } else {
+      SUIT_SYMBOLS[character - FIRST_SUIT_SYMBOL] = (byte) suit.ordinal();
+    }
+  }
+
+  private static boolean isWhitespace(final char character) {
+    return character < ASCII ? WHITESPACE[character] : Character.isWhitespace(character);
+  }
+
+  private static int cardValueOf(final int character) {
+    return character < ASCII ? CARD_VALUES[character] : NONE;
+  }
+
+  private static int suitOf(final char character) {
+    if (character < ASCII) {
+      return SUITS[character];
     }
+    if (character >= FIRST_SUIT_SYMBOL && character <= LAST_SUIT_SYMBOL) {
+      return SUIT_SYMBOLS[character - FIRST_SUIT_SYMBOL];
+    }
+    return NONE;
+  }
 
-    final int length = string.length();
-    final List<Card> parsedCards = new ArrayList<>(Math.floorDiv(length, 2));
-    char currentValue = 0, currentSuit = 0;
-    for (int index = 0; index < length; ++index) {
-      final char currentChar = string.charAt(index);
-      if (Character.isWhitespace(currentChar)) {
+  private static int symbolSuit(final int second, final int third) {
+    final int symbol = third - UTF8_SYMBOL_THIRD;
+    return second == UTF8_SYMBOL_SECOND && symbol >= 0 && symbol < SUIT_SYMBOLS.length
+        ? SUIT_SYMBOLS[symbol] : NONE;
+  }
+
+  private static int capacity(final int[] indices, final Card[] cards) {
+    return indices != null ? indices.length : cards.length;
+  }
+
+  private static void emit(final int[] indices, final Card[] cards, final int at,
+      final int cardIndex) {
+    if (indices != null) {
+      indices[at] = cardIndex;
+    } else {
+      cards[at] = Card.fromIndex(cardIndex);
+    }
+  }
+
+  private static void checkRange(final int inputLength, final int offset, final int length) {
+    if (offset < 0 || length < 0 || offset > inputLength - length) {
+      throw new IndexOutOfBoundsException(
+          "offset " + offset + ", length " + length + ", input length " + inputLength);
+    }
+  }
+
+  private static int parseChars(final CharSequence input, final int offset, final int length,
+      final int[] indices, final Card[] cards, final int cardsOffset) {
+    checkRange(input.length(), offset, length);
+    final int capacity = capacity(indices, cards);
+    int written = cardsOffset;
+    int value = NONE;
+    int valuePosition = 0;
+
+    for (int position = offset; position < offset + length; position++) {
+      final char character = input.charAt(position);
+      if (isWhitespace(character)) {
+        continue;
+      }
+
+      if (value == NONE) {
+        value = cardValueOf(character);
+        if (value == NONE) {
+          return ~position;
+        }
+        valuePosition = position;
+      } else {
+        final int suit = suitOf(character);
+        if (suit == NONE) {
+          return ~position;
+        }
+        if (written == capacity) {
+          return ~valuePosition;
+        }
+        emit(indices, cards, written++, suit * Card.RANKS + value);
+        value = NONE;
+      }
+    }
+    return value == NONE ? written - cardsOffset : ~valuePosition;
+  }
+
+  private static int parseBytes(final byte[] input, final int offset, final int length,
+      final int[] indices, final Card[] cards, final int cardsOffset) {
+    checkRange(input.length, offset, length);
+    final int end = offset + length;
+    final int capacity = capacity(indices, cards);
+    int written = cardsOffset;
+    int value = NONE;
+    int valuePosition = 0;
+
+    for (int position = offset; position < end; position++) {
+      final int octet = input[position] & 0xFF;
+      if (octet < ASCII && WHITESPACE[octet]) {
         continue;
       }
 
-      if (currentValue == 0) {
-        currentValue = currentChar;
-      } else if (currentSuit == 0) {
-        currentSuit = currentChar;
+      if (value == NONE) {
+        value = cardValueOf(octet);
+        if (value == NONE) {
+          return ~position;
+        }
+        valuePosition = position;
+      } else {
+        final int suit;
+        if (octet < ASCII) {
+          suit = SUITS[octet];
+        } else if (octet == UTF8_SYMBOL_LEAD && position + 2 < end) {
+          suit = symbolSuit(input[position + 1] & 0xFF, input[position + 2] & 0xFF);
+        } else {
+          suit = NONE;
+        }
+        if (suit == NONE) {
+          return ~position;
+        }
+        if (written == capacity) {
+          return ~valuePosition;
+        }
+        emit(indices, cards, written++, suit * Card.RANKS + value);
+        value = NONE;
+        if (octet >= ASCII) {
+          position += 2;
+        }
       }
+    }
+    return value == NONE ? written - cardsOffset : ~valuePosition;
+  }
 
-      if (currentValue != 0 && currentSuit != 0) {
-        final Card parsedCard = this.parseCard(currentValue, currentSuit);
-        parsedCards.add(parsedCard);
+  private static int parseBuffer(final ByteBuffer input, final int[] indices, final Card[] cards,
+      final int cardsOffset) {
+    if (input.hasArray()) {
+      final int result = parseBytes(input.array(), input.arrayOffset() + input.position(),
+          input.remaining(), indices, cards, cardsOffset);
+      return result < 0 ? ~(~result - input.arrayOffset()) : result;
+    }
+
+    final int end = input.limit();
+    final int capacity = capacity(indices, cards);
+    int written = cardsOffset;
+    int value = NONE;
+    int valuePosition = 0;
+
+    for (int position = input.position(); position < end; position++) {
+      final int octet = input.get(position) & 0xFF;
+      if (octet < ASCII && WHITESPACE[octet]) {
+        continue;
+      }
 
-        currentValue = 0;
-        currentSuit = 0;
+      if (value == NONE) {
+        value = cardValueOf(octet);
+        if (value == NONE) {
+          return ~position;
+        }
+        valuePosition = position;
+      } else {
+        final int suit;
+        if (octet < ASCII) {
+          suit = SUITS[octet];
+        } else if (octet == UTF8_SYMBOL_LEAD && position + 2 < end) {
+          suit = symbolSuit(input.get(position + 1) & 0xFF, input.get(position + 2) & 0xFF);
+        } else {
+          suit = NONE;
+        }
+        if (suit == NONE) {
+          return ~position;
+        }
+        if (written == capacity) {
+          return ~valuePosition;
+        }
+        emit(indices, cards, written++, suit * Card.RANKS + value);
+        value = NONE;
+        if (octet >= ASCII) {
+          position += 2;
+        }
       }
     }
+    return value == NONE ? written - cardsOffset : ~valuePosition;
+  }
 
-    return parsedCards.toArray(new Card[parsedCards.size()]);
+  public static boolean isError(final int result) {
+    return result < 0;
+  }
+
+  public static int getErrorPosition(final int result) {
+    return ~result;
+  }
+
+  public static String describeError(final CharSequence input, final int offset,
+      final int length, final int result) {
+    //  Replays the input up to the error. This is the slow path, so it may allocate. Positions
+    //  are char indices here; results of the byte[] and ByteBuffer overloads hold byte offsets,
+    //  which drift from them after every suit symbol, and go to the overloads below instead.
+    final int errorPosition = getErrorPosition(result);
+    boolean expectingSuit = false;
+    for (int position = offset; position < errorPosition; position++) {
+      if (!isWhitespace(input.charAt(position))) {
+        expectingSuit = !expectingSuit;
+      }
+    }
+
+    final char character = input.charAt(errorPosition);
+    if (expectingSuit) {
+      return "Unrecognized card suit character '" + character + "' at position " + errorPosition;
+    }
+    if (cardValueOf(character) == NONE) {
+      return "Unrecognized card value character '" + character + "' at position " + errorPosition;
+    }
+    for (int position = errorPosition + 1; position < offset + length; position++) {
+      if (!isWhitespace(input.charAt(position))) {
+        return "No room left for the card at position " + errorPosition;
+      }
+    }
+    return "Card value '" + character + "' at position " + errorPosition + " has no suit";
+  }
+
+  public static String describeError(final byte[] input, final int offset, final int length,
+      final int result) {
+    checkRange(input.length, offset, length);
+    return describeBytes(ByteBuffer.wrap(input, offset, length), result);
+  }
+
+  public static String describeError(final ByteBuffer input, final int result) {
+    //  The same position and limit that were parsed.
+    return describeBytes(input, result);
+  }
+
+  private static String describeBytes(final ByteBuffer input, final int result) {
+    final int errorPosition = getErrorPosition(result);
+    boolean expectingSuit = false;
+    for (int position = input.position(); position < errorPosition; position++) {
+      final int octet = input.get(position) & 0xFF;
+      if (octet < ASCII && WHITESPACE[octet]) {
+        continue;
+      }
+      if (expectingSuit && octet >= ASCII) {
+        //  Only a whole three-byte suit symbol gets this far.
+        position += 2;
+      }
+      expectingSuit = !expectingSuit;
+    }
+
+    final int octet = input.get(errorPosition) & 0xFF;
+    final String character = octet < ASCII ? "character '" + (char) octet + "'"
+        : String.format("byte 0x%02X", octet);
+    if (expectingSuit) {
+      return "Unrecognized card suit " + character + " at byte " + errorPosition;
+    }
+    if (cardValueOf(octet) == NONE) {
+      return "Unrecognized card value " + character + " at byte " + errorPosition;
+    }
+    for (int position = errorPosition + 1; position < input.limit(); position++) {
+      final int next = input.get(position) & 0xFF;
+      if (next >= ASCII || !WHITESPACE[next]) {
+        return "No room left for the card at byte " + errorPosition;
+      }
+    }
+    return "Card value " + character + " at byte " + errorPosition + " has no suit";
+  }
+
+  public int parse(final CharSequence input, final int offset, final int length,
+      final int[] cardIndices, final int cardIndicesOffset) {
+    return parseChars(input, offset, length, cardIndices, null, cardIndicesOffset);
+  }
+
+  public int parse(final CharSequence input, final int offset, final int length,
+      final Card[] cards, final int cardsOffset) {
+    return parseChars(input, offset, length, null, cards, cardsOffset);
+  }
+
+  public int parse(final byte[] input, final int offset, final int length,
+      final int[] cardIndices, final int cardIndicesOffset) {
+    return parseBytes(input, offset, length, cardIndices, null, cardIndicesOffset);
+  }
+
+  public int parse(final byte[] input, final int offset, final int length, final Card[] cards,
+      final int cardsOffset) {
+    return parseBytes(input, offset, length, null, cards, cardsOffset);
+  }
+
+  public int parse(final ByteBuffer input, final int[] cardIndices, final int cardIndicesOffset) {
+    //  Reads from the position up to the limit without moving either of them.
+    return parseBuffer(input, cardIndices, null, cardIndicesOffset);
+  }
+
+  public int parse(final ByteBuffer input, final Card[] cards, final int cardsOffset) {
+    return parseBuffer(input, null, cards, cardsOffset);
+  }
+
+  public Card[] parse(final String string) throws StringHandParserException {
+    if (string == null) {
+      throw new StringHandParserException("A valid hand string needs to be provided");
+    }
+
+    final int length = string.length();
+    final Card[] parsedCards = new Card[length / 2];
+    final int result = this.parse(string, 0, length, parsedCards, 0);
+    if (isError(result)) {
+      throw new StringHandParserException(describeError(string, 0, length, result));
+    }
+    return result == parsedCards.length ? parsedCards : Arrays.copyOf(parsedCards, result);
   }
 }
@@ -0,0 +1,40 @@
+package pl.pateman.holdemevaluator.server;
+
+public final class BinaryProtocol {
+
+  //  Every message is a frame: an int length followed by that many bytes, big-endian.
+  //
+  //  Request:  byte opcode, int request id, body
+  //    RANK       long hand mask
+  //    CALCULATE  long hand mask
+  //    SHOWDOWN   long board mask, byte players, long hole card mask per player
+  //    EQUITY     long board mask, long dead cards, byte players, then per player a short
+  //               combo count and a long mask per combo
+  //
+  //  Response: byte status, int request id, body
+  //    RANK       int strength
+  //    CALCULATE  int strength, byte hand name ordinal, byte top card count, byte card index
+  //               per top card
+  //    SHOWDOWN   byte players, then per player int strength and byte place (0 wins)
+  //    EQUITY     byte exact, long trials, byte players, then per player double equity,
+  //               double win probability and double tie probability
+  //    ERROR      short length and that many bytes of a UTF-8 message
+  //
+  //  Requests may be pipelined. RANK, CALCULATE and SHOWDOWN are answered in the order they
+  //  arrive; EQUITY is answered once it is done, so clients match responses by request id.
+  public static final byte RANK = 1;
+  public static final byte CALCULATE = 2;
+  public static final byte SHOWDOWN = 3;
+  public static final byte EQUITY = 4;
+
+  public static final byte STATUS_OK = 0;
+  public static final byte STATUS_ERROR = 1;
+
+  public static final int LENGTH_BYTES = Integer.BYTES;
+  public static final int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+  public static final int MAX_FRAME_BYTES = 1 << 16;
+
+  private BinaryProtocol() {
+
+  }
+}
@@ -0,0 +1,124 @@
+package pl.pateman.holdemevaluator.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+final class Connection {
+
+  private static final int INITIAL_OUTPUT_BYTES = 1 << 12;
+  private static final int MAX_ERROR_BYTES = 1 << 10;
+
+  private final SocketChannel channel;
+  private final SelectionKey key;
+  //  Large enough for the largest frame, so a request never has to wait for the buffer to grow.
+  private final ByteBuffer input =
+      ByteBuffer.allocate(BinaryProtocol.LENGTH_BYTES + BinaryProtocol.MAX_FRAME_BYTES);
+  //  Always in fill mode; flush flips and compacts it around the write.
+  private ByteBuffer output = ByteBuffer.allocate(INITIAL_OUTPUT_BYTES);
+  private int pendingEquity;
+  private boolean readPaused;
+  private boolean closed;
+
+  Connection(final SocketChannel channel, final SelectionKey key) {
+    this.channel = channel;
+    this.key = key;
+  }
+
+  SocketChannel getChannel() {
+    return channel;
+  }
+
+  SelectionKey getKey() {
+    return key;
+  }
+
+  ByteBuffer getInput() {
+    return input;
+  }
+
+  int getPendingBytes() {
+    return this.output.position();
+  }
+
+  int getPendingEquity() {
+    return pendingEquity;
+  }
+
+  void addPendingEquity(final int delta) {
+    this.pendingEquity += delta;
+  }
+
+  boolean isReadPaused() {
+    return readPaused;
+  }
+
+  void setReadPaused(final boolean readPaused) {
+    this.readPaused = readPaused;
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  void close() {
+    this.closed = true;
+    this.key.cancel();
+    try {
+      this.channel.close();
+    } catch (final IOException ignored) {
+      //  Nothing left to do for a connection that is going away.
+    }
+  }
+
+  ByteBuffer beginResponse(final int requestId, final int bodyBytes) {
+    final int frameBytes = BinaryProtocol.HEADER_BYTES + bodyBytes;
+    if (this.output.remaining() < BinaryProtocol.LENGTH_BYTES + frameBytes) {
+      int capacity = this.output.capacity();
+      while (capacity - this.output.position() < BinaryProtocol.LENGTH_BYTES + frameBytes) {
+        capacity *= 2;
+      }
+      final ByteBuffer grown = ByteBuffer.allocate(capacity);
+      this.output.flip();
+      grown.put(this.output);
+      this.output = grown;
+    }
+    return this.output.putInt(frameBytes).put(BinaryProtocol.STATUS_OK).putInt(requestId);
+  }
+
+  static byte[] encodeError(final String message) {
+    //  Long messages are cut at MAX_ERROR_BYTES. The encoder stops before a character that no
+    //  longer fits, so a multi-byte character is never split.
+    final ByteBuffer bytes = ByteBuffer.allocate(MAX_ERROR_BYTES);
+    StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .encode(CharBuffer.wrap(String.valueOf(message)), bytes, true);
+    bytes.flip();
+    final byte[] result = new byte[bytes.remaining()];
+    bytes.get(result);
+    return result;
+  }
+
+  void writeError(final int requestId, final String message) {
+    final byte[] bytes = encodeError(message);
+    final ByteBuffer body = this.beginResponse(requestId, Short.BYTES + bytes.length);
+    body.put(body.position() - Integer.BYTES - Byte.BYTES, BinaryProtocol.STATUS_ERROR);
+    body.putShort((short) bytes.length).put(bytes);
+  }
+
+  boolean flush() throws IOException {
+    //  Returns true once everything has been written.
+    this.output.flip();
+    try {
+      this.channel.write(this.output);
+    } finally {
+      this.output.compact();
+    }
+    return this.output.position() == 0;
+  }
+}
@@ -0,0 +1,366 @@
+package pl.pateman.holdemevaluator.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.evaluator.EquityCalculator;
+import pl.pateman.holdemevaluator.evaluator.EquityResult;
+
+public final class EvaluationServer implements AutoCloseable {
+
+  //  A single selector thread serves every connection, see BinaryProtocol for the frames. All
+  //  complete frames of a read are decoded at once, so pipelined requests are ranked in one
+  //  batch. EQUITY requests run on the equity executor instead and their responses are handed
+  //  back to the selector thread. A connection that has more than maxPendingBytes of unsent
+  //  responses or maxPendingEquity equity requests in flight is not read from until it drops
+  //  below half of that, which pushes back on the client through TCP flow control.
+  public static final int DEFAULT_MAX_PENDING_BYTES = 1 << 20;
+  public static final int DEFAULT_MAX_PENDING_EQUITY = 16;
+
+  private static final String THREAD_NAME = "holdem-evaluation-server";
+  private static final int MAX_HAND_CARDS = 7;
+
+  private final Selector selector;
+  private final ServerSocketChannel serverChannel;
+  private final Executor equityExecutor;
+  private final EquityCalculator equityCalculator;
+  private final int maxPendingBytes;
+  private final int maxPendingEquity;
+  private final RequestBatch batch = new RequestBatch();
+  private final ConcurrentLinkedQueue<Runnable> completions = new ConcurrentLinkedQueue<>();
+  private final Thread thread;
+  private volatile boolean running = true;
+  //  Only written by the selector thread, they show how the back pressure behaved.
+  private volatile int readPauses;
+  private volatile int peakPendingBytes;
+
+  public EvaluationServer(final InetSocketAddress address) throws IOException {
+    this(address, ForkJoinPool.commonPool(), new EquityCalculator(), DEFAULT_MAX_PENDING_BYTES,
+        DEFAULT_MAX_PENDING_EQUITY);
+  }
+
+  public EvaluationServer(final InetSocketAddress address, final Executor equityExecutor,
+      final EquityCalculator equityCalculator, final int maxPendingBytes,
+      final int maxPendingEquity) throws IOException {
+    if (maxPendingBytes < 1 || maxPendingEquity < 1) {
+      throw new IllegalArgumentException("The pending limits need to be positive");
+    }
+    this.equityExecutor = equityExecutor;
+    this.equityCalculator = equityCalculator;
+    this.maxPendingBytes = maxPendingBytes;
+    this.maxPendingEquity = maxPendingEquity;
+    this.selector = Selector.open();
+    this.serverChannel = ServerSocketChannel.open();
+    try {
+      this.serverChannel.bind(address);
+      this.serverChannel.configureBlocking(false);
+      this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+    } catch (final IOException e) {
+      this.serverChannel.close();
+      this.selector.close();
+      throw e;
+    }
+    this.thread = new Thread(this::run, THREAD_NAME);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  public static EvaluationServer onLoopback(final int port) throws IOException {
+    //  Port 0 picks a free port, see getAddress.
+    return new EvaluationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+  }
+
+  private static String describe(final RuntimeException e) {
+    return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+  }
+
+  private static long readMask(final ByteBuffer frame) {
+    final long mask = frame.getLong();
+    if ((mask & ~CardMask.FULL_DECK) != 0) {
+      throw new IllegalArgumentException("Card masks only use the lowest 52 bits");
+    }
+    return mask;
+  }
+
+  private static long checkHand(final long mask) {
+    if (mask == CardMask.EMPTY || CardMask.size(mask) > MAX_HAND_CARDS) {
+      throw new IllegalArgumentException("A hand holds between 1 and 7 cards");
+    }
+    return mask;
+  }
+
+  private static long readHand(final ByteBuffer frame) {
+    return checkHand(readMask(frame));
+  }
+
+  public InetSocketAddress getAddress() throws IOException {
+    return (InetSocketAddress) this.serverChannel.getLocalAddress();
+  }
+
+  int getReadPauses() {
+    return readPauses;
+  }
+
+  int getPeakPendingBytes() {
+    return peakPendingBytes;
+  }
+
+  private void decode(final Connection connection, final ByteBuffer frame) {
+    final byte opcode = frame.get();
+    final int requestId = frame.getInt();
+    try {
+      switch (opcode) {
+        case BinaryProtocol.RANK:
+        case BinaryProtocol.CALCULATE:
+          this.batch.addHand(opcode, requestId, readHand(frame));
+          break;
+        case BinaryProtocol.SHOWDOWN: {
+          final long boardMask = readMask(frame);
+          final long[] holeCardMasks = new long[frame.get() & 0xFF];
+          long usedCards = boardMask;
+          for (int player = 0; player < holeCardMasks.length; player++) {
+            //  Each player's hand is the board with their hole cards, under the same limit.
+            holeCardMasks[player] = readMask(frame);
+            checkHand(boardMask | holeCardMasks[player]);
+            if ((usedCards & holeCardMasks[player]) != 0) {
+              throw new IllegalArgumentException(
+                  "Player " + player + " holds a card that has already been dealt");
+            }
+            usedCards |= holeCardMasks[player];
+          }
+          this.batch.addShowdown(requestId, boardMask, holeCardMasks);
+          break;
+        }
+        case BinaryProtocol.EQUITY: {
+          final long boardMask = readMask(frame);
+          final long deadCards = readMask(frame);
+          final long[][] ranges = new long[frame.get() & 0xFF][];
+          for (int player = 0; player < ranges.length; player++) {
+            ranges[player] = new long[frame.getShort() & 0xFFFF];
+            for (int combo = 0; combo < ranges[player].length; combo++) {
+              ranges[player][combo] = readMask(frame);
+            }
+          }
+          this.submitEquity(connection, requestId, boardMask, deadCards, ranges);
+          break;
+        }
+        default:
+          this.batch.addError(requestId, "Unknown opcode " + opcode);
+          break;
+      }
+    } catch (final BufferUnderflowException e) {
+      this.batch.addError(requestId, "The request ends too early");
+    } catch (final IllegalArgumentException e) {
+      this.batch.addError(requestId, describe(e));
+    }
+  }
+
+  private void submitEquity(final Connection connection, final int requestId,
+      final long boardMask, final long deadCards, final long[][] ranges) {
+    connection.addPendingEquity(1);
+    try {
+      this.equityExecutor.execute(() -> {
+        EquityResult result = null;
+        String error = null;
+        try {
+          result = this.equityCalculator.calculate(boardMask, deadCards, ranges);
+        } catch (final RuntimeException e) {
+          error = describe(e);
+        }
+        final EquityResult equity = result;
+        final String message = error;
+        this.completions.add(() -> this.completeEquity(connection, requestId, equity, message));
+        this.selector.wakeup();
+      });
+    } catch (final RejectedExecutionException e) {
+      connection.addPendingEquity(-1);
+      this.batch.addError(requestId, "The equity executor rejected the request");
+    }
+  }
+
+  private void completeEquity(final Connection connection, final int requestId,
+      final EquityResult result, final String error) {
+    connection.addPendingEquity(-1);
+    if (connection.isClosed()) {
+      return;
+    }
+    if (result == null) {
+      connection.writeError(requestId, error);
+    } else {
+      final int players = result.getPlayerCount();
+      final ByteBuffer body = connection.beginResponse(requestId,
+          Byte.BYTES + Long.BYTES + Byte.BYTES + players * 3 * Double.BYTES);
+      body.put((byte) (result.isExact() ? 1 : 0)).putLong(result.getTrials())
+          .put((byte) players);
+      for (int player = 0; player < players; player++) {
+        body.putDouble(result.getEquity(player))
+            .putDouble(result.getWinProbability(player))
+            .putDouble(result.getTieProbability(player));
+      }
+    }
+    this.write(connection);
+  }
+
+  private void accept() throws IOException {
+    final SocketChannel channel = this.serverChannel.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    channel.socket().setTcpNoDelay(true);
+    final SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+    key.attach(new Connection(channel, key));
+  }
+
+  private void read(final Connection connection) {
+    final ByteBuffer input = connection.getInput();
+    try {
+      if (connection.getChannel().read(input) < 0) {
+        connection.close();
+        return;
+      }
+    } catch (final IOException e) {
+      connection.close();
+      return;
+    }
+
+    input.flip();
+    boolean broken = false;
+    while (input.remaining() >= BinaryProtocol.LENGTH_BYTES) {
+      final int length = input.getInt(input.position());
+      if (length < BinaryProtocol.HEADER_BYTES || length > BinaryProtocol.MAX_FRAME_BYTES) {
+        //  There is no way to find the next frame after a broken length.
+        broken = true;
+        break;
+      }
+      if (input.remaining() < BinaryProtocol.LENGTH_BYTES + length) {
+        break;
+      }
+      final int frameEnd = input.position() + BinaryProtocol.LENGTH_BYTES + length;
+      final int limit = input.limit();
+      input.position(input.position() + BinaryProtocol.LENGTH_BYTES).limit(frameEnd);
+      this.decode(connection, input);
+      input.limit(limit).position(frameEnd);
+    }
+    input.compact();
+
+    if (!this.batch.isEmpty()) {
+      this.batch.evaluateAndWrite(connection);
+    }
+    if (broken) {
+      connection.close();
+    } else {
+      this.write(connection);
+    }
+  }
+
+  private void write(final Connection connection) {
+    if (connection.getPendingBytes() > this.peakPendingBytes) {
+      this.peakPendingBytes = connection.getPendingBytes();
+    }
+    try {
+      if (connection.getPendingBytes() > 0) {
+        connection.flush();
+      }
+    } catch (final IOException e) {
+      connection.close();
+      return;
+    }
+
+    final boolean overLimit = connection.getPendingBytes() >= this.maxPendingBytes
+        || connection.getPendingEquity() >= this.maxPendingEquity;
+    final boolean underHalf = connection.getPendingBytes() <= this.maxPendingBytes / 2
+        && connection.getPendingEquity() <= this.maxPendingEquity / 2;
+    if (overLimit) {
+      if (!connection.isReadPaused()) {
+        ++this.readPauses;
+      }
+      connection.setReadPaused(true);
+    } else if (underHalf) {
+      connection.setReadPaused(false);
+    }
+    connection.getKey().interestOps((connection.isReadPaused() ? 0 : SelectionKey.OP_READ)
+        | (connection.getPendingBytes() > 0 ? SelectionKey.OP_WRITE : 0));
+  }
+
+  private void run() {
+    try {
+      while (this.running) {
+        this.selector.select();
+        for (Runnable completion = this.completions.poll(); completion != null;
+            completion = this.completions.poll()) {
+          completion.run();
+        }
+
+        final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            this.accept();
+            continue;
+          }
+          final Connection connection = (Connection) key.attachment();
+          try {
+            if (key.isReadable()) {
+              this.read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+              this.write(connection);
+            }
+          } catch (final RuntimeException e) {
+            //  Drop the one connection rather than the selector thread and every other client.
+            this.batch.clear();
+            connection.close();
+          }
+        }
+      }
+    } catch (final IOException e) {
+      this.running = false;
+    } finally {
+      for (final SelectionKey key : this.selector.keys()) {
+        if (key.attachment() instanceof Connection) {
+          ((Connection) key.attachment()).close();
+        }
+      }
+      try {
+        this.serverChannel.close();
+        this.selector.close();
+      } catch (final IOException ignored) {
+        //  Shutting down regardless.
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.running = false;
+    this.selector.wakeup();
+    boolean interrupted = false;
+    while (this.thread != Thread.currentThread() && this.thread.isAlive()) {
+      try {
+        this.thread.join();
+      } catch (final InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
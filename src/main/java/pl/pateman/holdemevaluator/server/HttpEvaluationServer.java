@@ -0,0 +1,254 @@
+package pl.pateman.holdemevaluator.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.evaluator.EquityCalculator;
+import pl.pateman.holdemevaluator.evaluator.EquityResult;
+import pl.pateman.holdemevaluator.evaluator.HandOutcome;
+import pl.pateman.holdemevaluator.evaluator.HoldemEvaluator;
+import pl.pateman.holdemevaluator.evaluator.Showdown;
+import pl.pateman.holdemevaluator.evaluator.ShowdownResult;
+import pl.pateman.holdemevaluator.parser.RangeParser;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+import pl.pateman.holdemevaluator.parser.StringHandParserException;
+
+public final class HttpEvaluationServer implements AutoCloseable {
+
+  //  A JSON endpoint for callers that would rather not speak the binary protocol:
+  //    GET /calculate?cards=AS KS QS JS TS
+  //    GET /showdown?board=2C 7D 9S JH QH&player=AS KS&player=TC TD
+  //    GET /equity?board=2C 7D 9S&dead=&player=QQ+,AKs&player=JJ
+  //  Cards are parsed like StringHandParser does, equity players take RangeParser ranges.
+  private static final String GET = "GET";
+  private static final String JSON = "application/json; charset=utf-8";
+  private static final String CARDS = "cards";
+  private static final String BOARD = "board";
+  private static final String DEAD = "dead";
+  private static final String PLAYER = "player";
+  private static final int MAX_HAND_CARDS = 7;
+  private static final int BAD_REQUEST = HttpURLConnection.HTTP_BAD_REQUEST;
+  private static final int BAD_METHOD = HttpURLConnection.HTTP_BAD_METHOD;
+
+  private final HttpServer server;
+  private final ExecutorService ownExecutor;
+  private final StringHandParser handParser = new StringHandParser();
+  private final RangeParser rangeParser = new RangeParser();
+  private final Showdown showdown = new Showdown();
+  private final EquityCalculator equityCalculator;
+
+  public HttpEvaluationServer(final InetSocketAddress address) throws IOException {
+    this(address, null, new EquityCalculator());
+  }
+
+  public HttpEvaluationServer(final InetSocketAddress address, final ExecutorService executor,
+      final EquityCalculator equityCalculator) throws IOException {
+    //  Without an executor the server runs a pool of its own and shuts it down on close.
+    this.equityCalculator = equityCalculator;
+    this.ownExecutor = executor == null
+        ? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()) : null;
+    this.server = HttpServer.create(address, 0);
+    this.server.setExecutor(executor == null ? this.ownExecutor : executor);
+    this.server.createContext("/calculate", exchange -> this.handle(exchange, this::calculate));
+    this.server.createContext("/showdown", exchange -> this.handle(exchange, this::showdown));
+    this.server.createContext("/equity", exchange -> this.handle(exchange, this::equity));
+    this.server.start();
+  }
+
+  public static HttpEvaluationServer onLoopback(final int port) throws IOException {
+    return new HttpEvaluationServer(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+  }
+
+  private static Map<String, List<String>> parseQuery(final String query)
+      throws UnsupportedEncodingException {
+    final Map<String, List<String>> parameters = new HashMap<>();
+    if (query == null) {
+      return parameters;
+    }
+    for (final String pair : query.split("&")) {
+      final int equals = pair.indexOf('=');
+      final String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals),
+          StandardCharsets.UTF_8.name());
+      final String value = equals < 0 ? ""
+          : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8.name());
+      parameters.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+    }
+    return parameters;
+  }
+
+  private static String single(final Map<String, List<String>> parameters, final String name,
+      final boolean required) throws StringHandParserException {
+    final List<String> values = parameters.get(name);
+    if (values == null || values.isEmpty()) {
+      if (required) {
+        throw new StringHandParserException("Missing parameter '" + name + "'");
+      }
+      return "";
+    }
+    return values.get(0);
+  }
+
+  private static String quote(final String value) {
+    final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char character = value.charAt(i);
+      if (character == '"' || character == '\\') {
+        builder.append('\\').append(character);
+      } else if (character < ' ') {
+        builder.append(String.format("\\u%04x", (int) character));
+      } else {
+        builder.append(character);
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  private static void appendCards(final StringBuilder json, final Card[] cards) {
+    json.append('[');
+    for (int i = 0; i < cards.length; i++) {
+      json.append(i > 0 ? "," : "").append(quote(cards[i].toString()));
+    }
+    json.append(']');
+  }
+
+  private static void send(final HttpExchange exchange, final int status, final String body)
+      throws IOException {
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", JSON);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  public InetSocketAddress getAddress() {
+    return this.server.getAddress();
+  }
+
+  private long parseCards(final String cards) throws StringHandParserException {
+    final Card[] parsedCards = this.handParser.parse(cards);
+    final long mask = CardMask.of(parsedCards);
+    if (CardMask.size(mask) != parsedCards.length) {
+      throw new StringHandParserException("'" + cards + "' holds the same card twice");
+    }
+    return mask;
+  }
+
+  private long[] parsePlayers(final Map<String, List<String>> parameters)
+      throws StringHandParserException {
+    final List<String> players = parameters.get(PLAYER);
+    if (players == null || players.isEmpty()) {
+      throw new StringHandParserException("Missing parameter '" + PLAYER + "'");
+    }
+    final long[] holeCardMasks = new long[players.size()];
+    for (int player = 0; player < holeCardMasks.length; player++) {
+      holeCardMasks[player] = this.parseCards(players.get(player));
+    }
+    return holeCardMasks;
+  }
+
+  private void handle(final HttpExchange exchange, final Handler handler) throws IOException {
+    try {
+      if (!GET.equals(exchange.getRequestMethod())) {
+        send(exchange, BAD_METHOD, "{\"error\":\"Only GET is supported\"}");
+        return;
+      }
+      final String json;
+      try {
+        json = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+      } catch (final StringHandParserException | IllegalArgumentException e) {
+        send(exchange, BAD_REQUEST, "{\"error\":" + quote(String.valueOf(e.getMessage())) + "}");
+        return;
+      }
+      send(exchange, HttpURLConnection.HTTP_OK, json);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private String calculate(final Map<String, List<String>> parameters)
+      throws StringHandParserException {
+    final long handMask = this.parseCards(single(parameters, CARDS, true));
+    if (handMask == CardMask.EMPTY || CardMask.size(handMask) > MAX_HAND_CARDS) {
+      throw new StringHandParserException("A hand holds between 1 and 7 cards");
+    }
+    final HandOutcome handOutcome = new HandOutcome();
+    new HoldemEvaluator().calculate(handMask, handOutcome);
+
+    final StringBuilder json = new StringBuilder("{\"handName\":")
+        .append(quote(handOutcome.getHandName().name()))
+        .append(",\"strength\":").append(handOutcome.getStrength())
+        .append(",\"topCards\":");
+    appendCards(json, handOutcome.getTopCards());
+    return json.append('}').toString();
+  }
+
+  private String showdown(final Map<String, List<String>> parameters)
+      throws StringHandParserException {
+    final ShowdownResult result = this.showdown.settle(
+        this.parseCards(single(parameters, BOARD, true)), this.parsePlayers(parameters));
+
+    final StringBuilder json = new StringBuilder("{\"players\":[");
+    for (int player = 0; player < result.getPlayerCount(); player++) {
+      json.append(player > 0 ? "," : "")
+          .append("{\"handName\":").append(quote(result.getHandName(player).name()))
+          .append(",\"strength\":").append(result.getStrength(player))
+          .append(",\"place\":").append(result.getPlace(player)).append('}');
+    }
+    return json.append("],\"split\":").append(result.isSplit()).append('}').toString();
+  }
+
+  private String equity(final Map<String, List<String>> parameters)
+      throws StringHandParserException {
+    final List<String> players = parameters.get(PLAYER);
+    if (players == null || players.size() < 2) {
+      throw new StringHandParserException("At least two '" + PLAYER + "' ranges are needed");
+    }
+    final long[][] ranges = new long[players.size()][];
+    for (int player = 0; player < ranges.length; player++) {
+      ranges[player] = this.rangeParser.parse(players.get(player)).getCombos();
+    }
+    final EquityResult result = this.equityCalculator.calculate(
+        this.parseCards(single(parameters, BOARD, false)),
+        this.parseCards(single(parameters, DEAD, false)), ranges);
+
+    final StringBuilder json = new StringBuilder("{\"exact\":").append(result.isExact())
+        .append(",\"trials\":").append(result.getTrials()).append(",\"players\":[");
+    for (int player = 0; player < result.getPlayerCount(); player++) {
+      json.append(player > 0 ? "," : "")
+          .append("{\"equity\":").append(result.getEquity(player))
+          .append(",\"win\":").append(result.getWinProbability(player))
+          .append(",\"tie\":").append(result.getTieProbability(player)).append('}');
+    }
+    return json.append("]}").toString();
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+    if (this.ownExecutor != null) {
+      this.ownExecutor.shutdown();
+    }
+  }
+
+  private interface Handler {
+
+    String handle(Map<String, List<String>> parameters) throws StringHandParserException;
+  }
+}
@@ -0,0 +1,137 @@
+package pl.pateman.holdemevaluator.server;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+import pl.pateman.holdemevaluator.evaluator.HandRankDecoder;
+import pl.pateman.holdemevaluator.evaluator.ShowdownResult;
+
+final class RequestBatch {
+
+  //  The RANK, CALCULATE and SHOWDOWN requests that arrived in one read, ranked together with
+  //  a single evaluateBatch call and answered in arrival order. Only used by the selector
+  //  thread, so its arrays are reused from one read to the next.
+  private static final int INITIAL_CAPACITY = 64;
+  private static final byte ERROR = 0;
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+  private byte[] opcodes = new byte[INITIAL_CAPACITY];
+  private int[] requestIds = new int[INITIAL_CAPACITY];
+  private int[] firstHands = new int[INITIAL_CAPACITY];
+  private String[] errors = new String[INITIAL_CAPACITY];
+  private long[] boardMasks = new long[INITIAL_CAPACITY];
+  private long[][] holeCardMasks = new long[INITIAL_CAPACITY][];
+  private long[] handMasks = new long[INITIAL_CAPACITY];
+  private int[] ranks = new int[INITIAL_CAPACITY];
+  private int size;
+  private int hands;
+
+  private int add(final byte opcode, final int requestId, final int handCount) {
+    if (this.size == this.opcodes.length) {
+      final int capacity = this.size * 2;
+      this.opcodes = Arrays.copyOf(this.opcodes, capacity);
+      this.requestIds = Arrays.copyOf(this.requestIds, capacity);
+      this.firstHands = Arrays.copyOf(this.firstHands, capacity);
+      this.errors = Arrays.copyOf(this.errors, capacity);
+      this.boardMasks = Arrays.copyOf(this.boardMasks, capacity);
+      this.holeCardMasks = Arrays.copyOf(this.holeCardMasks, capacity);
+    }
+    if (this.hands + handCount > this.handMasks.length) {
+      final int capacity = Math.max(this.handMasks.length * 2, this.hands + handCount);
+      this.handMasks = Arrays.copyOf(this.handMasks, capacity);
+      this.ranks = new int[capacity];
+    }
+    this.opcodes[this.size] = opcode;
+    this.requestIds[this.size] = requestId;
+    this.firstHands[this.size] = this.hands;
+    this.errors[this.size] = null;
+    this.holeCardMasks[this.size] = null;
+    this.hands += handCount;
+    return this.size++;
+  }
+
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  void clear() {
+    Arrays.fill(this.errors, 0, this.size, null);
+    Arrays.fill(this.holeCardMasks, 0, this.size, null);
+    this.size = 0;
+    this.hands = 0;
+  }
+
+  void addHand(final byte opcode, final int requestId, final long handMask) {
+    //  add may grow the arrays, so it has to run before any of them is dereferenced.
+    final int request = this.add(opcode, requestId, 1);
+    this.handMasks[this.firstHands[request]] = handMask;
+  }
+
+  void addShowdown(final int requestId, final long boardMask, final long[] holeCardMasks) {
+    final int request = this.add(BinaryProtocol.SHOWDOWN, requestId, holeCardMasks.length);
+    final int first = this.firstHands[request];
+    this.boardMasks[request] = boardMask;
+    this.holeCardMasks[request] = holeCardMasks;
+    for (int player = 0; player < holeCardMasks.length; player++) {
+      this.handMasks[first + player] = boardMask | holeCardMasks[player];
+    }
+  }
+
+  void addError(final int requestId, final String error) {
+    final int request = this.add(ERROR, requestId, 0);
+    this.errors[request] = error;
+  }
+
+  private void writeCalculate(final Connection connection, final int request) {
+    //  The batch has ranked the hand already, and the rank with the mask is all the decoder
+    //  needs for the top cards.
+    final long handMask = this.handMasks[this.firstHands[request]];
+    final int rank = this.ranks[this.firstHands[request]];
+    final Card[] topCards = HandRankDecoder.getTopCards(rank, handMask);
+    final ByteBuffer body = connection.beginResponse(this.requestIds[request],
+        Integer.BYTES + 2 * Byte.BYTES + topCards.length);
+    body.putInt(rank)
+        .put((byte) FastHoldemEvaluator.getHandName(rank).ordinal())
+        .put((byte) topCards.length);
+    for (final Card card : topCards) {
+      body.put((byte) card.getIndex());
+    }
+  }
+
+  private void writeShowdown(final Connection connection, final int request) {
+    final int first = this.firstHands[request];
+    final long[] holeCardMasks = this.holeCardMasks[request];
+    final ShowdownResult result = ShowdownResult.of(this.boardMasks[request], holeCardMasks,
+        Arrays.copyOfRange(this.ranks, first, first + holeCardMasks.length));
+    final int players = result.getPlayerCount();
+    final ByteBuffer body = connection.beginResponse(this.requestIds[request],
+        Byte.BYTES + players * (Integer.BYTES + Byte.BYTES));
+    body.put((byte) players);
+    for (int player = 0; player < players; player++) {
+      body.putInt(result.getStrength(player)).put((byte) result.getPlace(player));
+    }
+  }
+
+  void evaluateAndWrite(final Connection connection) {
+    this.evaluator.evaluateBatch(this.handMasks, 0, this.hands, this.ranks, 0);
+    for (int request = 0; request < this.size; request++) {
+      switch (this.opcodes[request]) {
+        case BinaryProtocol.RANK:
+          connection.beginResponse(this.requestIds[request], Integer.BYTES)
+              .putInt(this.ranks[this.firstHands[request]]);
+          break;
+        case BinaryProtocol.CALCULATE:
+          this.writeCalculate(connection, request);
+          break;
+        case BinaryProtocol.SHOWDOWN:
+          this.writeShowdown(connection, request);
+          break;
+        default:
+          connection.writeError(this.requestIds[request], this.errors[request]);
+          break;
+      }
+    }
+    this.clear();
+  }
+}
@@ -0,0 +1,61 @@
+package pl.pateman.holdemevaluator.store;
+
+import java.nio.ByteBuffer;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+
+public final class ResultAppender {
+
+  public static final int MAX_PLAYERS = Short.SIZE;
+
+  static final int WINNER_MASK = (1 << MAX_PLAYERS) - 1;
+
+  private final ResultStore store;
+  private final int[] segmentIndex = new int[1];
+  private ResultSegment segment;
+  private ByteBuffer buffer;
+  private long firstId;
+  private int size;
+  private int capacity;
+
+  ResultAppender(final ResultStore store) {
+    this.store = store;
+  }
+
+  public long append(final long handMask, final int rank) {
+    //  A plain evaluation seats nobody, so it only counts towards the hand names.
+    return this.write(handMask, rank, 0, 0);
+  }
+
+  public long append(final long handMask, final int rank, final int players,
+      final int winnerMask) {
+    //  The winner mask holds one bit per seat, ties set several of them.
+    if (players < 1 || players > MAX_PLAYERS) {
+      throw new IllegalArgumentException("A result has between 1 and " + MAX_PLAYERS + " players");
+    }
+    if ((winnerMask & ~((1 << players) - 1)) != 0) {
+      throw new IllegalArgumentException("Only seated players can win");
+    }
+    return this.write(handMask, rank, players, winnerMask);
+  }
+
+  private long write(final long handMask, final int rank, final int players,
+      final int winnerMask) {
+    if (this.size == this.capacity) {
+      this.segment = this.store.allocateSegment(this.segmentIndex);
+      this.buffer = this.segment.getBuffer();
+      this.firstId = (long) this.segmentIndex[0] * this.store.getSegmentRecords();
+      this.size = 0;
+      this.capacity = this.segment.getCapacity();
+    }
+
+    final int offset = this.size * ResultSegment.RECORD_BYTES;
+    this.buffer.putLong(offset + ResultSegment.HAND_MASK, handMask)
+        .putInt(offset + ResultSegment.RANK, rank)
+        .putShort(offset + ResultSegment.WINNER_MASK, (short) winnerMask)
+        .put(offset + ResultSegment.HAND_NAME,
+            (byte) FastHoldemEvaluator.getHandName(rank).ordinal())
+        .put(offset + ResultSegment.PLAYERS, (byte) players);
+    this.segment.publish(++this.size);
+    return this.firstId + this.size - 1;
+  }
+}
@@ -0,0 +1,40 @@
+package pl.pateman.holdemevaluator.store;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class ResultSegment {
+
+  //  One fixed-width record per slot, native byte order:
+  //    long hand mask, int rank, short winner mask, byte hand name ordinal, byte players
+  static final int RECORD_BYTES = 16;
+  static final int HAND_MASK = 0;
+  static final int RANK = 8;
+  static final int WINNER_MASK = 12;
+  static final int HAND_NAME = 14;
+  static final int PLAYERS = 15;
+
+  private final ByteBuffer buffer;
+  //  Only the owning appender writes, readers see every record below the published size.
+  private final AtomicInteger size = new AtomicInteger();
+
+  ResultSegment(final ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  int getCapacity() {
+    return this.buffer.capacity() / RECORD_BYTES;
+  }
+
+  int size() {
+    return this.size.get();
+  }
+
+  void publish(final int size) {
+    this.size.lazySet(size);
+  }
+}
@@ -0,0 +1,230 @@
+package pl.pateman.holdemevaluator.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import pl.pateman.holdemevaluator.HandName;
+
+public final class ResultStore implements AutoCloseable {
+
+  //  An append-only store of evaluator results kept outside the heap, either in direct buffers
+  //  or in segments mapped from a file. Each appender fills segments of its own, so worker
+  //  threads never contend on a record. A record id is its segment index times the records
+  //  per segment plus its slot, which leaves gaps wherever an appender stopped mid-segment.
+  public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+  public static final int MAX_SEGMENT_RECORDS = Integer.MAX_VALUE / ResultSegment.RECORD_BYTES;
+
+  private static final HandName[] HAND_NAMES = HandName.values();
+
+  private final int segmentRecords;
+  private final FileChannel channel;
+  private final Object lock = new Object();
+  private volatile ResultSegment[] segments = new ResultSegment[0];
+  private volatile boolean closed;
+
+  private ResultStore(final int segmentRecords, final FileChannel channel) {
+    this.segmentRecords = segmentRecords;
+    this.channel = channel;
+  }
+
+  public static ResultStore inMemory() {
+    return inMemory(DEFAULT_SEGMENT_RECORDS);
+  }
+
+  public static ResultStore inMemory(final int segmentRecords) {
+    checkSegmentRecords(segmentRecords);
+    return new ResultStore(segmentRecords, null);
+  }
+
+  public static ResultStore mapped(final Path file, final int segmentRecords)
+      throws IOException {
+    //  The file is truncated and grows one segment at a time. Records are in native byte order.
+    checkSegmentRecords(segmentRecords);
+    return new ResultStore(segmentRecords, FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE));
+  }
+
+  private static void checkSegmentRecords(final int segmentRecords) {
+    if (segmentRecords < 1 || segmentRecords > MAX_SEGMENT_RECORDS) {
+      throw new IllegalArgumentException(
+          "A segment holds between 1 and " + MAX_SEGMENT_RECORDS + " records");
+    }
+  }
+
+  public int getSegmentRecords() {
+    return segmentRecords;
+  }
+
+  public int getSegmentCount() {
+    return this.segments.length;
+  }
+
+  public ResultAppender newAppender() {
+    //  An appender belongs to a single thread, create one per worker.
+    this.checkOpen();
+    return new ResultAppender(this);
+  }
+
+  ResultSegment allocateSegment(final int[] segmentIndex) {
+    synchronized (this.lock) {
+      this.checkOpen();
+      final int index = this.segments.length;
+      final int bytes = this.segmentRecords * ResultSegment.RECORD_BYTES;
+      final ByteBuffer buffer;
+      if (this.channel == null) {
+        buffer = ByteBuffer.allocateDirect(bytes);
+      } else {
+        try {
+          buffer = this.channel.map(MapMode.READ_WRITE, (long) index * bytes, bytes);
+        } catch (final IOException e) {
+          throw new UncheckedIOException("Could not map segment " + index, e);
+        }
+      }
+      final ResultSegment segment = new ResultSegment(buffer.order(ByteOrder.nativeOrder()));
+      final ResultSegment[] grown = Arrays.copyOf(this.segments, index + 1);
+      grown[index] = segment;
+      this.segments = grown;
+      segmentIndex[0] = index;
+      return segment;
+    }
+  }
+
+  private void checkOpen() {
+    if (this.closed) {
+      throw new IllegalStateException("The store has been closed");
+    }
+  }
+
+  public long getRecordCount() {
+    long records = 0L;
+    for (final ResultSegment segment : this.segments) {
+      records += segment.size();
+    }
+    return records;
+  }
+
+  private int offsetOf(final ResultSegment[] segments, final long recordId) {
+    final long segment = recordId / this.segmentRecords;
+    final int slot = (int) (recordId % this.segmentRecords);
+    if (recordId < 0 || segment >= segments.length || slot >= segments[(int) segment].size()) {
+      throw new IllegalArgumentException("There is no record " + recordId);
+    }
+    return slot * ResultSegment.RECORD_BYTES;
+  }
+
+  private ByteBuffer bufferOf(final ResultSegment[] segments, final long recordId) {
+    return segments[(int) (recordId / this.segmentRecords)].getBuffer();
+  }
+
+  public boolean contains(final long recordId) {
+    final ResultSegment[] segments = this.segments;
+    final long segment = recordId / this.segmentRecords;
+    return recordId >= 0 && segment < segments.length
+        && recordId % this.segmentRecords < segments[(int) segment].size();
+  }
+
+  public long getHandMask(final long recordId) {
+    final ResultSegment[] segments = this.segments;
+    final int offset = this.offsetOf(segments, recordId);
+    return this.bufferOf(segments, recordId).getLong(offset + ResultSegment.HAND_MASK);
+  }
+
+  public int getRank(final long recordId) {
+    final ResultSegment[] segments = this.segments;
+    final int offset = this.offsetOf(segments, recordId);
+    return this.bufferOf(segments, recordId).getInt(offset + ResultSegment.RANK);
+  }
+
+  public HandName getHandName(final long recordId) {
+    final ResultSegment[] segments = this.segments;
+    final int offset = this.offsetOf(segments, recordId);
+    return HAND_NAMES[this.bufferOf(segments, recordId).get(offset + ResultSegment.HAND_NAME)];
+  }
+
+  public int getPlayers(final long recordId) {
+    //  Zero for a plain evaluation, which has no seats and no winners.
+    final ResultSegment[] segments = this.segments;
+    final int offset = this.offsetOf(segments, recordId);
+    return this.bufferOf(segments, recordId).get(offset + ResultSegment.PLAYERS);
+  }
+
+  public int getWinnerMask(final long recordId) {
+    final ResultSegment[] segments = this.segments;
+    final int offset = this.offsetOf(segments, recordId);
+    return this.bufferOf(segments, recordId).getShort(offset + ResultSegment.WINNER_MASK)
+        & ResultAppender.WINNER_MASK;
+  }
+
+  public void forEach(final ResultVisitor visitor) {
+    //  Segment by segment in id order, covering the records published when each one is reached.
+    final ResultSegment[] segments = this.segments;
+    for (int index = 0; index < segments.length; index++) {
+      final ByteBuffer buffer = segments[index].getBuffer();
+      final int size = segments[index].size();
+      final long firstId = (long) index * this.segmentRecords;
+      for (int slot = 0, offset = 0; slot < size; slot++, offset += ResultSegment.RECORD_BYTES) {
+        visitor.visit(firstId + slot, buffer.getLong(offset + ResultSegment.HAND_MASK),
+            buffer.getInt(offset + ResultSegment.RANK),
+            buffer.get(offset + ResultSegment.PLAYERS),
+            buffer.getShort(offset + ResultSegment.WINNER_MASK) & ResultAppender.WINNER_MASK);
+      }
+    }
+  }
+
+  public ResultSummary summarize() {
+    final long[] handNames = new long[HAND_NAMES.length];
+    final long[] seats = new long[ResultAppender.MAX_PLAYERS];
+    final long[] wins = new long[ResultAppender.MAX_PLAYERS];
+    final long[] ties = new long[ResultAppender.MAX_PLAYERS];
+    final double[] shares = new double[ResultAppender.MAX_PLAYERS];
+    long records = 0L;
+
+    final ResultSegment[] segments = this.segments;
+    for (final ResultSegment segment : segments) {
+      final ByteBuffer buffer = segment.getBuffer();
+      final int size = segment.size();
+      for (int offset = 0; offset < size * ResultSegment.RECORD_BYTES;
+          offset += ResultSegment.RECORD_BYTES) {
+        ++handNames[buffer.get(offset + ResultSegment.HAND_NAME)];
+        //  Plain evaluations have no players and stay out of the seat statistics.
+        final int players = buffer.get(offset + ResultSegment.PLAYERS);
+        for (int player = 0; player < players; player++) {
+          ++seats[player];
+        }
+        final int winnerMask =
+            buffer.getShort(offset + ResultSegment.WINNER_MASK) & ResultAppender.WINNER_MASK;
+        final int winners = Integer.bitCount(winnerMask);
+        for (int mask = winnerMask; mask != 0; mask &= mask - 1) {
+          final int player = Integer.numberOfTrailingZeros(mask);
+          if (winners == 1) {
+            ++wins[player];
+          } else {
+            ++ties[player];
+          }
+          shares[player] += 1.0 / winners;
+        }
+      }
+      records += size;
+    }
+    return new ResultSummary(records, handNames, seats, wins, ties, shares);
+  }
+
+  @Override
+  public void close() throws IOException {
+    //  Direct and mapped buffers are released once the store is no longer reachable.
+    synchronized (this.lock) {
+      this.closed = true;
+      this.segments = new ResultSegment[0];
+      if (this.channel != null) {
+        this.channel.close();
+      }
+    }
+  }
+}
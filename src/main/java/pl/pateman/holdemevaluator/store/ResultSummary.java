@@ -0,0 +1,72 @@
+package pl.pateman.holdemevaluator.store;
+
+import pl.pateman.holdemevaluator.HandName;
+
+public final class ResultSummary {
+
+  private final long records;
+  private final long[] handNameCounts;
+  private final long[] seats;
+  private final long[] wins;
+  private final long[] ties;
+  private final double[] shares;
+
+  ResultSummary(final long records, final long[] handNameCounts, final long[] seats,
+      final long[] wins, final long[] ties, final double[] shares) {
+    this.records = records;
+    this.handNameCounts = handNameCounts;
+    this.seats = seats;
+    this.wins = wins;
+    this.ties = ties;
+    this.shares = shares;
+  }
+
+  private static double rate(final double count, final long records) {
+    return records == 0 ? 0.0 : count / records;
+  }
+
+  public long getRecords() {
+    return records;
+  }
+
+  public long getCount(final HandName handName) {
+    return this.handNameCounts[handName.ordinal()];
+  }
+
+  public long[] getHandNameCounts() {
+    return this.handNameCounts.clone();
+  }
+
+  public long getSeated(final int player) {
+    //  The number of results that had this player at the table.
+    return this.seats[player];
+  }
+
+  public long getWins(final int player) {
+    return this.wins[player];
+  }
+
+  public long getTies(final int player) {
+    return this.ties[player];
+  }
+
+  public double getWinRate(final int player) {
+    return rate(this.wins[player], this.seats[player]);
+  }
+
+  public double getTieRate(final int player) {
+    return rate(this.ties[player], this.seats[player]);
+  }
+
+  public double getEquity(final int player) {
+    //  Wins plus the player's share of every split pot.
+    return rate(this.shares[player], this.seats[player]);
+  }
+
+  @Override
+  public String toString() {
+    return "ResultSummary{" +
+        "records=" + records +
+        '}';
+  }
+}
@@ -0,0 +1,6 @@
+package pl.pateman.holdemevaluator.store;
+
+public interface ResultVisitor {
+
+  void visit(long recordId, long handMask, int rank, int players, int winnerMask);
+}
@@ -0,0 +1,52 @@
+package pl.pateman.holdemevaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class CardMaskTest {
+
+  @Test
+  public void testCardIndices() throws Exception {
+    long seen = CardMask.EMPTY;
+    for (final Suit suit : Suit.values()) {
+      for (final CardValue value : CardValue.values()) {
+        final Card card = new Card(value, suit);
+        assertTrue(card.getIndex() >= 0 && card.getIndex() < Card.COUNT);
+        assertFalse(CardMask.contains(seen, card));
+        seen |= card.getMask();
+
+        assertSame(Card.of(value, suit), Card.fromIndex(card.getIndex()));
+        assertEquals(card, Card.fromIndex(card.getIndex()));
+      }
+    }
+    assertEquals(CardMask.FULL_DECK, seen);
+
+    //  Ranks are ordered from the two to the ace.
+    assertEquals(0, Card.of(CardValue.TWO, Suit.CLUBS).getRankIndex());
+    assertEquals(12, Card.of(CardValue.ACE, Suit.CLUBS).getRankIndex());
+  }
+
+  @Test
+  public void testMaskRoundTrip() throws Exception {
+    final Card[] cards = {Card.of(CardValue.ACE, Suit.HEARTS), Card.of(CardValue.TWO, Suit.CLUBS),
+        Card.of(CardValue.KING, Suit.DIAMONDS)};
+    final long mask = CardMask.of(cards);
+    assertEquals(3, CardMask.size(mask));
+    assertTrue(TestUtil.arrayContainsAll(CardMask.toCards(mask), cards));
+
+    final int[] indices = new int[Card.COUNT];
+    final int count = CardMask.toIndices(mask, indices);
+    assertEquals(3, count);
+    assertEquals(mask, CardMask.of(indices[0], indices[1], indices[2]));
+    assertArrayEquals(new Card[]{Card.of(CardValue.TWO, Suit.CLUBS),
+        Card.of(CardValue.ACE, Suit.HEARTS), Card.of(CardValue.KING, Suit.DIAMONDS)},
+        CardMask.toCards(mask));
+  }
+}
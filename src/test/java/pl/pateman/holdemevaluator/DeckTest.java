@@ -0,0 +1,103 @@
+package pl.pateman.holdemevaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class DeckTest {
+
+  @Test
+  public void testDrawsDistinctLiveCards() {
+    final long deadCards = CardMask.of(0, 13, 51);
+    final Deck deck = new Deck(7L, deadCards);
+    assertEquals(49, deck.size());
+    long drawn = CardMask.EMPTY;
+    while (deck.size() > 0) {
+      final int card = deck.draw();
+      assertEquals(0L, (drawn | deadCards) & 1L << card);
+      drawn |= 1L << card;
+      assertEquals(CardMask.FULL_DECK & ~deadCards & ~drawn, deck.getRemainingCards());
+    }
+    assertEquals(CardMask.FULL_DECK & ~deadCards, drawn);
+  }
+
+  @Test
+  public void testMatchesSplittableRandom() {
+    final SplittableRandom random = new SplittableRandom(11L);
+    final Deck deck = new Deck(11L);
+    final int expected = (int) (((random.nextLong() >>> 32) * Card.COUNT) >>> 32);
+    assertEquals(expected, deck.draw());
+  }
+
+  @Test
+  public void testResetRestoresTheDeal() {
+    final Deck deck = new Deck(3L);
+    final int[] first = new int[7];
+    deck.draw(first, 0, 7);
+    deck.reset();
+    assertEquals(Card.COUNT, deck.size());
+    deck.jump(-7);
+    final int[] second = new int[7];
+    deck.draw(second, 0, 7);
+    assertArrayEquals(first, second);
+  }
+
+  @Test
+  public void testShardsContinueTheSequentialRun() {
+    //  Deals of seven cards, so the second shard of ten deals starts 70 draws in.
+    final Deck sequential = new Deck(5L);
+    final long[] deals = new long[20];
+    for (int deal = 0; deal < deals.length; deal++) {
+      deals[deal] = sequential.drawMask(7);
+      sequential.reset();
+      assertEquals(7, CardMask.size(deals[deal]));
+    }
+    final Deck shard = new Deck(5L);
+    shard.jump(70);
+    for (int deal = 10; deal < deals.length; deal++) {
+      assertEquals(deals[deal], shard.drawMask(7));
+      shard.reset();
+    }
+  }
+
+  @Test
+  public void testUniformDraws() {
+    final Deck deck = Deck.forShard(13L, 2);
+    final int[] counts = new int[Card.COUNT];
+    final int deals = 52000;
+    for (int deal = 0; deal < deals; deal++) {
+      for (long mask = deck.drawMask(5); mask != 0; mask &= mask - 1) {
+        ++counts[Long.numberOfTrailingZeros(mask)];
+      }
+      deck.reset();
+    }
+    for (final int count : counts) {
+      //  5000 expected per card, with a standard deviation of about 70.
+      assertTrue(Math.abs(count - 5000) < 400);
+    }
+  }
+
+  @Test
+  public void testLastShard() {
+    final Deck jumped = new Deck(3L);
+    jumped.jump((Deck.MAX_SHARDS - 1) * Deck.SHARD_DRAWS);
+    assertEquals(jumped.drawMask(7), Deck.forShard(3L, Deck.MAX_SHARDS - 1).drawMask(7));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyShards() {
+    //  It would deal exactly what shard 0 deals.
+    Deck.forShard(3L, Deck.MAX_SHARDS);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testEmptyDeck() {
+    final Deck deck = new Deck(1L, CardMask.FULL_DECK);
+    deck.draw();
+  }
+}
@@ -0,0 +1,119 @@
+package pl.pateman.holdemevaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(UnitTest.class)
+public class SuitIsomorphismTest {
+
+  private StringHandParser handParser;
+
+  private long mask(final String cards) throws Exception {
+    return CardMask.of(this.handParser.parse(cards));
+  }
+
+  private static long permute(final long mask, final int[] suits) {
+    long permuted = CardMask.EMPTY;
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      final int card = Long.numberOfTrailingZeros(remaining);
+      permuted |= 1L << (suits[card / Card.RANKS] * Card.RANKS + card % Card.RANKS);
+    }
+    return permuted;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testIsomorphicDeals() throws Exception {
+    assertEquals(SuitIsomorphism.getIndex(this.mask("AS KS"), this.mask("2H 7D 9C")),
+        SuitIsomorphism.getIndex(this.mask("AH KH"), this.mask("2S 7C 9D")));
+    assertNotEquals(SuitIsomorphism.getIndex(this.mask("AS KS"), this.mask("2H 7D 9C")),
+        SuitIsomorphism.getIndex(this.mask("AS KH"), this.mask("2H 7D 9C")));
+    assertNotEquals(SuitIsomorphism.getIndex(this.mask("AS KS"), this.mask("2H 7D 9C")),
+        SuitIsomorphism.getIndex(this.mask("AS KS"), this.mask("2S 7D 9C")));
+    //  The same cards split differently between the groups are different deals.
+    assertNotEquals(SuitIsomorphism.getIndex(this.mask("AS KS"), this.mask("2H")),
+        SuitIsomorphism.getIndex(this.mask("AS 2H"), this.mask("KS")));
+  }
+
+  @Test
+  public void testRandomSuitPermutations() throws Exception {
+    final Random random = new Random(15L);
+    final Deck deck = new Deck(15L);
+    final int[] suits = {0, 1, 2, 3};
+    for (int deal = 0; deal < 10000; deal++) {
+      deck.reset();
+      final long hole = TestUtil.dealHoleCards(deck, 1)[0];
+      final long board = deck.drawMask(deal % 6);
+      for (int i = suits.length - 1; i > 0; i--) {
+        final int j = random.nextInt(i + 1);
+        final int suit = suits[i];
+        suits[i] = suits[j];
+        suits[j] = suit;
+      }
+
+      final long index = SuitIsomorphism.getIndex(hole, board);
+      assertEquals(index, SuitIsomorphism.getIndex(permute(hole, suits), permute(board, suits)));
+      assertArrayEquals(new long[]{SuitIsomorphism.getHoleMask(index),
+              SuitIsomorphism.getBoardMask(index)},
+          SuitIsomorphism.canonicalize(hole, board));
+      assertEquals(index, SuitIsomorphism.getIndex(SuitIsomorphism.getHoleMask(index),
+          SuitIsomorphism.getBoardMask(index)));
+    }
+  }
+
+  @Test
+  public void testStartingHandClasses() {
+    final Set<Long> indices = new HashSet<>();
+    for (final long combo : HandRange.all().getCombos()) {
+      indices.add(SuitIsomorphism.getIndex(combo, CardMask.EMPTY));
+    }
+    assertEquals(HandRange.STARTING_HAND_CLASSES, indices.size());
+  }
+
+  @Test
+  public void testFlopClasses() {
+    //  Every class has exactly one deal that is its own canonical form.
+    int classes = 0;
+    final long[] holes = HandRange.all().getCombos();
+    for (int first = 0; first < Card.COUNT; first++) {
+      for (int second = first + 1; second < Card.COUNT; second++) {
+        for (int third = second + 1; third < Card.COUNT; third++) {
+          final long flop = 1L << first | 1L << second | 1L << third;
+          for (final long hole : holes) {
+            if ((hole & flop) != 0) {
+              continue;
+            }
+            final long[] canonical = SuitIsomorphism.canonicalize(hole, flop);
+            if (canonical[0] == hole && canonical[1] == flop) {
+              ++classes;
+            }
+          }
+        }
+      }
+    }
+    assertEquals(1286792, classes);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOverlappingGroups() throws Exception {
+    SuitIsomorphism.canonicalize(this.mask("AS KS"), this.mask("KS 2H 3H"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfHoleCards() throws Exception {
+    SuitIsomorphism.getIndex(this.mask("AS KS QS"), CardMask.EMPTY);
+  }
+}
@@ -6,6 +6,21 @@ public final class TestUtil {
 
   }
 
+  public static long randomHand(final Deck deck, final int cards) {
+    //  A fresh deal from a full deck every time.
+    deck.reset();
+    return deck.drawMask(cards);
+  }
+
+  public static long[] dealHoleCards(final Deck deck, final int players) {
+    //  Two cards each from what is left in the deck, which stays drawn for the board.
+    final long[] holeCards = new long[players];
+    for (int player = 0; player < players; player++) {
+      holeCards[player] = deck.drawMask(2);
+    }
+    return holeCards;
+  }
+
   public static  <T> boolean arrayContainsAll(final T[] arrayA, final T[] arrayB) {
     for (final T b : arrayB) {
       boolean aContainsB = false;
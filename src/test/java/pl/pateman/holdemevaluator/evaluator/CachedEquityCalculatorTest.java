@@ -0,0 +1,59 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandRange;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(IntegrationTest.class)
+public class CachedEquityCalculatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  private StringHandParser handParser;
+
+  private long mask(final String cards) throws Exception {
+    return CardMask.of(this.handParser.parse(cards));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testIsomorphicDealsShareTheResult() throws Exception {
+    final CachedEquityCalculator calculator = new CachedEquityCalculator();
+    final EquityResult result = calculator.calculateAgainstRandomHand(this.mask("AS KS"),
+        this.mask("2H 7D 9C QS"));
+    assertSame(result, calculator.calculateAgainstRandomHand(this.mask("AH KH"),
+        this.mask("2S 7C 9D QH")));
+    assertSame(result, calculator.calculateAgainstRandomHand(this.mask("KD AD"),
+        this.mask("9S 2C 7H QD")));
+    assertEquals(2L, calculator.getCache().getHits());
+    assertEquals(1L, calculator.getCache().getMisses());
+
+    final EquityResult direct = new EquityCalculator().calculate(this.mask("2H 7D 9C QS"),
+        CardMask.EMPTY, new long[]{this.mask("AS KS")}, HandRange.all().getCombos());
+    assertEquals(direct.getTrials(), result.getTrials());
+    assertEquals(direct.getEquity(0), result.getEquity(0), DELTA);
+  }
+
+  @Test
+  public void testDifferentClassesAreKeptApart() throws Exception {
+    final CachedEquityCalculator calculator = new CachedEquityCalculator();
+    final double suited = calculator.calculateAgainstRandomHand(this.mask("AS KS"),
+        this.mask("2S 7S 9C QD")).getEquity(0);
+    final double offsuit = calculator.calculateAgainstRandomHand(this.mask("AH KH"),
+        this.mask("2S 7S 9C QD")).getEquity(0);
+    assertEquals(2L, calculator.getCache().getMisses());
+    assertTrue(suited > offsuit);
+  }
+}
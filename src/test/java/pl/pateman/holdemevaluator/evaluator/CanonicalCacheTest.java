@@ -0,0 +1,108 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class CanonicalCacheTest {
+
+  @Test
+  public void testGetAndPut() {
+    final CanonicalCache<String> cache = new CanonicalCache<>(16);
+    assertNull(cache.get(42L));
+    cache.put(42L, "first");
+    cache.put(42L, "second");
+    assertEquals("second", cache.get(42L));
+    assertEquals(1, cache.size());
+    assertEquals(1L, cache.getHits());
+    assertEquals(1L, cache.getMisses());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertNull(cache.get(42L));
+  }
+
+  @Test
+  public void testCapacityIsBounded() {
+    final CanonicalCache<Long> cache = new CanonicalCache<>(100);
+    assertEquals(64, cache.getCapacity());
+    for (long key = 0; key < 10000; key++) {
+      cache.put(key, key);
+    }
+    assertTrue(cache.size() <= cache.getCapacity());
+    for (long key = 0; key < 10000; key++) {
+      final Long value = cache.get(key);
+      assertTrue(value == null || value == key);
+    }
+  }
+
+  @Test
+  public void testHitEntriesSurviveNewKeys() {
+    final CanonicalCache<Long> cache = new CanonicalCache<>(4);
+    cache.put(1L, 1L);
+    for (long key = 2; key < 100; key++) {
+      assertEquals(Long.valueOf(1L), cache.get(1L));
+      cache.put(key, key);
+    }
+    assertEquals(Long.valueOf(99L), cache.get(99L));
+  }
+
+  @Test
+  public void testComputeIfAbsent() {
+    final CanonicalCache<Long> cache = new CanonicalCache<>();
+    final AtomicInteger loads = new AtomicInteger();
+    for (int round = 0; round < 3; round++) {
+      for (long key = 0; key < 100; key++) {
+        assertEquals(Long.valueOf(key * 2),
+            cache.computeIfAbsent(key, k -> {
+              loads.incrementAndGet();
+              return k * 2;
+            }));
+      }
+    }
+    assertEquals(100, loads.get());
+    assertEquals(200L, cache.getHits());
+    assertEquals(100L, cache.getMisses());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    final CanonicalCache<Long> cache = new CanonicalCache<>(256);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        final long offset = thread * 7L;
+        futures.add(executor.submit(() -> {
+          for (long i = 0; i < 200000; i++) {
+            final long key = (i + offset) % 1000;
+            assertEquals(Long.valueOf(-key), cache.computeIfAbsent(key, k -> -k));
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(800000L, cache.getHits() + cache.getMisses());
+    assertTrue(cache.size() <= cache.getCapacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullValue() {
+    new CanonicalCache<String>().put(1L, null);
+  }
+}
@@ -0,0 +1,172 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(IntegrationTest.class)
+public class EquityCalculatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  private StringHandParser handParser;
+
+  private double bruteForceEquity(final Card[] board, final Card[] heroCards,
+      final Card[] villainCards) {
+    final HoldemEvaluator evaluator = new HoldemEvaluator();
+    final long used = CardMask.of(board) | CardMask.of(heroCards) | CardMask.of(villainCards);
+    double equity = 0.0;
+    int trials = 0;
+    for (int turn = 0; turn < Card.COUNT; turn++) {
+      for (int river = turn + 1; river < Card.COUNT; river++) {
+        if ((used & (1L << turn | 1L << river)) != 0) {
+          continue;
+        }
+        final Card[] runout = new Card[board.length + 2];
+        System.arraycopy(board, 0, runout, 0, board.length);
+        runout[board.length] = Card.fromIndex(turn);
+        runout[board.length + 1] = Card.fromIndex(river);
+        final int comparison = evaluator.calculate(heroCards, runout)
+            .compareTo(evaluator.calculate(villainCards, runout));
+        equity += comparison > 0 ? 1.0 : comparison == 0 ? 0.5 : 0.0;
+        ++trials;
+      }
+    }
+    return equity / trials;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testExactFlopEquity() throws Exception {
+    final Card[] board = this.handParser.parse("9H 6C TD");
+    final Card[] hero = this.handParser.parse("JC 8C");
+    final Card[] villain = this.handParser.parse("TS TC");
+
+    final EquityResult result = new EquityCalculator().calculate(board, hero, villain);
+    assertTrue(result.isExact());
+    assertEquals(990, result.getTrials());
+    assertEquals(this.bruteForceEquity(board, hero, villain), result.getEquity(0), DELTA);
+    assertEquals(1.0, result.getEquity(0) + result.getEquity(1), DELTA);
+    assertEquals(1.0, result.getWinProbability(0) + result.getTieProbability(0)
+        + result.getLossProbability(0), DELTA);
+    assertEquals(0.0, result.getStandardError(0), DELTA);
+  }
+
+  @Test
+  public void testSplitOnTheBoard() throws Exception {
+    final EquityResult result = new EquityCalculator().calculate(
+        this.handParser.parse("TS JS QS KS AS"), this.handParser.parse("2C 3D"),
+        this.handParser.parse("4H 5H"), this.handParser.parse("7C 7D"));
+    assertEquals(1, result.getTrials());
+    assertEquals(1.0, result.getTieProbability(2), DELTA);
+    assertEquals(1.0 / 3.0, result.getEquity(1), DELTA);
+  }
+
+  @Test
+  public void testMonteCarloEquity() throws Exception {
+    final Card[] board = this.handParser.parse("9H 6C TD");
+    final Card[] hero = this.handParser.parse("JC 8C");
+    final Card[] villain = this.handParser.parse("TS TC");
+    final double exactEquity = new EquityCalculator().calculate(board, hero, villain)
+        .getEquity(0);
+
+    final EquityCalculator sampler = new EquityCalculator(0L, 200000, 7L);
+    final EquityResult result = sampler.calculate(board, hero, villain);
+    assertFalse(result.isExact());
+    assertEquals(200000, result.getTrials());
+    assertTrue(result.getStandardError(0) > 0.0);
+    assertTrue(result.getConfidenceIntervalLow(0) - 0.01 < exactEquity);
+    assertTrue(result.getConfidenceIntervalHigh(0) + 0.01 > exactEquity);
+    assertEquals(result.getEquity(0), sampler.calculate(board, hero, villain).getEquity(0),
+        0.0);
+  }
+
+  @Test
+  public void testRanges() throws Exception {
+    final long board = CardMask.of(this.handParser.parse("2C 7D 9S"));
+    final long[] aces = {CardMask.of(this.handParser.parse("AS AH")),
+        CardMask.of(this.handParser.parse("AD AC"))};
+    final long[] kings = {CardMask.of(this.handParser.parse("KS KH")),
+        CardMask.of(this.handParser.parse("KD KC"))};
+    final EquityResult result = new EquityCalculator().calculate(board, CardMask.EMPTY, aces,
+        kings);
+    assertTrue(result.isExact());
+    assertEquals(4 * 990, result.getTrials());
+    assertTrue(result.getEquity(0) > 0.9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOneCardCombo() throws Exception {
+    //  Enumerating as if two cards were held would skip part of the runouts.
+    final long board = CardMask.of(this.handParser.parse("2C 7D 9H"));
+    new EquityCalculator(0L, 10, 0L).calculate(board, CardMask.EMPTY,
+        new long[]{CardMask.of(this.handParser.parse("AS"))},
+        new long[]{CardMask.of(this.handParser.parse("QH QD"))});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardOutsideTheDeck() throws Exception {
+    final long board = CardMask.of(this.handParser.parse("2C 7D 9H")) | 1L << 60;
+    new EquityCalculator(0L, 10, 0L).calculate(board, CardMask.EMPTY,
+        new long[]{CardMask.of(this.handParser.parse("AS KS"))},
+        new long[]{CardMask.of(this.handParser.parse("QH QD"))});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoMonteCarloTrials() {
+    new EquityCalculator(0L, 0, 0L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCollidingRanges() throws Exception {
+    final long aces = CardMask.of(this.handParser.parse("AS AH"));
+    new EquityCalculator(0L, 10, 0L).calculate(CardMask.EMPTY, CardMask.EMPTY,
+        new long[]{aces}, new long[]{aces});
+  }
+
+  @Test
+  public void testParallelMatchesSequential() throws Exception {
+    final long board = CardMask.of(this.handParser.parse("2C 7D"));
+    final long[] hero = {CardMask.of(this.handParser.parse("AS KS"))};
+    final long[] villains = {CardMask.of(this.handParser.parse("QH QD")),
+        CardMask.of(this.handParser.parse("JH JD")), CardMask.of(this.handParser.parse("8C 9C"))};
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final EquityResult sequential = new EquityCalculator(
+          EquityCalculator.DEFAULT_EXACT_TRIAL_LIMIT, 1, 0L, null)
+          .calculate(board, CardMask.EMPTY, hero, villains);
+      final EquityResult parallel = new EquityCalculator(
+          EquityCalculator.DEFAULT_EXACT_TRIAL_LIMIT, 1, 0L, pool)
+          .calculate(board, CardMask.EMPTY, hero, villains);
+      assertTrue(parallel.isExact());
+      assertEquals(3 * 15180, parallel.getTrials());
+      assertEquals(sequential.getEquity(0), parallel.getEquity(0), 0.0);
+      assertEquals(sequential.getTieProbability(1), parallel.getTieProbability(1), 0.0);
+
+      final EquityResult sampledSequential = new EquityCalculator(0L, 100000, 11L, null)
+          .calculate(board, CardMask.EMPTY, hero, villains);
+      final EquityResult sampledParallel = new EquityCalculator(0L, 100000, 11L, pool)
+          .calculate(board, CardMask.EMPTY, hero, villains);
+      assertEquals(100000, sampledParallel.getTrials());
+      assertEquals(sampledSequential.getEquity(0), sampledParallel.getEquity(0), 0.0);
+      assertEquals(sampledSequential.getStandardError(0), sampledParallel.getStandardError(0),
+          0.0);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.Suit;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class FastHoldemEvaluatorTest {
+
+  private FastHoldemEvaluator evaluator;
+  private List<Card> deck;
+
+  private void assertRankHandName(final Card[] cards, final HandName expectedHandName) {
+    assertEquals(expectedHandName, FastHoldemEvaluator.getHandName(this.evaluator.rank(cards)));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.evaluator = new FastHoldemEvaluator();
+    this.deck = new ArrayList<>();
+    for (final Suit suit : Suit.values()) {
+      for (final CardValue value : CardValue.values()) {
+        this.deck.add(new Card(value, suit));
+      }
+    }
+  }
+
+  @Test
+  public void testRankHandName() throws Exception {
+    //  AS KH 9H 6C TD JC 7H - high card.
+    this.assertRankHandName(new Card[]{new Card(CardValue.ACE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.NINE, Suit.HEARTS),
+        new Card(CardValue.SIX, Suit.CLUBS), new Card(CardValue.TEN, Suit.DIAMONDS),
+        new Card(CardValue.JACK, Suit.CLUBS), new Card(CardValue.SEVEN, Suit.HEARTS)},
+        HandName.HIGH_CARD);
+    //  AS KC 2H 5C 3S KD 4S - straight.
+    this.assertRankHandName(new Card[]{new Card(CardValue.ACE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.CLUBS), new Card(CardValue.TWO, Suit.HEARTS),
+        new Card(CardValue.FIVE, Suit.CLUBS), new Card(CardValue.THREE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.DIAMONDS), new Card(CardValue.FOUR, Suit.SPADES)},
+        HandName.STRAIGHT);
+    //  9S KC QH JC TS 2D 2H - straight.
+    this.assertRankHandName(new Card[]{new Card(CardValue.NINE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.CLUBS), new Card(CardValue.QUEEN, Suit.HEARTS),
+        new Card(CardValue.JACK, Suit.CLUBS), new Card(CardValue.TEN, Suit.SPADES),
+        new Card(CardValue.TWO, Suit.DIAMONDS), new Card(CardValue.TWO, Suit.HEARTS)},
+        HandName.STRAIGHT);
+    //  2C 2S 2D KH KC KS - full house.
+    this.assertRankHandName(new Card[]{new Card(CardValue.TWO, Suit.CLUBS),
+        new Card(CardValue.TWO, Suit.SPADES), new Card(CardValue.TWO, Suit.DIAMONDS),
+        new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.KING, Suit.CLUBS),
+        new Card(CardValue.KING, Suit.SPADES)}, HandName.FULL_HOUSE);
+    //  2H 5H 8H 4H 3H JC AH - straight flush.
+    this.assertRankHandName(new Card[]{new Card(CardValue.TWO, Suit.HEARTS),
+        new Card(CardValue.FIVE, Suit.HEARTS), new Card(CardValue.EIGHT, Suit.HEARTS),
+        new Card(CardValue.FOUR, Suit.HEARTS), new Card(CardValue.THREE, Suit.HEARTS),
+        new Card(CardValue.JACK, Suit.CLUBS), new Card(CardValue.ACE, Suit.HEARTS)},
+        HandName.STRAIGHT_FLUSH);
+    //  AS KS JS QS TS 9H - royal flush.
+    this.assertRankHandName(new Card[]{new Card(CardValue.ACE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.SPADES), new Card(CardValue.JACK, Suit.SPADES),
+        new Card(CardValue.QUEEN, Suit.SPADES), new Card(CardValue.TEN, Suit.SPADES),
+        new Card(CardValue.NINE, Suit.HEARTS)}, HandName.ROYAL_FLUSH);
+  }
+
+  @Test
+  public void testRankOrdering() throws Exception {
+    //  A wheel loses to a six-high straight.
+    final int wheel = this.evaluator.rank(new Card[]{new Card(CardValue.ACE, Suit.SPADES),
+        new Card(CardValue.TWO, Suit.HEARTS), new Card(CardValue.THREE, Suit.CLUBS),
+        new Card(CardValue.FOUR, Suit.SPADES), new Card(CardValue.FIVE, Suit.DIAMONDS)});
+    final int sixHigh = this.evaluator.rank(new Card[]{new Card(CardValue.SIX, Suit.SPADES),
+        new Card(CardValue.TWO, Suit.HEARTS), new Card(CardValue.THREE, Suit.CLUBS),
+        new Card(CardValue.FOUR, Suit.SPADES), new Card(CardValue.FIVE, Suit.DIAMONDS)});
+    assertTrue(wheel < sixHigh);
+
+    //  KK with an ace kicker beats KK with a jack kicker on 9H 6C TD JC KC.
+    final Card[] table = {new Card(CardValue.NINE, Suit.HEARTS),
+        new Card(CardValue.SIX, Suit.CLUBS), new Card(CardValue.TEN, Suit.DIAMONDS),
+        new Card(CardValue.JACK, Suit.CLUBS), new Card(CardValue.KING, Suit.CLUBS)};
+    final int aceKicker = this.evaluator.rank(new Card[]{new Card(CardValue.KING, Suit.DIAMONDS),
+        new Card(CardValue.ACE, Suit.SPADES)}, table);
+    final int jackKicker = this.evaluator.rank(
+        new Card[]{new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.TWO, Suit.HEARTS)},
+        table);
+    final int sameKicker = this.evaluator.rank(
+        new Card[]{new Card(CardValue.KING, Suit.SPADES), new Card(CardValue.TWO, Suit.SPADES)},
+        table);
+    assertTrue(aceKicker > jackKicker);
+    assertEquals(jackKicker, sameKicker);
+  }
+
+  @Test
+  public void testAllFiveCardHands() throws Exception {
+    final int[] handNameCounts = new int[HandName.values().length];
+    final Set<Integer> distinctRanks = new HashSet<>();
+    final Card[] hand = new Card[5];
+    for (int a = 0; a < 52; a++) {
+      hand[0] = this.deck.get(a);
+      for (int b = a + 1; b < 52; b++) {
+        hand[1] = this.deck.get(b);
+        for (int c = b + 1; c < 52; c++) {
+          hand[2] = this.deck.get(c);
+          for (int d = c + 1; d < 52; d++) {
+            hand[3] = this.deck.get(d);
+            for (int e = d + 1; e < 52; e++) {
+              hand[4] = this.deck.get(e);
+              final int rank = this.evaluator.rank(hand);
+              ++handNameCounts[FastHoldemEvaluator.getHandName(rank).ordinal()];
+              distinctRanks.add(rank);
+            }
+          }
+        }
+      }
+    }
+
+    assertEquals(1302540, handNameCounts[HandName.HIGH_CARD.ordinal()]);
+    assertEquals(1098240, handNameCounts[HandName.ONE_PAIR.ordinal()]);
+    assertEquals(123552, handNameCounts[HandName.TWO_PAIRS.ordinal()]);
+    assertEquals(54912, handNameCounts[HandName.SET.ordinal()]);
+    assertEquals(10200, handNameCounts[HandName.STRAIGHT.ordinal()]);
+    assertEquals(5108, handNameCounts[HandName.FLUSH.ordinal()]);
+    assertEquals(3744, handNameCounts[HandName.FULL_HOUSE.ordinal()]);
+    assertEquals(624, handNameCounts[HandName.QUADS.ordinal()]);
+    assertEquals(36, handNameCounts[HandName.STRAIGHT_FLUSH.ordinal()]);
+    assertEquals(4, handNameCounts[HandName.ROYAL_FLUSH.ordinal()]);
+    assertEquals(7462, distinctRanks.size());
+  }
+
+  @Test
+  public void testAgreesWithHoldemEvaluator() throws Exception {
+    final HoldemEvaluator holdemEvaluator = new HoldemEvaluator();
+    final Random random = new Random(42L);
+    final Card[] noHoleCards = new Card[0];
+    for (int i = 0; i < 30000; i++) {
+      Collections.shuffle(this.deck, random);
+      final Card[] hand = this.deck.subList(0, 5 + i % 3).toArray(new Card[0]);
+      assertEquals(holdemEvaluator.calculate(noHoleCards, hand).getHandName(),
+          FastHoldemEvaluator.getHandName(this.evaluator.rank(hand)));
+    }
+  }
+}
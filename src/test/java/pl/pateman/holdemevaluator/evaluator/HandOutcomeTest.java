@@ -64,15 +64,15 @@ public class HandOutcomeTest {
     //  Set vs two pair.
     this.assertHandComparison("KD KS", "KH TH", "9H 6C TD JC KC", true, false);
     //  Set vs set.
-    this.assertHandComparison("KD KS", "6H 6H", "9H 6C TD JC KC", true, false);
+    this.assertHandComparison("KD KS", "6H 6D", "9H 6C TD JC KC", true, false);
     //  Set vs set.
     this.assertHandComparison("KD KS", "AH AD", "9H 6C TD AC KC", false, false);
     //  Flush vs set.
-    this.assertHandComparison("2D 6D", "AH AD", "9D 6D TD AC KC", true, false);
+    this.assertHandComparison("2D 7D", "AH AD", "9D 6D TD AC KC", true, false);
     //  Flush vs flush.
-    this.assertHandComparison("2D 6D", "3D AD", "9D 6D TD AC KC", false, false);
+    this.assertHandComparison("2D 7D", "3D AD", "9D 6D TD AC KC", false, false);
     //  Flush vs full house.
-    this.assertHandComparison("2D 6D", "AH AD", "9D 6D KD AC KC", false, false);
+    this.assertHandComparison("2D 7D", "AH AD", "9D 6D KD AC KC", false, false);
     //  Full house vs quads.
     this.assertHandComparison("KS KH", "AH AD", "9D AS KD AC 9C", false, false);
     //  Quads vs quads.
@@ -85,6 +85,21 @@ public class HandOutcomeTest {
 
   @Test
   public void testStraightComparison() throws Exception {
+    //  Six-high straight vs wheel.
+    this.assertHandComparison("6D 9C", "AH KD", "2S 3H 4C 5D JH", true, false);
+    //  Ace-high straight vs king-high straight.
+    this.assertHandComparison("AD 2C", "9H 3D", "TS JH QC KD 4H", true, false);
+    //  Same straight, different suits.
+    this.assertHandComparison("8D 2C", "8H 3D", "4S 5H 6C 7D KH", false, true);
+  }
 
+  @Test
+  public void testKickerComparison() throws Exception {
+    //  Pair of kings, ace kicker vs jack kicker.
+    this.assertHandComparison("KD AS", "KH 2H", "9H 6C TD JC KC", true, false);
+    //  Two pairs, queen kicker vs counterfeited pair on the board.
+    this.assertHandComparison("QD 3S", "5H 5D", "9H 9C TD TC 2S", true, false);
+    //  Set of nines decided by the second kicker.
+    this.assertHandComparison("9D 8S", "9S 7H", "9H 9C AD 4C 2S", true, false);
   }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(UnitTest.class)
+public class HandRankDecoderTest {
+
+  @Test
+  public void testMatchesHandOutcome() {
+    final HoldemEvaluator evaluator = new HoldemEvaluator();
+    final HandOutcome handOutcome = new HandOutcome();
+    final Deck deck = new Deck(23L);
+    for (int hand = 0; hand < 2000; hand++) {
+      final long handMask = TestUtil.randomHand(deck, 1 + hand % 7);
+      evaluator.calculate(handMask, handOutcome);
+      final int rank = handOutcome.getStrength();
+
+      assertEquals(handOutcome.getHandName(), HandRankDecoder.getHandName(rank));
+      assertArrayEquals(handOutcome.getTopCards(), HandRankDecoder.getTopCards(rank, handMask));
+      assertEquals(handOutcome.getHighestCard(), HandRankDecoder.getHighestCard(rank, handMask));
+      //  The default entry point picks the same cards.
+      final Card[] cards = CardMask.toCards(handMask);
+      final HandOutcome fromCards = evaluator.calculate(
+          Arrays.copyOfRange(cards, 0, Math.min(2, cards.length)),
+          Arrays.copyOfRange(cards, Math.min(2, cards.length), cards.length));
+      assertEquals(rank, fromCards.getStrength());
+      assertArrayEquals(fromCards.getTopCards(), HandRankDecoder.getTopCards(rank, handMask));
+      assertEquals(fromCards.getHighestCard(), HandRankDecoder.getHighestCard(rank, handMask));
+      final CardValue[] cardValues = HandRankDecoder.getCardValues(rank);
+      for (int position = 0; position < handOutcome.getTopCards().length; position++) {
+        assertEquals(handOutcome.getTopCards()[position].getValue(), cardValues[position]);
+      }
+    }
+  }
+
+  @Test
+  public void testCardValues() throws Exception {
+    final long handMask = CardMask.of(new StringHandParser().parse("5H 4H 3H 2H AH KS KD"));
+    final int rank = new FastHoldemEvaluator().rank(handMask);
+    assertEquals(HandName.STRAIGHT_FLUSH, HandRankDecoder.getHandName(rank));
+    assertArrayEquals(new CardValue[]{CardValue.FIVE, CardValue.FOUR, CardValue.THREE,
+        CardValue.TWO, CardValue.ACE}, HandRankDecoder.getCardValues(rank));
+    assertEquals(CardValue.FIVE, HandRankDecoder.getCardValue(rank, 0));
+    assertEquals(CardValue.FIVE, HandRankDecoder.getHighestCard(rank, handMask).getValue());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRank() {
+    HandRankDecoder.getHandName(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRankIndex() {
+    HandRankDecoder.getCardValues(HandName.ONE_PAIR.getValue() << 20 | 0xD);
+  }
+}
@@ -0,0 +1,80 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(UnitTest.class)
+public class HiLoShowdownTest {
+
+  private HiLoShowdown showdown;
+  private StringHandParser handParser;
+
+  @Before
+  public void setUp() throws Exception {
+    this.showdown = new HiLoShowdown();
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testNoLowScoops() throws Exception {
+    final HiLoShowdownResult result = this.showdown.settle(this.handParser.parse("KH QD 9S 2C 3H"),
+        this.handParser.parse("KS KD 7C 8C"), this.handParser.parse("AH 4S 5D 6C"));
+    assertFalse(result.isLowQualified());
+    assertEquals(HandName.SET, result.getHighHandName(0));
+    assertTrue(result.isScoop(0));
+    assertEquals(0.0, result.getShare(1), 0.0);
+    assertArrayEquals(new long[]{101, 0}, result.split(101));
+  }
+
+  @Test
+  public void testSplitHighAndLow() throws Exception {
+    final HiLoShowdownResult result = this.showdown.settle(this.handParser.parse("KH QD 5S 2C 3H"),
+        this.handParser.parse("KS KD 9C TC"), this.handParser.parse("AH 7S JD JC"));
+    assertTrue(result.isLowQualified());
+    assertArrayEquals(new int[]{0}, result.getHighWinners());
+    assertArrayEquals(new int[]{1}, result.getLowWinners());
+    assertTrue(result.hasLow(1));
+    assertFalse(result.hasLow(0));
+    assertArrayEquals(new double[]{0.5, 0.5}, result.getShares(), 0.0);
+    //  The odd chip goes to the high half.
+    assertArrayEquals(new long[]{51, 50}, result.split(101));
+  }
+
+  @Test
+  public void testQuarters() throws Exception {
+    //  Both A2 hands make the same wheel low, and the first also wins the high with a full house.
+    final HiLoShowdownResult result = this.showdown.settle(this.handParser.parse("QH QD 3S 4C 5H"),
+        this.handParser.parse("AH 2S QS 3C"), this.handParser.parse("AD 2D KC JC"),
+        this.handParser.parse("TS TD 8D 7D"));
+    assertArrayEquals(new int[]{0}, result.getHighWinners());
+    assertArrayEquals(new int[]{0, 1}, result.getLowWinners());
+    assertArrayEquals(new double[]{0.75, 0.25, 0.0}, result.getShares(), 0.0);
+    assertArrayEquals(new long[]{76, 25, 0}, result.split(101));
+  }
+
+  @Test
+  public void testSharedHighAndLow() throws Exception {
+    final HiLoShowdownResult result = this.showdown.settle(this.handParser.parse("3H 4D 5S KC KH"),
+        this.handParser.parse("AH 2S 9C 9D"), this.handParser.parse("AD 2D 9H 9S"),
+        this.handParser.parse("6D 8H TC JC"));
+    assertArrayEquals(new int[]{0, 1}, result.getHighWinners());
+    assertArrayEquals(new int[]{0, 1}, result.getLowWinners());
+    assertArrayEquals(new double[]{0.5, 0.5, 0.0}, result.getShares(), 0.0);
+    assertArrayEquals(new long[]{51, 50, 0}, result.split(101));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCard() throws Exception {
+    this.showdown.settle(this.handParser.parse("3H 4D 5S KC KH"),
+        this.handParser.parse("AH 2S 9C 9D"), this.handParser.parse("AH 2D 9H 9S"));
+  }
+}
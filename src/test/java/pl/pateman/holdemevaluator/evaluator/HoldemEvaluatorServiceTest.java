@@ -0,0 +1,118 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.TestUtil;
+
+@Category(IntegrationTest.class)
+public class HoldemEvaluatorServiceTest {
+
+  @Test
+  public void testConcurrentRanks() throws Exception {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final ExecutorService callers = Executors.newFixedThreadPool(8);
+    try (HoldemEvaluatorService service = new HoldemEvaluatorService(2, 64, 50L,
+        TimeUnit.MICROSECONDS)) {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int caller = 0; caller < 8; caller++) {
+        final long seed = caller;
+        futures.add(callers.submit(() -> {
+          final Deck deck = new Deck(seed);
+          final long[] hands = new long[5000];
+          final List<CompletableFuture<Integer>> ranks = new ArrayList<>();
+          for (int i = 0; i < hands.length; i++) {
+            hands[i] = TestUtil.randomHand(deck, 7);
+            ranks.add(service.rank(hands[i]));
+          }
+          for (int i = 0; i < hands.length; i++) {
+            assertEquals(evaluator.rank(hands[i]), (int) ranks.get(i).join());
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      callers.shutdown();
+    }
+  }
+
+  @Test
+  public void testCalculateAndSettle() throws Exception {
+    final Deck deck = new Deck(17L);
+    final HoldemEvaluator holdemEvaluator = new HoldemEvaluator();
+    final Showdown showdown = new Showdown();
+    try (HoldemEvaluatorService service = new HoldemEvaluatorService(1, 1, 0L,
+        TimeUnit.NANOSECONDS)) {
+      for (int deal = 0; deal < 200; deal++) {
+        deck.reset();
+        final long[] players = TestUtil.dealHoleCards(deck, 3);
+        final long board = deck.drawMask(5);
+
+        final ShowdownResult expected = showdown.settle(board, players);
+        final ShowdownResult actual = service.settle(board, players).get();
+        for (int player = 0; player < players.length; player++) {
+          assertEquals(expected.getStrength(player), actual.getStrength(player));
+          assertEquals(expected.getPlace(player), actual.getPlace(player));
+        }
+        assertArrayEquals(expected.getWinners(), actual.getWinners());
+
+        final HandOutcome outcome = service.calculate(board | players[0]).get();
+        final HandOutcome expectedOutcome = new HandOutcome();
+        holdemEvaluator.calculate(board | players[0], expectedOutcome);
+        assertEquals(expectedOutcome.getStrength(), outcome.getStrength());
+        assertArrayEquals(expectedOutcome.getTopCards(), outcome.getTopCards());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseAnswersQueuedRequests() throws Exception {
+    final HoldemEvaluatorService service = new HoldemEvaluatorService(1, 16,
+        1L, TimeUnit.MILLISECONDS);
+    final List<CompletableFuture<Integer>> ranks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ranks.add(service.rank(0x7FL << (i % 40)));
+    }
+    service.close();
+    service.close();
+    for (final CompletableFuture<Integer> rank : ranks) {
+      assertTrue(rank.isDone());
+      assertTrue(rank.get() > 0);
+    }
+
+    try {
+      service.rank(0x7FL).get();
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      return;
+    }
+    throw new AssertionError("A closed service should reject requests");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCollidingHoleCards() {
+    try (HoldemEvaluatorService service = new HoldemEvaluatorService()) {
+      service.settle(0x1FL, 0x60L, 0x40L | 0x80L);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidConfiguration() {
+    new HoldemEvaluatorService(1, 0, 0L, TimeUnit.NANOSECONDS);
+  }
+}
@@ -1,17 +1,22 @@
 package pl.pateman.holdemevaluator.evaluator;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
 import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.Deck;
 import pl.pateman.holdemevaluator.HandName;
 import pl.pateman.holdemevaluator.Suit;
 import pl.pateman.holdemevaluator.TestUtil;
 import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
 
 @Category(UnitTest.class)
 public class HoldemEvaluatorTest {
@@ -268,4 +273,202 @@ public class HoldemEvaluatorTest {
             new Card(CardValue.TEN, Suit.SPADES), new Card(CardValue.TWO, Suit.HEARTS)},
         new Card(CardValue.ACE, Suit.SPADES));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testCalculateOverloads() throws Exception {
+    final Card[] holeCards = {new Card(CardValue.FOUR, Suit.HEARTS),
+        new Card(CardValue.FIVE, Suit.CLUBS)};
+    final int[] holeCardIndices = {holeCards[0].getIndex(), holeCards[1].getIndex()};
+    final int[] tableCardIndices = new int[this.tableCards.length];
+    for (int i = 0; i < this.tableCards.length; i++) {
+      tableCardIndices[i] = this.tableCards[i].getIndex();
+    }
+    final long handMask = CardMask.of(holeCards) | CardMask.of(this.tableCards);
+
+    final HandOutcome expected = this.evaluator.calculate(holeCards, this.tableCards);
+    final HandOutcome fromIndices = this.evaluator.calculate(holeCardIndices, tableCardIndices);
+    final HandOutcome fromMask = this.evaluator.calculate(handMask);
+    assertEquals(HandName.STRAIGHT, fromIndices.getHandName());
+    assertEquals(HandName.STRAIGHT, fromMask.getHandName());
+    assertTrue(TestUtil.arrayContainsAll(fromIndices.getTopCards(), expected.getTopCards()));
+    assertTrue(TestUtil.arrayContainsAll(fromMask.getTopCards(), expected.getTopCards()));
+
+    final int rank = this.evaluator.rank(handMask);
+    assertEquals(rank, this.evaluator.rank(holeCardIndices, tableCardIndices));
+    assertEquals(HandName.STRAIGHT, FastHoldemEvaluator.getHandName(rank));
+  }
+
+  @Test
+  public void testCalculateIntoResult() throws Exception {
+    final HandOutcome result = new HandOutcome();
+
+    //  2C 2S 7S 8H AC 2H 3D
+    this.evaluator.calculate(this.pairOfTwos, this.tableCards, result);
+    final Card[] topCards = result.getTopCards();
+    assertEquals(HandName.SET, result.getHandName());
+    assertEquals(new Card(CardValue.ACE, Suit.CLUBS), result.getHighestCard());
+    assertTrue(TestUtil.arrayContainsAll(topCards,
+        new Card[]{new Card(CardValue.ACE, Suit.CLUBS), new Card(CardValue.TWO, Suit.CLUBS),
+            new Card(CardValue.TWO, Suit.SPADES), new Card(CardValue.TWO, Suit.HEARTS),
+            new Card(CardValue.EIGHT, Suit.HEARTS)}));
+    assertEquals(this.evaluator.calculate(this.pairOfTwos, this.tableCards).getStrength(),
+        result.getStrength());
+
+    //  2H 5H 8H 4H 3H JC AH
+    this.evaluator.calculate(
+        new Card[]{new Card(CardValue.TWO, Suit.HEARTS), new Card(CardValue.FIVE, Suit.HEARTS)},
+        new Card[]{new Card(CardValue.EIGHT, Suit.HEARTS), new Card(CardValue.FOUR, Suit.HEARTS),
+            new Card(CardValue.THREE, Suit.HEARTS), new Card(CardValue.JACK, Suit.CLUBS),
+            new Card(CardValue.ACE, Suit.HEARTS)}, result);
+    assertSame(topCards, result.getTopCards());
+    assertEquals(HandName.STRAIGHT_FLUSH, result.getHandName());
+    assertEquals(new Card(CardValue.FIVE, Suit.HEARTS), result.getHighestCard());
+    assertTrue(TestUtil.arrayContainsAll(result.getTopCards(),
+        new Card[]{new Card(CardValue.ACE, Suit.HEARTS),
+            new Card(CardValue.THREE, Suit.HEARTS), new Card(CardValue.TWO, Suit.HEARTS),
+            new Card(CardValue.FIVE, Suit.HEARTS), new Card(CardValue.FOUR, Suit.HEARTS)}));
+
+    //  2C 2S 2D
+    this.evaluator.calculate(this.pairOfTwos, new Card[]{new Card(CardValue.TWO, Suit.DIAMONDS)},
+        result);
+    assertEquals(HandName.SET, result.getHandName());
+    assertEquals(3, result.getTopCards().length);
+  }
+
+  @Test
+  public void testTopCardsFollowStrength() throws Exception {
+    final StringHandParser handParser = new StringHandParser();
+    //  The kickers are the best three cards next to the pair.
+    final HandOutcome pair =
+        this.evaluator.calculate(handParser.parse("QC QH"), handParser.parse("AS 5C 8S 7D 2C"));
+    assertArrayEquals(handParser.parse("QC QH AS 8S 7D"), pair.getTopCards());
+    assertEquals(new Card(CardValue.ACE, Suit.SPADES), pair.getHighestCard());
+
+    //  The wheel plays one four and is five high.
+    final HandOutcome wheel =
+        this.evaluator.calculate(handParser.parse("2H 4H"), handParser.parse("AH 3S 4S 5D KC"));
+    assertEquals(HandName.STRAIGHT, wheel.getHandName());
+    assertEquals(5, CardMask.size(CardMask.of(wheel.getTopCards())));
+    assertEquals(new Card(CardValue.FIVE, Suit.DIAMONDS), wheel.getHighestCard());
+
+    //  A high card hand keeps its best five cards only.
+    final HandOutcome highCard =
+        this.evaluator.calculate(handParser.parse("2H 4C"), handParser.parse("AH 9S 7D JC KD"));
+    assertArrayEquals(handParser.parse("AH KD JC 9S 7D"), highCard.getTopCards());
+  }
+
+  @Test
+  public void testLazyTopCards() throws Exception {
+    final HoldemEvaluator lazyEvaluator = HoldemEvaluator.withLazyTopCards();
+    final Deck deck = new Deck(21L);
+    for (int hand = 0; hand < 20000; hand++) {
+      final long handMask = TestUtil.randomHand(deck, 5 + hand % 3);
+      final Card[] cards = CardMask.toCards(handMask);
+      final Card[] holeCards = {cards[0], cards[1]};
+      final Card[] table = new Card[cards.length - 2];
+      System.arraycopy(cards, 2, table, 0, table.length);
+
+      final HandOutcome expected = this.evaluator.calculate(holeCards, table);
+      final HandOutcome actual = lazyEvaluator.calculate(holeCards, table);
+      assertEquals(expected.getHandName(), actual.getHandName());
+      assertEquals(expected.getStrength(), actual.getStrength());
+      assertEquals(expected.getStrength(), lazyEvaluator.calculate(handMask).getStrength());
+      //  Laziness only changes when the top cards are found, not which ones.
+      assertArrayEquals(expected.getTopCards(), actual.getTopCards());
+      assertEquals(expected.getHighestCard(), actual.getHighestCard());
+
+      //  The cards follow the ranks packed into the strength, best first.
+      final Card[] topCards = actual.getTopCards();
+      assertEquals(5, topCards.length);
+      assertEquals(5, CardMask.size(CardMask.of(topCards) & handMask));
+      for (int position = 0; position < topCards.length; position++) {
+        assertEquals(HandRanks.getRankIndex(actual.getStrength(), position),
+            topCards[position].getRankIndex());
+      }
+      assertTrue(CardMask.contains(CardMask.of(topCards), actual.getHighestCard()));
+    }
+
+    //  A reused result drops the cards of the previous hand, even if they were never read.
+    final HandOutcome result = new HandOutcome();
+    this.evaluator.calculate(this.pairOfTwos, this.tableCards, result);
+    this.evaluator.calculate(new Card[]{new Card(CardValue.KING, Suit.HEARTS),
+        new Card(CardValue.KING, Suit.CLUBS)}, this.tableCards, result);
+    assertEquals(HandName.ONE_PAIR, result.getHandName());
+    assertEquals(new Card(CardValue.ACE, Suit.CLUBS), result.getHighestCard());
+    assertTrue(TestUtil.arrayContainsAll(result.getTopCards(),
+        new Card[]{new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.KING, Suit.CLUBS),
+            new Card(CardValue.ACE, Suit.CLUBS)}));
+  }
+
+  @Test
+  public void testLazyTopCardsAcrossThreads() throws Exception {
+    //  Readers that race to resolve the same outcome all see the one complete result.
+    final HoldemEvaluator lazyEvaluator = HoldemEvaluator.withLazyTopCards();
+    final long handMask = CardMask.of(this.pairOfTwos) | CardMask.of(this.tableCards);
+    for (int round = 0; round < 200; round++) {
+      final HandOutcome outcome = lazyEvaluator.calculate(handMask);
+      final Card[][] seen = new Card[4][];
+      final Thread[] readers = new Thread[seen.length];
+      for (int reader = 0; reader < readers.length; reader++) {
+        final int index = reader;
+        readers[reader] = new Thread(() -> seen[index] = outcome.getTopCards());
+        readers[reader].start();
+      }
+      for (final Thread reader : readers) {
+        reader.join();
+      }
+      for (final Card[] topCards : seen) {
+        assertSame(seen[0], topCards);
+        assertEquals(5, CardMask.size(CardMask.of(topCards)));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCard() throws Exception {
+    //  2C is both a hole card and on the table.
+    this.evaluator.calculate(this.pairOfTwos, new Card[]{new Card(CardValue.TWO, Suit.CLUBS),
+        new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.NINE, Suit.SPADES)});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCardIntoResult() throws Exception {
+    this.evaluator.calculate(this.pairOfTwos, new Card[]{new Card(CardValue.TWO, Suit.SPADES),
+        new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.NINE, Suit.SPADES)},
+        new HandOutcome());
+  }
+
+  @Test
+  public void testEvaluateBatch() throws Exception {
+    final Deck deck = new Deck(13L);
+    final int hands = 500;
+    final long[] handMasks = new long[hands];
+    //  Two padding bytes after every seven-card hand.
+    final int stride = 9;
+    final byte[] cardIndices = new byte[1 + hands * stride];
+    for (int hand = 0; hand < hands; hand++) {
+      deck.reset();
+      long mask = CardMask.EMPTY;
+      for (int card = 0; card < 7; card++) {
+        final int cardIndex = deck.draw();
+        mask |= 1L << cardIndex;
+        cardIndices[1 + hand * stride + card] = (byte) cardIndex;
+      }
+      handMasks[hand] = mask;
+    }
+
+    final int[] ranks = new int[hands];
+    this.evaluator.evaluateBatch(handMasks, ranks);
+    final int[] stridedRanks = new int[hands + 1];
+    this.evaluator.evaluateBatch(cardIndices, 1, stride, 7, hands, stridedRanks, 1);
+    for (int hand = 0; hand < hands; hand++) {
+      assertEquals(this.evaluator.rank(handMasks[hand]), ranks[hand]);
+      assertEquals(ranks[hand], stridedRanks[hand + 1]);
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testEvaluateBatchOutOfRange() throws Exception {
+    this.evaluator.evaluateBatch(new long[4], 1, 4, new int[4], 0);
+  }
+}
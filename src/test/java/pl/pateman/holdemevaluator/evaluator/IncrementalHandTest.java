@@ -0,0 +1,97 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.Suit;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class IncrementalHandTest {
+
+  private final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+
+  @Test
+  public void testStreets() {
+    final IncrementalHand hand = new IncrementalHand(Card.of(CardValue.ACE, Suit.HEARTS),
+        Card.of(CardValue.KING, Suit.HEARTS));
+    assertEquals(HandName.HIGH_CARD, hand.getHandName());
+
+    hand.add(Card.of(CardValue.QUEEN, Suit.HEARTS)).add(Card.of(CardValue.KING, Suit.CLUBS))
+        .add(Card.of(CardValue.TWO, Suit.SPADES));
+    assertEquals(HandName.ONE_PAIR, hand.getHandName());
+    assertEquals(2, hand.getCount(CardValue.KING));
+    assertEquals(3, hand.getCount(Suit.HEARTS));
+    assertFalse(hand.hasFlush());
+
+    hand.add(Card.of(CardValue.JACK, Suit.HEARTS));
+    assertEquals(HandName.ONE_PAIR, hand.getHandName());
+
+    hand.add(Card.of(CardValue.TEN, Suit.HEARTS));
+    assertEquals(HandName.ROYAL_FLUSH, hand.getHandName());
+    assertTrue(hand.hasFlush());
+    assertTrue(hand.hasStraight());
+    assertEquals(7, hand.size());
+
+    //  Swap the river for a different card without touching the rest of the board.
+    hand.remove(Card.of(CardValue.TEN, Suit.HEARTS)).add(Card.of(CardValue.KING, Suit.SPADES));
+    assertEquals(HandName.SET, hand.getHandName());
+    assertFalse(hand.hasStraight());
+    assertEquals(3, hand.getCount(CardValue.KING));
+  }
+
+  @Test
+  public void testAgreesWithFullEvaluation() {
+    final Random random = new Random(7L);
+    final IncrementalHand hand = new IncrementalHand();
+    for (int i = 0; i < 20000; i++) {
+      final int cardIndex = random.nextInt(Card.COUNT);
+      final Card card = Card.fromIndex(cardIndex);
+      if (hand.contains(card)) {
+        hand.remove(cardIndex);
+      } else if (hand.size() < 7) {
+        hand.add(cardIndex);
+      }
+      assertEquals(this.evaluator.rank(hand.getMask()), hand.getStrength());
+    }
+  }
+
+  @Test
+  public void testHandOutcome() {
+    final IncrementalHand hand = new IncrementalHand();
+    final long mask = CardMask.of(Card.of(CardValue.NINE, Suit.CLUBS),
+        Card.of(CardValue.NINE, Suit.DIAMONDS), Card.of(CardValue.FOUR, Suit.SPADES),
+        Card.of(CardValue.FOUR, Suit.HEARTS), Card.of(CardValue.NINE, Suit.HEARTS));
+    for (final Card card : CardMask.toCards(mask)) {
+      hand.add(card);
+    }
+    final HandOutcome handOutcome = hand.getHandOutcome();
+    assertEquals(HandName.FULL_HOUSE, handOutcome.getHandName());
+    assertEquals(CardValue.NINE, handOutcome.getHighestCard().getValue());
+    assertEquals(this.evaluator.rank(mask), handOutcome.getStrength());
+
+    hand.clear();
+    assertEquals(0, hand.size());
+    assertEquals(0, hand.getCount(CardValue.NINE));
+    assertEquals(HandName.HIGH_CARD, hand.getHandName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCard() {
+    new IncrementalHand().add(Card.of(CardValue.TWO, Suit.CLUBS))
+        .add(Card.of(CardValue.TWO, Suit.CLUBS));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRemoveMissingCard() {
+    new IncrementalHand().remove(Card.of(CardValue.TWO, Suit.CLUBS));
+  }
+}
@@ -0,0 +1,119 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(UnitTest.class)
+public class LowEvaluatorTest {
+
+  private LowEvaluator lowEvaluator;
+  private StringHandParser handParser;
+
+  private static int lowRank(final Card... cards) {
+    //  Five distinct ranks up to the eight, scored the way LowEvaluator documents it.
+    int ranks = 0;
+    for (final Card card : cards) {
+      final int value = card.getValue().getValue();
+      if (value > 8 || (ranks & 1 << (value - 1)) != 0) {
+        return LowEvaluator.NO_LOW;
+      }
+      ranks |= 1 << (value - 1);
+    }
+    return 256 - ranks;
+  }
+
+  private static int bruteForceOmaha(final long holeCardMask, final long boardMask) {
+    final Card[] holeCards = CardMask.toCards(holeCardMask);
+    final Card[] board = CardMask.toCards(boardMask);
+    int best = LowEvaluator.NO_LOW;
+    for (int a = 0; a < holeCards.length; a++) {
+      for (int b = a + 1; b < holeCards.length; b++) {
+        for (int c = 0; c < board.length; c++) {
+          for (int d = c + 1; d < board.length; d++) {
+            for (int e = d + 1; e < board.length; e++) {
+              best = Math.max(best,
+                  lowRank(holeCards[a], holeCards[b], board[c], board[d], board[e]));
+            }
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.lowEvaluator = new LowEvaluator();
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testLows() throws Exception {
+    final int wheel = this.lowEvaluator.rank(CardMask.of(this.handParser.parse("AH 2S 3D 4C 5H")));
+    final int sixLow = this.lowEvaluator.rank(CardMask.of(this.handParser.parse("6H 4S 3D 2C AH")));
+    final int eightLow = this.lowEvaluator.rank(
+        CardMask.of(this.handParser.parse("8H 7S 6D 5C 4H KD KS")));
+    assertTrue(wheel > sixLow);
+    assertTrue(sixLow > eightLow);
+    assertTrue(LowEvaluator.isLow(eightLow));
+    assertArrayEquals(new CardValue[]{CardValue.SIX, CardValue.FOUR, CardValue.THREE,
+        CardValue.TWO, CardValue.ACE}, LowEvaluator.getCardValues(sixLow));
+
+    //  Pairs do not count twice and nines do not qualify.
+    assertEquals(LowEvaluator.NO_LOW,
+        this.lowEvaluator.rank(CardMask.of(this.handParser.parse("AH AS 2D 3C 4H 9D"))));
+    //  The lowest five of seven ranks play.
+    assertEquals(wheel,
+        this.lowEvaluator.rank(CardMask.of(this.handParser.parse("8H 7S AD 2C 3H 4D 5S"))));
+  }
+
+  @Test
+  public void testOmahaUsesTwoHoleCards() throws Exception {
+    //  Four low hole cards cannot make a low with a single low board card.
+    assertEquals(LowEvaluator.NO_LOW, this.lowEvaluator.rankOmaha(
+        CardMask.of(this.handParser.parse("AH 2S 3D 4C")),
+        CardMask.of(this.handParser.parse("5H KS QD JC TH"))));
+    //  A2 on 3-4-5 makes the wheel and the other hole cards do not matter.
+    assertEquals(this.lowEvaluator.rank(CardMask.of(this.handParser.parse("AH 2S 3D 4C 5H"))),
+        this.lowEvaluator.rankOmaha(CardMask.of(this.handParser.parse("AH 2S KD KC")),
+            CardMask.of(this.handParser.parse("3D 4C 5H QS JS"))));
+    //  A hole card that pairs the board can be skipped in favour of another.
+    assertEquals(lowRank(this.handParser.parse("7H 4S 3D 2C AH")),
+        this.lowEvaluator.rankOmaha(CardMask.of(this.handParser.parse("2H 3S AD KC")),
+            CardMask.of(this.handParser.parse("2D 4C 7H QS JS"))));
+  }
+
+  @Test
+  public void testOmahaMatchesBruteForce() {
+    //  Half of the deals only use the ace to the eight, so most of them make lows.
+    long aceToEight = CardMask.EMPTY;
+    for (int suit = 0; suit < 4; suit++) {
+      aceToEight |= (1L << 12 | (1L << 7) - 1) << suit * Card.RANKS;
+    }
+    final Deck[] decks = {new Deck(31L), new Deck(31L, CardMask.FULL_DECK & ~aceToEight)};
+    for (int deal = 0; deal < 5000; deal++) {
+      final Deck deck = decks[deal % 2];
+      final long holeCardMask = TestUtil.randomHand(deck, 4);
+      final long boardMask = deck.drawMask(3 + deal % 3);
+      assertEquals(bruteForceOmaha(holeCardMask, boardMask),
+          this.lowEvaluator.rankOmaha(holeCardMask, boardMask));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotALow() {
+    LowEvaluator.getCardValues(LowEvaluator.NO_LOW);
+  }
+}
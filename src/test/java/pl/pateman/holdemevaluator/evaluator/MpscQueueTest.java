@@ -0,0 +1,62 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class MpscQueueTest {
+
+  @Test
+  public void testFifo() {
+    final MpscQueue<Integer> queue = new MpscQueue<>();
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testProducersKeepTheirOrder() throws Exception {
+    final int producers = 4;
+    final int perProducer = 100000;
+    final MpscQueue<long[]> queue = new MpscQueue<>();
+    final ExecutorService executor = Executors.newFixedThreadPool(producers);
+    for (int producer = 0; producer < producers; producer++) {
+      final long id = producer;
+      executor.execute(() -> {
+        for (long sequence = 0; sequence < perProducer; sequence++) {
+          queue.offer(new long[]{id, sequence});
+        }
+      });
+    }
+
+    final long[] expected = new long[producers];
+    int received = 0;
+    while (received < producers * perProducer) {
+      final long[] element = queue.poll();
+      if (element == null) {
+        Thread.yield();
+        continue;
+      }
+      assertEquals(expected[(int) element[0]]++, element[1]);
+      ++received;
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    assertTrue(queue.isEmpty());
+  }
+}
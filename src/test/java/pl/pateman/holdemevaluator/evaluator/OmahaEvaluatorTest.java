@@ -0,0 +1,100 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(UnitTest.class)
+public class OmahaEvaluatorTest {
+
+  private OmahaEvaluator omahaEvaluator;
+  private StringHandParser handParser;
+
+  private static int bruteForce(final FastHoldemEvaluator evaluator, final long holeCardMask,
+      final long boardMask) {
+    final Card[] holeCards = CardMask.toCards(holeCardMask);
+    final Card[] board = CardMask.toCards(boardMask);
+    int best = 0;
+    for (int a = 0; a < holeCards.length; a++) {
+      for (int b = a + 1; b < holeCards.length; b++) {
+        for (int c = 0; c < board.length; c++) {
+          for (int d = c + 1; d < board.length; d++) {
+            for (int e = d + 1; e < board.length; e++) {
+              best = Math.max(best, evaluator.rank(CardMask.of(holeCards[a], holeCards[b],
+                  board[c], board[d], board[e])));
+            }
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.omahaEvaluator = new OmahaEvaluator();
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testExactlyTwoHoleCards() throws Exception {
+    //  Hold'em rules would play the straight flush on the board.
+    final HandOutcome outcome = this.omahaEvaluator.calculate(
+        this.handParser.parse("AH AS KD QC"), this.handParser.parse("AC 2C 3C 4C 5C"));
+    assertEquals(HandName.SET, outcome.getHandName());
+    assertEquals(5, outcome.getTopCards().length);
+
+    //  A single heart in the hole makes no flush.
+    assertEquals(HandName.HIGH_CARD, FastHoldemEvaluator.getHandName(this.omahaEvaluator.rank(
+        this.handParser.parse("AH KS 7D 8C"), this.handParser.parse("2H 5H 9H JH QS"))));
+    assertEquals(HandName.FLUSH, FastHoldemEvaluator.getHandName(this.omahaEvaluator.rank(
+        this.handParser.parse("AH KH 7D 8C"), this.handParser.parse("2H 5H 9H JS QS"))));
+  }
+
+  @Test
+  public void testBestHand() throws Exception {
+    final long holeCardMask = CardMask.of(this.handParser.parse("KH KS 7D 8C"));
+    final long boardMask = CardMask.of(this.handParser.parse("KD 9S 9C 2H 3S"));
+    final long bestHand = this.omahaEvaluator.getBestHand(holeCardMask, boardMask);
+    assertEquals(5, CardMask.size(bestHand));
+    assertEquals(2, CardMask.size(bestHand & holeCardMask));
+    assertEquals(HandName.FULL_HOUSE,
+        FastHoldemEvaluator.getHandName(this.omahaEvaluator.rank(holeCardMask, boardMask)));
+  }
+
+  @Test
+  public void testMatchesBruteForce() {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    //  Half of the deals come from two suits, which gives plenty of flushes and paired boards.
+    final Deck[] decks = {new Deck(29L),
+        new Deck(29L, CardMask.FULL_DECK & ~((1L << 2 * Card.RANKS) - 1))};
+    for (int deal = 0; deal < 5000; deal++) {
+      final Deck deck = decks[deal % 2];
+      final long holeCardMask = TestUtil.randomHand(deck, 4);
+      final long boardMask = deck.drawMask(3 + deal % 3);
+      assertEquals(bruteForce(evaluator, holeCardMask, boardMask),
+          this.omahaEvaluator.rank(holeCardMask, boardMask));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThreeHoleCards() throws Exception {
+    this.omahaEvaluator.rank(this.handParser.parse("AH AS KD"),
+        this.handParser.parse("2C 3C 4C"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSharedCard() throws Exception {
+    this.omahaEvaluator.rank(this.handParser.parse("AH AS KD QD"),
+        this.handParser.parse("AH 3C 4C"));
+  }
+}
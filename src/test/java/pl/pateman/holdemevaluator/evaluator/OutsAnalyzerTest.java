@@ -0,0 +1,126 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+import pl.pateman.holdemevaluator.parser.StringHandParserException;
+
+@Category(UnitTest.class)
+public class OutsAnalyzerTest {
+
+  private OutsAnalyzer outsAnalyzer;
+  private StringHandParser handParser;
+
+  private long mask(final String cards) throws StringHandParserException {
+    return CardMask.of(this.handParser.parse(cards));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.outsAnalyzer = new OutsAnalyzer();
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testFlushDraw() throws Exception {
+    final OutsResult result = this.outsAnalyzer.analyze(this.mask("AH KH"),
+        this.mask("2H 7H QC"), CardMask.EMPTY);
+    assertEquals(HandName.HIGH_CARD, result.getHandName());
+    assertEquals(47, result.getUnseenCardCount());
+    assertEquals(9, result.getOutCount(HandName.FLUSH));
+    //  Only the aces and kings, pairing the board helps every player.
+    assertEquals(6, result.getOutCount(HandName.ONE_PAIR));
+    assertEquals(15, result.getOutCount());
+    assertEquals(CardMask.EMPTY, result.getLosingCards());
+    assertEquals(9.0 / 47.0, result.getProbability(result.getOuts(HandName.FLUSH)), 1e-12);
+    assertEquals(1.0 - 38.0 * 37.0 / (47.0 * 46.0),
+        result.getProbabilityByRiver(result.getOuts(HandName.FLUSH)), 1e-12);
+  }
+
+  @Test
+  public void testBoardOnlyImprovements() throws Exception {
+    final OutsResult result = this.outsAnalyzer.analyze(this.mask("AS KD"),
+        this.mask("2C 7H 9D"), CardMask.EMPTY);
+    assertEquals(6, result.getOutCount(HandName.ONE_PAIR));
+    assertEquals(CardMask.EMPTY, result.getOuts(HandName.ONE_PAIR) & this.mask("2D 7C 9S"));
+
+    //  On a paired board, a nine or the third two improve the board for everybody alike,
+    //  while one that pairs a hole card makes two pair for this hand alone.
+    final OutsResult paired = this.outsAnalyzer.analyze(this.mask("AS KD"),
+        this.mask("2C 2H 9D"), CardMask.EMPTY);
+    assertEquals(HandName.ONE_PAIR, paired.getHandName());
+    assertEquals(this.mask("AC AH AD KC KH KS"), paired.getOuts(HandName.TWO_PAIRS));
+    assertEquals(CardMask.EMPTY, paired.getOuts(HandName.SET));
+
+    //  A nine makes a straight on the board, and the jack-ten tops it; a four does not.
+    final OutsResult straight = this.outsAnalyzer.analyze(this.mask("TC JD"),
+        this.mask("5H 6S 7C 8D"), CardMask.EMPTY);
+    assertEquals(this.mask("9C 9D 9H 9S"), straight.getOuts(HandName.STRAIGHT));
+  }
+
+  @Test
+  public void testAgainstOpponent() throws Exception {
+    final OutsResult result = this.outsAnalyzer.analyze(this.handParser.parse("AH KH"),
+        this.handParser.parse("2H 7H QC"), this.handParser.parse("JC JD"));
+    assertEquals(45, result.getUnseenCardCount());
+    assertEquals(15, CardMask.size(result.getWinningCards()));
+    assertEquals(CardMask.EMPTY, result.getTyingCards());
+    assertEquals(30, CardMask.size(result.getLosingCards()));
+    assertEquals(HandName.ONE_PAIR, HandRanks.getHandName(result.getOpponentStrength()));
+
+    final OutsResult turn = this.outsAnalyzer.analyze(this.mask("AH KH"),
+        this.mask("2H 7H QC 9S"), this.mask("JC JD"));
+    assertEquals(44, turn.getUnseenCardCount());
+    assertEquals(turn.getProbability(turn.getWinningCards()),
+        turn.getProbabilityByRiver(turn.getWinningCards()), 1e-12);
+  }
+
+  @Test
+  public void testMatchesCalculate() {
+    final HoldemEvaluator holdemEvaluator = new HoldemEvaluator();
+    final Deck deck = new Deck(19L);
+    final OutsResult result = new OutsResult();
+    for (int deal = 0; deal < 200; deal++) {
+      deck.reset();
+      final long[] holeCards = TestUtil.dealHoleCards(deck, 2);
+      final long hole = holeCards[0];
+      final long opponent = holeCards[1];
+      final long board = deck.drawMask(3 + deal % 2);
+      this.outsAnalyzer.analyze(hole, board, opponent, result);
+
+      final HandName current = holdemEvaluator.calculate(hole | board).getHandName();
+      for (final Card card : CardMask.toCards(result.getUnseenCards())) {
+        final HandOutcome next = holdemEvaluator.calculate(hole | board | card.getMask());
+        final HandOutcome opponentNext =
+            holdemEvaluator.calculate(opponent | board | card.getMask());
+        final int boardNext = holdemEvaluator.calculate(board | card.getMask()).getStrength();
+        final boolean out = next.getHandName().compareTo(current) > 0
+            && next.getStrength() >>> 16 > boardNext >>> 16;
+        assertEquals(out, CardMask.contains(result.getOuts(next.getHandName()), card));
+        assertEquals(next.compareTo(opponentNext) > 0,
+            CardMask.contains(result.getWinningCards(), card));
+        assertEquals(next.compareTo(opponentNext) == 0,
+            CardMask.contains(result.getTyingCards(), card));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRiverIsRejected() throws Exception {
+    this.outsAnalyzer.analyze(this.mask("AH KH"), this.mask("2H 7H QC 9S 3D"), CardMask.EMPTY);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSharedCardIsRejected() throws Exception {
+    this.outsAnalyzer.analyze(this.mask("AH KH"), this.mask("2H 7H QC"), this.mask("AH JD"));
+  }
+}
@@ -0,0 +1,130 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.HandRange;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.parser.RangeParser;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+
+@Category(IntegrationTest.class)
+public class RangeEquityTest {
+
+  private static final double DELTA = 1e-9;
+
+  private StringHandParser handParser;
+  private RangeParser rangeParser;
+
+  private long mask(final String cards) throws Exception {
+    return CardMask.of(this.handParser.parse(cards));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.handParser = new StringHandParser();
+    this.rangeParser = new RangeParser();
+  }
+
+  @Test
+  public void testExactFlopMatchesEquityCalculator() throws Exception {
+    final long board = this.mask("2C 7D 9S");
+    final HandRange hero = this.rangeParser.parse("QQ+, AKs");
+    final HandRange villain = this.rangeParser.parse("JJ, AQo");
+
+    final RangeEquityResult result = new RangeEquity().calculate(hero, villain, board);
+    assertTrue(result.isExact());
+    assertEquals(1176, result.getRunouts());
+
+    final EquityCalculator calculator = new EquityCalculator();
+    assertEquals(calculator.calculate(board, CardMask.EMPTY, hero.getCombos(),
+        villain.getCombos()).getEquity(0), result.getEquity(), DELTA);
+
+    final long[] heroCombos = hero.getCombos();
+    final long[] villainCombos = villain.getCombos();
+    for (int row = 0; row < heroCombos.length; row += 5) {
+      for (int column = 0; column < villainCombos.length; column += 3) {
+        if ((heroCombos[row] & villainCombos[column]) != 0) {
+          continue;
+        }
+        assertEquals(990, result.getTrials(row, column));
+        assertEquals(calculator.calculate(board, CardMask.EMPTY,
+            new long[]{heroCombos[row]}, new long[]{villainCombos[column]}).getEquity(0),
+            result.getEquity(row, column), DELTA);
+      }
+    }
+  }
+
+  @Test
+  public void testCardRemoval() throws Exception {
+    final HandRange hero = HandRange.of(this.mask("AS AH"));
+    final HandRange villain = HandRange.of(this.mask("AS KS"), this.mask("KD KC"));
+
+    final RangeEquityResult result = new RangeEquity().calculate(hero, villain,
+        this.mask("2C 7D 9S 3H"));
+    assertTrue(result.isExact());
+    assertEquals(0, result.getTrials(0, 0));
+    assertTrue(Double.isNaN(result.getEquity(0, 0)));
+    assertEquals(44, result.getTrials(0, 1));
+    assertEquals(result.getEquity(0, 1), result.getHeroComboEquity(0), DELTA);
+    assertTrue(Double.isNaN(result.getVillainComboEquity(0)));
+    assertEquals(1.0, result.getEquity(0, 1) + result.getVillainComboEquity(1), DELTA);
+  }
+
+  @Test
+  public void testBoardRemovesCombos() throws Exception {
+    final RangeEquityResult result = new RangeEquity().calculate(
+        this.rangeParser.parse("AA"), this.rangeParser.parse("KK"), this.mask("AS KS 2D"));
+    assertEquals(3, result.getHeroRange().size());
+    assertEquals(3, result.getVillainRange().size());
+    assertEquals(9 * 990, result.getTrials());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBlockedRange() throws Exception {
+    new RangeEquity().calculate(HandRange.of(this.mask("AS AH")), this.rangeParser.parse("KK"),
+        this.mask("AH 2C 3D"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRangesThatNeverMeet() throws Exception {
+    final HandRange aces = HandRange.of(this.mask("AS AH"));
+    new RangeEquity().calculate(aces, aces);
+  }
+
+  @Test
+  public void testSampledPreflop() throws Exception {
+    final HandRange hero = this.rangeParser.parse("AA");
+    final HandRange villain = this.rangeParser.parse("KK, AKs");
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final RangeEquityResult sequential = new RangeEquity(
+          RangeEquity.DEFAULT_EXACT_RUNOUT_LIMIT, 4000, 3L, null).calculate(hero, villain);
+      final RangeEquityResult parallel = new RangeEquity(
+          RangeEquity.DEFAULT_EXACT_RUNOUT_LIMIT, 4000, 3L, pool).calculate(hero, villain);
+      assertFalse(parallel.isExact());
+      assertEquals(4000, parallel.getRunouts());
+      assertEquals(sequential.getTrials(), parallel.getTrials());
+      assertEquals(sequential.getEquity(), parallel.getEquity(), 0.0);
+
+      final double[][] matrix = parallel.getStartingHandEquity();
+      assertEquals(HandRange.STARTING_HAND_CLASSES, matrix.length);
+      final int aces = HandRange.getStartingHandClass(this.mask("AS AH"));
+      final int kings = HandRange.getStartingHandClass(this.mask("KS KH"));
+      final int aceKingSuited = HandRange.getStartingHandClass(this.mask("AS KS"));
+      assertEquals("AA", HandRange.getStartingHandName(aces));
+      assertEquals(0.82, matrix[aces][kings], 0.03);
+      assertEquals(0.88, matrix[aces][aceKingSuited], 0.03);
+      assertTrue(Double.isNaN(matrix[kings][aces]));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.TestUtil;
+
+@Category(IntegrationTest.class)
+public class RankTableTest {
+
+  @ClassRule
+  public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+  private static Path tablePath;
+
+  @BeforeClass
+  public static void generateTable() throws Exception {
+    tablePath = FOLDER.getRoot().toPath().resolve("ranks5.bin");
+    RankTable.generate(tablePath, 5);
+  }
+
+  private static Path corrupt(final long offset, final ByteBuffer bytes) throws IOException {
+    final Path copy = Files.copy(tablePath, FOLDER.newFile().toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+      channel.write(bytes, offset);
+    }
+    return copy;
+  }
+
+  @Test
+  public void testMatchesEvaluator() throws Exception {
+    final RankTable table = RankTable.map(tablePath);
+    assertEquals(5, table.getCardCount());
+    assertEquals(7462, table.getClassCount());
+
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final Deck deck = new Deck(10L);
+    for (int i = 0; i < 100000; i++) {
+      final long mask = TestUtil.randomHand(deck, 5);
+      assertEquals(evaluator.rank(mask), table.rank(mask));
+    }
+  }
+
+  @Test
+  public void testColexIndices() {
+    assertEquals(0, RankTable.indexOf(0x1FL, 5));
+    assertEquals(RankTable.combinations(5) - 1, RankTable.indexOf(0x1FL << 47, 5));
+    assertEquals(2598960, RankTable.combinations(5));
+    assertEquals(133784560, RankTable.combinations(7));
+  }
+
+  @Test
+  public void testClassIndicesFollowStrength() throws Exception {
+    final RankTable table = RankTable.map(tablePath);
+    //  A royal flush against a seven-high.
+    final long royal = 0x1FL << 8;
+    final long sevenHigh = 1L | 1L << 1 | 1L << 2 | 1L << 3 | 1L << (13 + 5);
+    assertEquals(table.getClassCount() - 1, table.getClassIndex(royal));
+    assertEquals(0, table.getClassIndex(sevenHigh));
+    assertTrue(table.rank(royal) > table.rank(sevenHigh));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRankOutsideTheClasses() {
+    RankTable.classIndex(new int[]{3, 5, 8}, 6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongCardCount() throws Exception {
+    RankTable.map(tablePath).rank(0x3FL);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedCardCount() throws Exception {
+    RankTable.generate(FOLDER.getRoot().toPath().resolve("ranks8.bin"), 8);
+  }
+
+  @Test(expected = IOException.class)
+  public void testBadMagic() throws Exception {
+    RankTable.map(corrupt(0, ByteBuffer.allocate(4).putInt(0, 0xCAFEBABE)));
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedVersion() throws Exception {
+    RankTable.map(corrupt(4, ByteBuffer.allocate(4).putInt(0, RankTable.VERSION + 1)));
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedFile() throws Exception {
+    final Path copy = corrupt(0, ByteBuffer.allocate(0));
+    try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 2);
+    }
+    RankTable.map(copy);
+  }
+}
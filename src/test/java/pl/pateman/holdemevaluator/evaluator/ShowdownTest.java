@@ -0,0 +1,101 @@
+package pl.pateman.holdemevaluator.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.parser.StringHandParser;
+import pl.pateman.holdemevaluator.parser.StringHandParserException;
+
+@Category(IntegrationTest.class)
+public class ShowdownTest {
+
+  private Showdown showdown;
+  private StringHandParser handParser;
+
+  private ShowdownResult settle(final String board, final String... holeCards)
+      throws StringHandParserException {
+    final Card[][] parsedHoleCards = new Card[holeCards.length][];
+    for (int i = 0; i < holeCards.length; i++) {
+      parsedHoleCards[i] = this.handParser.parse(holeCards[i]);
+    }
+    return this.showdown.settle(this.handParser.parse(board), parsedHoleCards);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.showdown = new Showdown();
+    this.handParser = new StringHandParser();
+  }
+
+  @Test
+  public void testSingleWinner() throws Exception {
+    final ShowdownResult result = this.settle("9H 6C TD JC KC", "AS KH", "2D 2C", "KD TS",
+        "QH 8D");
+    assertArrayEquals(new int[]{3}, result.getWinners());
+    assertFalse(result.isSplit());
+    assertEquals(HandName.STRAIGHT, result.getHandName(3));
+    assertEquals(HandName.TWO_PAIRS, result.getHandName(2));
+    assertArrayEquals(new int[]{3, 2, 0, 1}, new int[]{result.getPotGroup(0)[0],
+        result.getPotGroup(1)[0], result.getPotGroup(2)[0], result.getPotGroup(3)[0]});
+    assertEquals(3, result.getPlace(1));
+    assertEquals(HandName.STRAIGHT, result.getHandOutcome(3).getHandName());
+  }
+
+  @Test
+  public void testSplitPot() throws Exception {
+    final ShowdownResult result = this.settle("4S 5H 6C 7D KH", "8D 2C", "3S 2D", "8H 3D",
+        "AS AD");
+    assertTrue(result.isSplit());
+    assertArrayEquals(new int[]{0, 2}, result.getWinners());
+    assertEquals(3, result.getPotGroupCount());
+    assertArrayEquals(new int[]{1}, result.getPotGroup(1));
+    assertArrayEquals(new int[]{3}, result.getPotGroup(2));
+    assertEquals(result.getPlace(0), result.getPlace(2));
+  }
+
+  @Test
+  public void testAgreesWithHoldemEvaluator() throws Exception {
+    final HoldemEvaluator evaluator = new HoldemEvaluator();
+    final Card[] board = this.handParser.parse("9H 6C TD JC KC");
+    final String[] hands = {"AS KH", "2D 2C", "KD TS", "QH 8D", "7H 7S"};
+    final ShowdownResult result = this.settle("9H 6C TD JC KC", hands);
+    for (int player = 0; player < hands.length; player++) {
+      final HandOutcome outcome = evaluator.calculate(this.handParser.parse(hands[player]), board);
+      assertEquals(outcome.getStrength(), result.getStrength(player));
+      assertEquals(outcome.getHandName(), result.getHandName(player));
+    }
+  }
+
+  @Test
+  public void testFromStrengths() throws Exception {
+    final ShowdownResult settled = this.settle("4S 5H 6C 7D KH", "8D 2C", "3S 2D", "8H 3D",
+        "AS AD");
+    final long[] holeCardMasks = new long[settled.getPlayerCount()];
+    final int[] strengths = new int[settled.getPlayerCount()];
+    for (int player = 0; player < strengths.length; player++) {
+      strengths[player] = settled.getStrength(player);
+    }
+    final ShowdownResult result = ShowdownResult.of(0L, holeCardMasks, strengths);
+    for (int player = 0; player < strengths.length; player++) {
+      assertEquals(settled.getPlace(player), result.getPlace(player));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStrengthsWithoutPlayers() {
+    ShowdownResult.of(0L, new long[2], new int[3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateCard() throws Exception {
+    this.settle("9H 6C TD JC KC", "AS KH", "AS 2C");
+  }
+}
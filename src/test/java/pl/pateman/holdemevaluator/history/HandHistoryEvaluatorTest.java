@@ -0,0 +1,128 @@
+package pl.pateman.holdemevaluator.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+
+@Category(IntegrationTest.class)
+public class HandHistoryEvaluatorTest {
+
+  private static final String CARD_VALUES = "23456789TJQKA";
+  private static final String SUITS = "CHSD";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private ExecutorService executor;
+
+  private static String toString(final long mask) {
+    final StringBuilder builder = new StringBuilder();
+    for (final Card card : CardMask.toCards(mask)) {
+      builder.append(CARD_VALUES.charAt(card.getRankIndex()))
+          .append(SUITS.charAt(card.getSuit().ordinal())).append(' ');
+    }
+    return builder.toString().trim();
+  }
+
+  private Path write(final String contents) throws IOException {
+    final Path path = this.folder.newFile().toPath();
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.executor = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testBinaryMatchesEvaluator() throws Exception {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final Deck deck = new Deck(12L);
+    final StringBuilder input = new StringBuilder();
+    final int[] expectedRanks = new int[2000];
+    for (int line = 0; line < expectedRanks.length; line++) {
+      deck.reset();
+      final long holeCards = TestUtil.dealHoleCards(deck, 1)[0];
+      final long board = deck.drawMask(5);
+      expectedRanks[line] = evaluator.rank(holeCards | board);
+      input.append(toString(holeCards)).append(" | ").append(toString(board))
+          .append(line % 2 == 0 ? "\n" : "\r\n");
+    }
+
+    //  A small chunk makes plenty of lines span two reads.
+    final HandHistoryEvaluator historyEvaluator = new HandHistoryEvaluator(this.executor, 256, 4);
+    final Path output = this.folder.newFile().toPath();
+    final HandHistorySummary summary = historyEvaluator
+        .evaluate(this.write(input.toString()), output, HandHistoryFormat.BINARY);
+    assertEquals(expectedRanks.length, summary.getRecords());
+    assertEquals(0, summary.getInvalidRecords());
+    assertEquals(input.length(), summary.getBytesRead());
+
+    final ByteBuffer results = ByteBuffer.wrap(Files.readAllBytes(output));
+    assertEquals(expectedRanks.length * 12, results.remaining());
+    for (int line = 0; line < expectedRanks.length; line++) {
+      assertEquals(line + 1, results.getLong());
+      assertEquals(expectedRanks[line], results.getInt());
+    }
+  }
+
+  @Test
+  public void testCsvWithInvalidRecords() throws Exception {
+    final Path input = this.write("AS AH | AD AC KS QS 2H\n"
+        + "\n"
+        + "AS KS QS\n"
+        + "AS 1H | 2C 3C 4C\n"
+        + "AS KS | AS 2C 3C\n"
+        + "| 2C 3C 4C\n"
+        + "T♠ J♠ | Q♠ K♠ A♠");
+    final Path output = this.folder.newFile().toPath();
+    for (final ExecutorService pool : new ExecutorService[]{this.executor, null}) {
+      final HandHistorySummary summary = new HandHistoryEvaluator(pool, 64, 2)
+          .evaluate(input, output, HandHistoryFormat.CSV);
+      assertEquals(6, summary.getRecords());
+      assertEquals(4, summary.getInvalidRecords());
+
+      final List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+      assertEquals(6, lines.size());
+      assertTrue(lines.get(0).startsWith("1,") && lines.get(0).endsWith(",QUADS"));
+      assertEquals("3,0,INVALID", lines.get(1));
+      assertEquals("4,0,INVALID", lines.get(2));
+      assertEquals("5,0,INVALID", lines.get(3));
+      assertEquals("6,0,INVALID", lines.get(4));
+      //  Ten to ace of clubs ranks the same as the royal flush in spades.
+      assertEquals("7," + new FastHoldemEvaluator().rank(0x1F00L) + ",ROYAL_FLUSH", lines.get(5));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testLineLongerThanChunk() throws Exception {
+    new HandHistoryEvaluator(null, 8, 1).evaluate(this.write("AS KS | QS JS TS\nAS KS | 2C\n"),
+        this.folder.newFile().toPath(), HandHistoryFormat.CSV);
+  }
+}
@@ -0,0 +1,74 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class EvaluatorMetricsTest {
+
+  @Test
+  public void testSnapshot() {
+    final EvaluatorMetrics metrics = new EvaluatorMetrics();
+    metrics.recordCalculate(HandName.FLUSH, 120L);
+    metrics.recordCalculate(HandName.FLUSH, 80L);
+    metrics.recordCalculate(HandName.ONE_PAIR, 100L);
+    metrics.recordBatch(1024, 20000L);
+    metrics.recordEquity(990L, 50000L);
+    metrics.recordCacheLookup(true);
+    metrics.recordCacheLookup(true);
+    metrics.recordCacheLookup(true);
+    metrics.recordCacheLookup(false);
+
+    final EvaluatorMetricsSnapshot snapshot = metrics.snapshot();
+    assertEquals(3L, snapshot.getCalculateCalls());
+    assertEquals(2L, snapshot.getHandNameCount(HandName.FLUSH));
+    assertEquals(1L, snapshot.getHandNameCount(HandName.ONE_PAIR));
+    assertEquals(0L, snapshot.getHandNameCount(HandName.QUADS));
+    assertEquals(120L, snapshot.getCalculateLatency().getMax());
+    assertEquals(100.0, snapshot.getCalculateLatency().getMean(), 1e-9);
+    assertEquals(1L, snapshot.getBatchCalls());
+    assertEquals(1024L, snapshot.getBatchHands());
+    assertEquals(990L, snapshot.getEquityTrials());
+    assertEquals(0.75, snapshot.getCacheHitRate(), 1e-9);
+    assertTrue(snapshot.getElapsedNanos() > 0);
+    assertTrue(snapshot.getCalculateCallsPerSecond() > 0.0);
+
+    assertEquals(2L, (long) metrics.getHandNameCounts().get("FLUSH"));
+    assertEquals(0.75, metrics.getCacheHitRate(), 1e-9);
+
+    metrics.reset();
+    assertEquals(0L, metrics.snapshot().getCalculateCalls());
+    assertEquals(0L, metrics.snapshot().getHandNameCount(HandName.FLUSH));
+    assertEquals(0.0, metrics.getCacheHitRate(), 0.0);
+  }
+
+  @Test
+  public void testJmxRegistration() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = EvaluatorMetrics.register();
+    try {
+      assertEquals(name, EvaluatorMetrics.register());
+      assertTrue(server.isRegistered(name));
+      assertEquals(EvaluatorMetrics.ENABLED, server.getAttribute(name, "Enabled"));
+      assertTrue(server.getAttribute(name, "CalculateCalls") instanceof Long);
+
+      final TabularData handNames = (TabularData) server.getAttribute(name, "HandNameCounts");
+      assertEquals(HandName.values().length, handNames.size());
+      final CompositeData flushes = handNames.get(new Object[]{HandName.FLUSH.name()});
+      assertTrue(flushes.get("value") instanceof Long);
+    } finally {
+      EvaluatorMetrics.unregister();
+    }
+    assertTrue(!server.isRegistered(name));
+  }
+}
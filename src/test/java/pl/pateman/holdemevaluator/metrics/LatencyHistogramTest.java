@@ -0,0 +1,79 @@
+package pl.pateman.holdemevaluator.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBuckets() {
+    int previous = -1;
+    final Random random = new Random(16L);
+    for (int i = 0; i < 100000; i++) {
+      final long value = i < 1000 ? i : random.nextLong() >>> (1 + random.nextInt(Long.SIZE - 1));
+      final int bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(bucket >= 0 && bucket < LatencyHistogram.BUCKETS);
+      assertTrue(value <= LatencyHistogram.highestValueIn(bucket));
+      assertTrue(bucket == 0 || value > LatencyHistogram.highestValueIn(bucket - 1));
+      //  No bucket is wider than 1/16 of its values.
+      assertTrue(LatencyHistogram.highestValueIn(bucket) - value <= value / 16);
+      if (i < 1000) {
+        assertTrue(bucket >= previous);
+        previous = bucket;
+      }
+    }
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LatencyHistogram.BUCKETS - 1));
+  }
+
+  @Test
+  public void testPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10000; value++) {
+      histogram.record(value);
+    }
+    final LatencySnapshot snapshot = histogram.snapshot();
+    assertEquals(10000L, snapshot.getCount());
+    assertEquals(10000L, snapshot.getMax());
+    assertEquals(5000.5, snapshot.getMean(), 1e-9);
+    assertEquals(1L, snapshot.getValueAtPercentile(0.0));
+    assertEquals(5000.0, snapshot.getValueAtPercentile(50.0), 5000.0 / 16);
+    assertEquals(9900.0, snapshot.getValueAtPercentile(99.0), 9900.0 / 16);
+    assertEquals(10000L, snapshot.getValueAtPercentile(100.0));
+
+    histogram.reset();
+    assertEquals(0L, histogram.snapshot().getCount());
+    assertEquals(0L, histogram.snapshot().getValueAtPercentile(99.0));
+  }
+
+  @Test
+  public void testConcurrentRecords() throws Exception {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int thread = 0; thread < 4; thread++) {
+      executor.execute(() -> {
+        for (int i = 0; i < 100000; i++) {
+          histogram.record(i % 5000);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    assertEquals(400000L, histogram.snapshot().getCount());
+    assertEquals(4999L, histogram.snapshot().getMax());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPercentile() {
+    new LatencyHistogram().snapshot().getValueAtPercentile(101.0);
+  }
+}
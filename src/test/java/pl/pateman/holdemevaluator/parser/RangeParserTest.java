@@ -0,0 +1,100 @@
+package pl.pateman.holdemevaluator.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardValue;
+import pl.pateman.holdemevaluator.HandRange;
+import pl.pateman.holdemevaluator.Suit;
+import pl.pateman.holdemevaluator.UnitTest;
+
+@Category(UnitTest.class)
+public class RangeParserTest {
+
+  private RangeParser parser;
+
+  private static long combo(final CardValue first, final Suit firstSuit, final CardValue second,
+      final Suit secondSuit) {
+    return Card.of(first, firstSuit).getMask() | Card.of(second, secondSuit).getMask();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.parser = new RangeParser();
+  }
+
+  @Test
+  public void parseCounts() throws Exception {
+    assertEquals(6, this.parser.parse("AA").size());
+    assertEquals(18, this.parser.parse("QQ+").size());
+    assertEquals(4, this.parser.parse("AKs").size());
+    assertEquals(12, this.parser.parse("AKo").size());
+    assertEquals(16, this.parser.parse("AK").size());
+    assertEquals(48, this.parser.parse("A2s+").size());
+    assertEquals(36, this.parser.parse("KTo+").size());
+    assertEquals(16, this.parser.parse("KTs-K7s").size());
+    assertEquals(24, this.parser.parse("99-66").size());
+    assertEquals(78, this.parser.parse("22+").size());
+    assertEquals(1, this.parser.parse("AhKd").size());
+    assertEquals(0, this.parser.parse(" ").size());
+    //  Overlapping tokens count every combo once.
+    assertEquals(22, this.parser.parse("QQ+, AKs, KK, AsKs").size());
+    assertEquals(78 + 48 + 36, this.parser.parse("22+,A2s+,KTo+").size());
+  }
+
+  @Test
+  public void parseCombos() throws Exception {
+    final HandRange range = this.parser.parse("AKs, 7h2c");
+    assertTrue(range.contains(combo(CardValue.ACE, Suit.SPADES, CardValue.KING, Suit.SPADES)));
+    assertFalse(range.contains(combo(CardValue.ACE, Suit.SPADES, CardValue.KING, Suit.HEARTS)));
+    assertTrue(range.contains(combo(CardValue.SEVEN, Suit.HEARTS, CardValue.TWO, Suit.CLUBS)));
+  }
+
+  @Test
+  public void startingHandClasses() throws Exception {
+    assertEquals("AA", HandRange.getStartingHandName(0));
+    assertEquals("AKs", HandRange.getStartingHandName(1));
+    assertEquals("AKo", HandRange.getStartingHandName(13));
+    assertEquals("22", HandRange.getStartingHandName(HandRange.STARTING_HAND_CLASSES - 1));
+    assertEquals(1, HandRange.getStartingHandClass(
+        combo(CardValue.KING, Suit.HEARTS, CardValue.ACE, Suit.HEARTS)));
+    assertEquals(13, HandRange.getStartingHandClass(
+        combo(CardValue.KING, Suit.HEARTS, CardValue.ACE, Suit.CLUBS)));
+
+    final int[] classSizes = new int[HandRange.STARTING_HAND_CLASSES];
+    final HandRange all = HandRange.all();
+    assertEquals(HandRange.ALL_COMBOS, all.size());
+    for (int combo = 0; combo < all.size(); combo++) {
+      ++classSizes[all.getStartingHandClass(combo)];
+    }
+    for (int startingHandClass = 0; startingHandClass < classSizes.length; startingHandClass++) {
+      final String name = HandRange.getStartingHandName(startingHandClass);
+      assertEquals(name, this.parser.parse(name).size(), classSizes[startingHandClass]);
+    }
+  }
+
+  @Test(expected = StringHandParserException.class)
+  public void parseInvalidRank() throws Exception {
+    this.parser.parse("QQ+, A1s");
+  }
+
+  @Test(expected = StringHandParserException.class)
+  public void parseSuitedPair() throws Exception {
+    this.parser.parse("QQs");
+  }
+
+  @Test(expected = StringHandParserException.class)
+  public void parseMismatchedSpan() throws Exception {
+    this.parser.parse("KTs-Q7s");
+  }
+
+  @Test(expected = StringHandParserException.class)
+  public void parseRepeatedCard() throws Exception {
+    this.parser.parse("AsAs");
+  }
+}
@@ -1,7 +1,12 @@
 package pl.pateman.holdemevaluator.parser;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -81,4 +86,107 @@ public class StringHandParserTest {
   public void parseIncorrectUnicodeCharacter() throws Exception {
     this.parser.parse("\uD83C\uDCD3 KH");
   }
-}
\ No newline at end of file
+
+  @Test(expected = StringHandParserException.class)
+  public void parseValueWithoutSuit() throws Exception {
+    this.parser.parse("AH K");
+  }
+
+  @Test
+  public void parseIntoCardIndices() {
+    final int[] cardIndices = new int[4];
+    final StringBuilder input = new StringBuilder("xx AS K\u2661 9C yy");
+    final int result = this.parser.parse(input, 3, 8, cardIndices, 1);
+    assertFalse(StringHandParser.isError(result));
+    assertEquals(3, result);
+    assertArrayEquals(new int[]{0, Card.of(CardValue.ACE, Suit.SPADES).getIndex(),
+            Card.of(CardValue.KING, Suit.HEARTS).getIndex(),
+            Card.of(CardValue.NINE, Suit.CLUBS).getIndex()}, cardIndices);
+  }
+
+  @Test
+  public void parseIntoCards() {
+    final Card[] cards = new Card[2];
+    assertEquals(2, this.parser.parse("TD 2H", 0, 5, cards, 0));
+    assertTrue(cards[0] == Card.of(CardValue.TEN, Suit.DIAMONDS));
+    assertTrue(cards[1] == Card.of(CardValue.TWO, Suit.HEARTS));
+  }
+
+  @Test
+  public void parseBytes() {
+    final byte[] input = "A\u2660 K\u2665 QD\t2\u2663".getBytes(StandardCharsets.UTF_8);
+    final Card[] cards = new Card[4];
+    assertEquals(4, this.parser.parse(input, 0, input.length, cards, 0));
+    this.assertArrayContainsAll(cards, new Card[]{new Card(CardValue.ACE, Suit.SPADES),
+        new Card(CardValue.KING, Suit.HEARTS), new Card(CardValue.QUEEN, Suit.DIAMONDS),
+        new Card(CardValue.TWO, Suit.CLUBS)});
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(input.length + 2);
+    direct.put((byte) 'Z').put(input).flip();
+    direct.position(1);
+    final int[] cardIndices = new int[4];
+    assertEquals(4, this.parser.parse(direct, cardIndices, 0));
+    assertEquals(1, direct.position());
+    assertEquals(Card.of(CardValue.TWO, Suit.CLUBS).getIndex(), cardIndices[3]);
+
+    final ByteBuffer slice = ByteBuffer.wrap(("ZZ" + "QS 4H").getBytes(StandardCharsets.UTF_8));
+    slice.position(2);
+    assertEquals(2, this.parser.parse(slice.slice(), cardIndices, 0));
+  }
+
+  @Test
+  public void parseErrorPositions() {
+    final int[] cardIndices = new int[2];
+    int result = this.parser.parse("AS 1H", 0, 5, cardIndices, 0);
+    assertTrue(StringHandParser.isError(result));
+    assertEquals(3, StringHandParser.getErrorPosition(result));
+    assertTrue(StringHandParser.describeError("AS 1H", 0, 5, result).contains("value"));
+
+    result = this.parser.parse("AS KB", 0, 5, cardIndices, 0);
+    assertEquals(4, StringHandParser.getErrorPosition(result));
+    assertTrue(StringHandParser.describeError("AS KB", 0, 5, result).contains("suit"));
+
+    result = this.parser.parse("AS KH QC", 0, 8, cardIndices, 0);
+    assertEquals(6, StringHandParser.getErrorPosition(result));
+    assertTrue(StringHandParser.describeError("AS KH QC", 0, 8, result).contains("room"));
+
+    result = this.parser.parse("AS K ", 0, 5, cardIndices, 0);
+    assertEquals(3, StringHandParser.getErrorPosition(result));
+    assertTrue(StringHandParser.describeError("AS K ", 0, 5, result).contains("no suit"));
+
+    //  A truncated UTF-8 suit symbol is reported at its first byte.
+    final byte[] bytes = "AS K\u2660".getBytes(StandardCharsets.UTF_8);
+    result = this.parser.parse(bytes, 0, bytes.length - 1, cardIndices, 0);
+    assertEquals(4, StringHandParser.getErrorPosition(result));
+    result = this.parser.parse(ByteBuffer.wrap(bytes, 1, bytes.length - 1), cardIndices, 0);
+    assertEquals(1, StringHandParser.getErrorPosition(result));
+  }
+
+  @Test
+  public void testDescribeByteErrors() {
+    //  The symbol takes three bytes, so the bad suit is at byte 9 but at char 7.
+    final int[] cardIndices = new int[3];
+    final byte[] bytes = "A\u2660 KH QX".getBytes(StandardCharsets.UTF_8);
+    int result = this.parser.parse(bytes, 0, bytes.length, cardIndices, 0);
+    assertEquals(9, StringHandParser.getErrorPosition(result));
+    assertEquals("Unrecognized card suit character 'X' at byte 9",
+        StringHandParser.describeError(bytes, 0, bytes.length, result));
+
+    //  Buffer positions count from the start of the array, like ByteBuffer.get(int).
+    final byte[] full = "A\u2660 KH QC".getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = ByteBuffer.wrap(full, 4, full.length - 4);
+    result = this.parser.parse(buffer, new int[1], 0);
+    assertEquals(8, StringHandParser.getErrorPosition(result));
+    assertTrue(StringHandParser.describeError(buffer, result).contains("room"));
+
+    final byte[] symbolValue = "\u2660S".getBytes(StandardCharsets.UTF_8);
+    result = this.parser.parse(symbolValue, 0, symbolValue.length, cardIndices, 0);
+    assertEquals("Unrecognized card value byte 0xE2 at byte 0",
+        StringHandParser.describeError(symbolValue, 0, symbolValue.length, result));
+
+    final byte[] noSuit = "A\u2660 K".getBytes(StandardCharsets.UTF_8);
+    result = this.parser.parse(noSuit, 0, noSuit.length, cardIndices, 0);
+    assertTrue(StringHandParser.describeError(noSuit, 0, noSuit.length, result)
+        .contains("no suit"));
+  }
+}
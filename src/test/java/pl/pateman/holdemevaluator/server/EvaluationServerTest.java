@@ -0,0 +1,271 @@
+package pl.pateman.holdemevaluator.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.Card;
+import pl.pateman.holdemevaluator.CardMask;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.IntegrationTest;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.evaluator.EquityCalculator;
+import pl.pateman.holdemevaluator.evaluator.EquityResult;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+import pl.pateman.holdemevaluator.evaluator.HandOutcome;
+import pl.pateman.holdemevaluator.evaluator.HoldemEvaluator;
+import pl.pateman.holdemevaluator.evaluator.Showdown;
+import pl.pateman.holdemevaluator.evaluator.ShowdownResult;
+
+@Category(IntegrationTest.class)
+public class EvaluationServerTest {
+
+  private static void writeHand(final DataOutputStream output, final byte opcode,
+      final int requestId, final long handMask) throws IOException {
+    output.writeInt(BinaryProtocol.HEADER_BYTES + Long.BYTES);
+    output.writeByte(opcode);
+    output.writeInt(requestId);
+    output.writeLong(handMask);
+  }
+
+  private static void readHeader(final DataInputStream input, final byte status,
+      final int requestId) throws IOException {
+    input.readInt();
+    assertEquals(status, input.readByte());
+    assertEquals(requestId, input.readInt());
+  }
+
+  private static String readError(final DataInputStream input, final int requestId)
+      throws IOException {
+    readHeader(input, BinaryProtocol.STATUS_ERROR, requestId);
+    final byte[] message = new byte[input.readShort()];
+    input.readFully(message);
+    return new String(message, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testPipelinedRanks() throws Exception {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final Deck deck = new Deck(3L);
+    final long[] hands = new long[2000];
+    try (EvaluationServer server = EvaluationServer.onLoopback(0);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.getAddress().getPort())) {
+      final DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      final DataInputStream input =
+          new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      for (int i = 0; i < hands.length; i++) {
+        hands[i] = TestUtil.randomHand(deck, 1 + i % 7);
+        writeHand(output, BinaryProtocol.RANK, i, hands[i]);
+      }
+      output.flush();
+
+      for (int i = 0; i < hands.length; i++) {
+        readHeader(input, BinaryProtocol.STATUS_OK, i);
+        assertEquals(evaluator.rank(hands[i]), input.readInt());
+      }
+    }
+  }
+
+  @Test
+  public void testCalculateAndShowdown() throws Exception {
+    final Deck deck = new Deck(5L);
+    final HoldemEvaluator holdemEvaluator = new HoldemEvaluator();
+    final Showdown showdown = new Showdown();
+    try (EvaluationServer server = EvaluationServer.onLoopback(0);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.getAddress().getPort())) {
+      final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      final DataInputStream input = new DataInputStream(socket.getInputStream());
+      for (int deal = 0; deal < 100; deal++) {
+        final long hand = TestUtil.randomHand(deck, 7);
+        writeHand(output, BinaryProtocol.CALCULATE, deal, hand);
+        final HandOutcome expected = new HandOutcome();
+        holdemEvaluator.calculate(hand, expected);
+        readHeader(input, BinaryProtocol.STATUS_OK, deal);
+        assertEquals(expected.getStrength(), input.readInt());
+        assertEquals(expected.getHandName(), HandName.values()[input.readByte()]);
+        final Card[] topCards = new Card[input.readByte()];
+        for (int card = 0; card < topCards.length; card++) {
+          topCards[card] = Card.fromIndex(input.readByte());
+        }
+        assertEquals(CardMask.of(expected.getTopCards()), CardMask.of(topCards));
+
+        deck.reset();
+        final long[] players = TestUtil.dealHoleCards(deck, 3);
+        final long board = deck.drawMask(5);
+        output.writeInt(BinaryProtocol.HEADER_BYTES + Long.BYTES + Byte.BYTES
+            + players.length * Long.BYTES);
+        output.writeByte(BinaryProtocol.SHOWDOWN);
+        output.writeInt(-deal);
+        output.writeLong(board);
+        output.writeByte(players.length);
+        for (final long player : players) {
+          output.writeLong(player);
+        }
+        final ShowdownResult result = showdown.settle(board, players);
+        readHeader(input, BinaryProtocol.STATUS_OK, -deal);
+        assertEquals(players.length, input.readByte());
+        for (int player = 0; player < players.length; player++) {
+          assertEquals(result.getStrength(player), input.readInt());
+          assertEquals(result.getPlace(player), input.readByte());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEquity() throws Exception {
+    final long board = CardMask.of(0, 14, 30);
+    final long[][] ranges = {{CardMask.of(12, 25)}, {CardMask.of(11, 24), CardMask.of(10, 23)}};
+    final EquityResult expected = new EquityCalculator().calculate(board, CardMask.EMPTY, ranges);
+    try (EvaluationServer server = EvaluationServer.onLoopback(0);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.getAddress().getPort())) {
+      final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      final DataInputStream input = new DataInputStream(socket.getInputStream());
+      output.writeInt(BinaryProtocol.HEADER_BYTES + 2 * Long.BYTES + Byte.BYTES
+          + 2 * Short.BYTES + 3 * Long.BYTES);
+      output.writeByte(BinaryProtocol.EQUITY);
+      output.writeInt(42);
+      output.writeLong(board);
+      output.writeLong(CardMask.EMPTY);
+      output.writeByte(ranges.length);
+      for (final long[] range : ranges) {
+        output.writeShort(range.length);
+        for (final long combo : range) {
+          output.writeLong(combo);
+        }
+      }
+
+      readHeader(input, BinaryProtocol.STATUS_OK, 42);
+      assertTrue(input.readBoolean());
+      assertEquals(expected.getTrials(), input.readLong());
+      assertEquals(ranges.length, input.readByte());
+      for (int player = 0; player < ranges.length; player++) {
+        assertEquals(expected.getEquity(player), input.readDouble(), 1e-12);
+        assertEquals(expected.getWinProbability(player), input.readDouble(), 1e-12);
+        assertEquals(expected.getTieProbability(player), input.readDouble(), 1e-12);
+      }
+    }
+  }
+
+  @Test
+  public void testErrors() throws Exception {
+    try (EvaluationServer server = EvaluationServer.onLoopback(0);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.getAddress().getPort())) {
+      final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      final DataInputStream input = new DataInputStream(socket.getInputStream());
+      writeHand(output, (byte) 99, 1, 1L);
+      writeHand(output, BinaryProtocol.RANK, 2, CardMask.EMPTY);
+      writeHand(output, BinaryProtocol.RANK, 3, 1L << 60);
+      output.writeInt(BinaryProtocol.HEADER_BYTES + Integer.BYTES);
+      output.writeByte(BinaryProtocol.CALCULATE);
+      output.writeInt(4);
+      output.writeInt(0);
+      writeHand(output, BinaryProtocol.RANK, 5, CardMask.FULL_DECK);
+      writeHand(output, BinaryProtocol.RANK, 6, 1L);
+      //  Six board cards and two hole cards make an eight-card hand.
+      output.writeInt(BinaryProtocol.HEADER_BYTES + 2 * Long.BYTES + Byte.BYTES);
+      output.writeByte(BinaryProtocol.SHOWDOWN);
+      output.writeInt(7);
+      output.writeLong(CardMask.of(0, 1, 2, 3, 4, 5));
+      output.writeByte(1);
+      output.writeLong(CardMask.of(20, 21));
+      output.flush();
+
+      assertTrue(readError(input, 1).contains("opcode"));
+      assertFalse(readError(input, 2).isEmpty());
+      assertFalse(readError(input, 3).isEmpty());
+      assertFalse(readError(input, 4).isEmpty());
+      assertFalse(readError(input, 5).isEmpty());
+      readHeader(input, BinaryProtocol.STATUS_OK, 6);
+      assertEquals(new FastHoldemEvaluator().rank(1L), input.readInt());
+      assertTrue(readError(input, 7).contains("7 cards"));
+
+      //  A broken frame length closes the connection.
+      output.writeInt(-1);
+      output.flush();
+      assertEquals(-1, input.read());
+    }
+  }
+
+  @Test
+  public void testLongErrorMessage() {
+    //  Three bytes per character, so 1024 bytes would end inside the 342nd one.
+    final StringBuilder message = new StringBuilder();
+    for (int i = 0; i < 400; i++) {
+      message.append('\u20ac');
+    }
+    final byte[] bytes = Connection.encodeError(message.toString());
+    assertEquals(341 * 3, bytes.length);
+    assertEquals(message.substring(0, 341), new String(bytes, StandardCharsets.UTF_8));
+    assertEquals("short", new String(Connection.encodeError("short"), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testBackpressure() throws Exception {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    //  More responses than the kernel buffers of a loopback connection hold, about 5 MB.
+    final long[] hands = new long[400000];
+    final Deck deck = new Deck(9L);
+    for (int i = 0; i < hands.length; i++) {
+      hands[i] = TestUtil.randomHand(deck, 7);
+    }
+    try (EvaluationServer server = new EvaluationServer(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ForkJoinPool.commonPool(),
+        new EquityCalculator(), 1 << 10, 1);
+        Socket socket = new Socket()) {
+      //  A small receive window makes the server's writes back up while nobody reads.
+      socket.setReceiveBufferSize(1 << 12);
+      socket.connect(server.getAddress());
+      final DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      final DataInputStream input =
+          new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      //  The writer runs ahead of the reader, far past what the server buffers.
+      final Thread writer = new Thread(() -> {
+        try {
+          for (int i = 0; i < hands.length; i++) {
+            writeHand(output, BinaryProtocol.RANK, i, hands[i]);
+          }
+          output.flush();
+        } catch (final IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      writer.start();
+      //  Nothing is read until the server has stopped reading, which it has to do at some point.
+      final long deadline = System.nanoTime() + 30_000_000_000L;
+      while (server.getReadPauses() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10L);
+      }
+      assertTrue(server.getReadPauses() > 0);
+
+      for (int i = 0; i < hands.length; i++) {
+        readHeader(input, BinaryProtocol.STATUS_OK, i);
+        assertEquals(evaluator.rank(hands[i]), input.readInt());
+      }
+      writer.join();
+      //  Unsent responses never grew past the limit by more than the responses to one full
+      //  input buffer.
+      assertTrue(server.getPeakPendingBytes()
+          < (1 << 10) + BinaryProtocol.LENGTH_BYTES + BinaryProtocol.MAX_FRAME_BYTES);
+    }
+  }
+}
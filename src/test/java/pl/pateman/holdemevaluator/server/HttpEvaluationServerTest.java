@@ -0,0 +1,91 @@
+package pl.pateman.holdemevaluator.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import pl.pateman.holdemevaluator.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class HttpEvaluationServerTest {
+
+  private static String encode(final String value) throws IOException {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+  }
+
+  private static String get(final HttpEvaluationServer server, final String pathAndQuery,
+      final int expectedStatus) throws IOException {
+    final URL url = new URL("http", server.getAddress().getHostString(),
+        server.getAddress().getPort(), pathAndQuery);
+    final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    try {
+      assertEquals(expectedStatus, connection.getResponseCode());
+      final ByteArrayOutputStream body = new ByteArrayOutputStream();
+      try (InputStream input = expectedStatus == HttpURLConnection.HTTP_OK
+          ? connection.getInputStream() : connection.getErrorStream()) {
+        final byte[] buffer = new byte[1024];
+        for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+          body.write(buffer, 0, read);
+        }
+      }
+      return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  @Test
+  public void testCalculate() throws Exception {
+    try (HttpEvaluationServer server = HttpEvaluationServer.onLoopback(0)) {
+      final String json = get(server, "/calculate?cards=" + encode("AS KS QS JS TS 2D 3C"),
+          HttpURLConnection.HTTP_OK);
+      assertTrue(json, json.startsWith("{\"handName\":\"ROYAL_FLUSH\""));
+      assertTrue(json, json.contains("\"topCards\":["));
+    }
+  }
+
+  @Test
+  public void testShowdown() throws Exception {
+    try (HttpEvaluationServer server = HttpEvaluationServer.onLoopback(0)) {
+      final String json = get(server, "/showdown?board=" + encode("2C 7D 9S JH QH")
+          + "&player=" + encode("AH KH") + "&player=" + encode("TC TD"),
+          HttpURLConnection.HTTP_OK);
+      assertTrue(json, json.contains("\"place\":0"));
+      assertTrue(json, json.contains("\"place\":1"));
+      assertTrue(json, json.endsWith("\"split\":false}"));
+    }
+  }
+
+  @Test
+  public void testEquity() throws Exception {
+    try (HttpEvaluationServer server = HttpEvaluationServer.onLoopback(0)) {
+      final String json = get(server, "/equity?board=" + encode("2C 7D 9S")
+          + "&player=" + encode("AA") + "&player=" + encode("KK,QQ"), HttpURLConnection.HTTP_OK);
+      assertTrue(json, json.startsWith("{\"exact\":true"));
+      assertTrue(json, json.contains("\"equity\":"));
+    }
+  }
+
+  @Test
+  public void testBadRequests() throws Exception {
+    try (HttpEvaluationServer server = HttpEvaluationServer.onLoopback(0)) {
+      assertTrue(get(server, "/calculate", HttpURLConnection.HTTP_BAD_REQUEST)
+          .startsWith("{\"error\":"));
+      assertTrue(get(server, "/calculate?cards=" + encode("AS XS"),
+          HttpURLConnection.HTTP_BAD_REQUEST).startsWith("{\"error\":"));
+      assertTrue(get(server, "/calculate?cards=" + encode("AS AS"),
+          HttpURLConnection.HTTP_BAD_REQUEST).contains("twice"));
+      assertTrue(get(server, "/equity?player=AA", HttpURLConnection.HTTP_BAD_REQUEST)
+          .startsWith("{\"error\":"));
+      get(server, "/unknown", HttpURLConnection.HTTP_NOT_FOUND);
+    }
+  }
+}
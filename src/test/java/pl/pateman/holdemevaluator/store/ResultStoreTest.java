@@ -0,0 +1,150 @@
+package pl.pateman.holdemevaluator.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import pl.pateman.holdemevaluator.Deck;
+import pl.pateman.holdemevaluator.HandName;
+import pl.pateman.holdemevaluator.TestUtil;
+import pl.pateman.holdemevaluator.UnitTest;
+import pl.pateman.holdemevaluator.evaluator.FastHoldemEvaluator;
+
+@Category(UnitTest.class)
+public class ResultStoreTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static void checkReads(final ResultStore store) {
+    final FastHoldemEvaluator evaluator = new FastHoldemEvaluator();
+    final Deck deck = new Deck(1L);
+    final ResultAppender appender = store.newAppender();
+    final long[] ids = new long[1000];
+    final long[] hands = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      hands[i] = TestUtil.randomHand(deck, 7);
+      ids[i] = appender.append(hands[i], evaluator.rank(hands[i]), 1 + i % 9, 1 << (i % 9));
+    }
+
+    assertEquals(ids.length, store.getRecordCount());
+    assertEquals(ids.length / 64 + 1, store.getSegmentCount());
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(i, ids[i]);
+      assertEquals(hands[i], store.getHandMask(ids[i]));
+      assertEquals(evaluator.rank(hands[i]), store.getRank(ids[i]));
+      assertEquals(FastHoldemEvaluator.getHandName(evaluator.rank(hands[i])),
+          store.getHandName(ids[i]));
+      assertEquals(1 + i % 9, store.getPlayers(ids[i]));
+      assertEquals(1 << (i % 9), store.getWinnerMask(ids[i]));
+    }
+    assertFalse(store.contains(ids.length));
+
+    final AtomicLong visited = new AtomicLong();
+    store.forEach((recordId, handMask, rank, players, winnerMask) -> {
+      assertEquals(hands[(int) recordId], handMask);
+      assertEquals(1 + recordId % 9, players);
+      visited.incrementAndGet();
+    });
+    assertEquals(ids.length, visited.get());
+  }
+
+  @Test
+  public void testInMemory() throws Exception {
+    try (ResultStore store = ResultStore.inMemory(64)) {
+      checkReads(store);
+    }
+  }
+
+  @Test
+  public void testMapped() throws Exception {
+    try (ResultStore store = ResultStore.mapped(this.folder.newFile().toPath(), 64)) {
+      checkReads(store);
+    }
+  }
+
+  @Test
+  public void testSummary() throws Exception {
+    try (ResultStore store = ResultStore.inMemory(8)) {
+      final ResultAppender appender = store.newAppender();
+      //  Player 0 wins twice and splits once, player 1 wins once, a third player sits in once.
+      appender.append(0x1FL, 5 << 20, 2, 0b01);
+      appender.append(0x1FL, 2 << 20, 2, 0b01);
+      appender.append(0x1FL, 2 << 20, 2, 0b11);
+      appender.append(0x1FL, 1 << 20, 3, 0b010);
+      //  Plain evaluations count towards the hand names but seat nobody.
+      appender.append(0x1FL, 1 << 20);
+
+      final ResultSummary summary = store.summarize();
+      assertEquals(5, summary.getRecords());
+      assertEquals(1, summary.getCount(HandName.STRAIGHT));
+      assertEquals(2, summary.getCount(HandName.ONE_PAIR));
+      assertEquals(2, summary.getCount(HandName.HIGH_CARD));
+      assertEquals(4, summary.getSeated(0));
+      assertEquals(0.5, summary.getWinRate(0), 1e-12);
+      assertEquals(0.25, summary.getTieRate(0), 1e-12);
+      assertEquals(0.625, summary.getEquity(0), 1e-12);
+      assertEquals(0.375, summary.getEquity(1), 1e-12);
+      assertEquals(1, summary.getSeated(2));
+      assertEquals(0.0, summary.getEquity(2), 1e-12);
+    }
+  }
+
+  @Test
+  public void testConcurrentAppenders() throws Exception {
+    try (ResultStore store = ResultStore.inMemory(100)) {
+      final List<Thread> workers = new ArrayList<>();
+      final AtomicReference<Throwable> failure = new AtomicReference<>();
+      for (int worker = 0; worker < 4; worker++) {
+        final long hand = 0x7FL << (worker * 7);
+        workers.add(new Thread(() -> {
+          final ResultAppender appender = store.newAppender();
+          for (int i = 0; i < 10_000; i++) {
+            assertEquals(hand, store.getHandMask(appender.append(hand, 1 << 20 | i)));
+          }
+        }));
+        workers.get(worker).setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+      }
+      workers.forEach(Thread::start);
+      for (final Thread worker : workers) {
+        worker.join();
+      }
+      assertNull(failure.get());
+
+      assertEquals(40_000, store.getRecordCount());
+      assertEquals(400, store.getSegmentCount());
+      final long[] perHand = new long[4];
+      store.forEach((recordId, handMask, rank, players, winnerMask) ->
+          ++perHand[Long.numberOfTrailingZeros(handMask) / 7]);
+      for (final long records : perHand) {
+        assertEquals(10_000, records);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingRecord() throws Exception {
+    try (ResultStore store = ResultStore.inMemory(8)) {
+      store.newAppender().append(1L, 1 << 20);
+      store.newAppender().append(1L, 1 << 20);
+      assertTrue(store.contains(8));
+      store.getRank(1);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() throws Exception {
+    final ResultStore store = ResultStore.inMemory(8);
+    store.close();
+    store.newAppender();
+  }
+}